@@ -0,0 +1,156 @@
+package com.jartiste.smartshop.benchmark;
+
+import com.jartiste.smartshop.application.mapper.OrderMapper;
+import com.jartiste.smartshop.application.mapper.OrderMapperImpl;
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.entity.Order;
+import com.jartiste.smartshop.domain.entity.OrderItem;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.OrderStatus;
+import com.jartiste.smartshop.domain.service.OrderDomainService;
+import com.jartiste.smartshop.domain.service.PricingEngine;
+import com.jartiste.smartshop.presentation.dto.response.OrderResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing pipeline every order goes through, from item processing to the mapped response.
+ * Run with {@code mvn -Pjmh test-compile exec:exec}; the gc profiler reports gc.alloc.rate.norm (bytes/op).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPricingBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    private int lines;
+
+    @Param({"BASIC", "SLIVER", "GOLD", "PLATINUM"})
+    private CustomerTier tier;
+
+    private final OrderDomainService orderDomainService = new OrderDomainService(new PricingEngine());
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+
+    private Client client;
+    private List<OrderItem> items;
+    private Order pricedOrder;
+
+    @Setup
+    public void setup() {
+        client = Client.builder()
+                .id(1L)
+                .nom("Tech Giant SARL")
+                .tier(tier)
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .build();
+
+        items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            Product product = Product.builder()
+                    .id((long) i)
+                    .name("Product " + i)
+                    .price(BigDecimal.valueOf(15000 + i * 725L, 2))
+                    .stock(Integer.MAX_VALUE)
+                    .deleted(false)
+                    .build();
+            items.add(OrderItem.builder()
+                    .product(product)
+                    .quantity(1 + i % 5)
+                    .unitPrice(product.getPrice())
+                    .build());
+        }
+
+        pricedOrder = newOrder();
+        orderDomainService.processOrderItem(pricedOrder, items, itemList -> true);
+        orderDomainService.calculateFinalAmounts(pricedOrder);
+        pricedOrder.setId(42L);
+        pricedOrder.setCreatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public Order processOrderItem() {
+        Order order = newOrder();
+        orderDomainService.processOrderItem(order, items, itemList -> true);
+        return order;
+    }
+
+    @Benchmark
+    public Order calculateFinalAmounts() {
+        orderDomainService.calculateFinalAmounts(pricedOrder);
+        return pricedOrder;
+    }
+
+    @Benchmark
+    public Order legacyCalculateFinalAmounts() {
+        legacyCalculateFinalAmounts(pricedOrder);
+        return pricedOrder;
+    }
+
+    @Benchmark
+    public BigDecimal discountRate() {
+        return client.getDiscountRate(pricedOrder.getSubTotal());
+    }
+
+    @Benchmark
+    public OrderResponse toResponse() {
+        return orderMapper.toResponse(pricedOrder);
+    }
+
+    @Benchmark
+    public OrderResponse fullPipeline() {
+        Order order = newOrder();
+        orderDomainService.processOrderItem(order, items, itemList -> true);
+        orderDomainService.calculateFinalAmounts(order);
+        return orderMapper.toResponse(order);
+    }
+
+    /** Pricing as it was before PricingEngine, kept as the allocation baseline. */
+    private void legacyCalculateFinalAmounts(Order order) {
+        double amount = order.getSubTotal().doubleValue();
+        BigDecimal discountRate = BigDecimal.ZERO;
+        if (tier == CustomerTier.SLIVER && amount >= 500) discountRate = BigDecimal.valueOf(0.05);
+        if (tier == CustomerTier.GOLD && amount >= 800) discountRate = BigDecimal.valueOf(0.10);
+        if (tier == CustomerTier.PLATINUM && amount >= 1200) discountRate = BigDecimal.valueOf(0.15);
+
+        if (order.getPromoCode() != null && order.getPromoCode().matches("PROMO-[A-Z0-9]{4}")) {
+            discountRate = discountRate.add(BigDecimal.valueOf(0.05));
+        }
+
+        order.setDiscountAmount(order.getSubTotal().multiply(discountRate).setScale(2, RoundingMode.HALF_UP));
+        BigDecimal netHT = order.getSubTotal().subtract(order.getDiscountAmount());
+        if (netHT.compareTo(BigDecimal.ZERO) < 0) netHT = BigDecimal.ZERO;
+        BigDecimal tva = netHT.multiply(BigDecimal.valueOf(0.20));
+        order.setTaxAmount(tva.setScale(2, RoundingMode.HALF_UP));
+        BigDecimal total = netHT.add(tva).setScale(2, RoundingMode.HALF_UP);
+        order.setTotalAmount(total);
+        order.setRemainingAmount(total);
+    }
+
+    private Order newOrder() {
+        Order order = orderDomainService.initializeOrder(client, "PROMO-AB12");
+        order.setItemList(new ArrayList<>(lines));
+        order.setOrderStatus(OrderStatus.PENDING);
+        return order;
+    }
+}
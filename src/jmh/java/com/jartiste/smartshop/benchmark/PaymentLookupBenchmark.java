@@ -0,0 +1,167 @@
+package com.jartiste.smartshop.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@code PaymentServiceImpl.getPaymentByOrder} as the payment table grows from 10k to
+ * 10M rows. {@code byOrder} runs the statement behind {@code PaymentRepository.findByOrder_IdOrderByCreatedAtAsc}
+ * on {@code idx_payment_order_id} and should stay flat; {@code scanAndFilter} reads the whole table
+ * and keeps one order's rows, the way the lookup worked before, and grows with it. Statements run
+ * over plain JDBC, so the numbers are the database's share, without entity hydration.
+ * <p>
+ * The default database is an in-memory H2. For PostgreSQL numbers, point {@code jdbcUrl} at an
+ * empty scratch database: the benchmark creates and drops its own {@code payment} table. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.include=PaymentLookupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgs = "-Xmx8g")
+public class PaymentLookupBenchmark {
+
+    // PaymentRepository.findByOrder_IdOrderByCreatedAtAsc
+    private static final String BY_ORDER = "SELECT p.id, p.amount, p.bank_name, p.cleared_date, p.created_at, p.due_date, "
+            + "p.order_id, p.payment_method, p.payment_status, p.reference, p.updated_at "
+            + "FROM payment p WHERE p.order_id = ? ORDER BY p.created_at";
+    // what getPaymentByOrder used to run before filtering in memory
+    private static final String ALL_PAYMENTS = "SELECT p.id, p.amount, p.bank_name, p.cleared_date, p.created_at, p.due_date, "
+            + "p.order_id, p.payment_method, p.payment_status, p.reference, p.updated_at FROM payment p";
+    private static final int BATCH_SIZE = 10_000;
+    private static final int PAYMENTS_PER_ORDER = 3;
+    private static final int ORDER_ID = 8;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    private int payments;
+
+    @Param({"jdbc:h2:mem:payment_lookup;DB_CLOSE_DELAY=-1"})
+    private String jdbcUrl;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS payment");
+            statement.execute("CREATE TABLE payment (id BIGINT PRIMARY KEY, amount NUMERIC(38,2), bank_name VARCHAR(255), "
+                    + "cleared_date TIMESTAMP(6), created_at TIMESTAMP(6), due_date DATE, order_id BIGINT, "
+                    + "payment_method VARCHAR(16), payment_status VARCHAR(16), reference VARCHAR(255), updated_at TIMESTAMP(6))");
+            statement.execute("CREATE INDEX idx_payment_order_id ON payment (order_id)");
+
+            connection.setAutoCommit(false);
+            try (PreparedStatement payment = connection.prepareStatement(
+                    "INSERT INTO payment (id, amount, created_at, order_id, payment_method, payment_status, reference, updated_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                for (int id = 1; id <= payments; id++) {
+                    payment.setLong(1, id);
+                    payment.setLong(2, 100 + id % 5000);
+                    payment.setTimestamp(3, now);
+                    payment.setLong(4, orderOf(id));
+                    payment.setString(5, "ESPECES");
+                    payment.setString(6, "ENCAISSE");
+                    payment.setString(7, "ESP-" + id);
+                    payment.setTimestamp(8, now);
+                    payment.addBatch();
+                    if (id % BATCH_SIZE == 0 || id == payments) {
+                        payment.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS payment");
+        }
+    }
+
+    @Benchmark
+    public void byOrder(Session session, Blackhole blackhole) throws SQLException {
+        session.byOrder.setLong(1, session.nextOrder(payments));
+        try (ResultSet rs = session.byOrder.executeQuery()) {
+            consume(rs, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void scanAndFilter(Session session, Blackhole blackhole) throws SQLException {
+        long orderId = session.nextOrder(payments);
+        try (ResultSet rs = session.allPayments.executeQuery()) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                if (rs.getLong(ORDER_ID) == orderId) {
+                    for (int column = 1; column <= columns; column++) {
+                        blackhole.consume(rs.getObject(column));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void consume(ResultSet rs, Blackhole blackhole) throws SQLException {
+        int columns = rs.getMetaData().getColumnCount();
+        while (rs.next()) {
+            for (int column = 1; column <= columns; column++) {
+                blackhole.consume(rs.getObject(column));
+            }
+        }
+    }
+
+    private static long orderOf(long paymentId) {
+        return (paymentId - 1) / PAYMENTS_PER_ORDER + 1;
+    }
+
+    /** One connection and its prepared statements per benchmark thread, like a pooled connection. */
+    @State(Scope.Thread)
+    public static class Session {
+
+        private final SplittableRandom random = new SplittableRandom();
+        private Connection connection;
+        private PreparedStatement byOrder;
+        private PreparedStatement allPayments;
+
+        @Setup(Level.Trial)
+        public void open(PaymentLookupBenchmark benchmark) throws SQLException {
+            connection = DriverManager.getConnection(benchmark.jdbcUrl);
+            byOrder = connection.prepareStatement(BY_ORDER);
+            allPayments = connection.prepareStatement(ALL_PAYMENTS);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+
+        long nextOrder(int payments) {
+            return orderOf(random.nextInt(payments) + 1);
+        }
+    }
+}
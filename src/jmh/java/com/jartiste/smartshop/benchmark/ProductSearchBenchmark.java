@@ -0,0 +1,90 @@
+package com.jartiste.smartshop.benchmark;
+
+import com.jartiste.smartshop.infrastructure.search.ProductSearchIndex;
+import com.jartiste.smartshop.infrastructure.search.SearchDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency on a catalog of French product names. Sample mode reports the percentiles,
+ * p0.99 being the one the search endpoint is held to (under 5 ms at one million products).
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.include=ProductSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ProductSearchBenchmark {
+
+    private static final String[] KINDS = {"Écran", "Souris", "Clavier", "Câble", "Chargeur", "Casque", "Enceinte",
+            "Imprimante", "Disque", "Clé", "Tapis", "Webcam", "Routeur", "Batterie", "Housse", "Support", "Lampe",
+            "Manette", "Microphone", "Adaptateur"};
+    private static final String[] QUALIFIERS = {"sans fil", "gamer", "ergonomique", "rétroéclairé", "pliable", "étanche",
+            "compact", "professionnel", "USB-C", "Bluetooth", "HDMI", "mécanique", "optique", "portable", "noir",
+            "blanc", "argenté", "haute résolution", "silencieux", "renforcé"};
+    private static final String[] BRANDS = {"Samsung", "Logitech", "Lenovo", "Dell", "Asus", "Philips", "Sony",
+            "Razer", "Corsair", "Hama", "Belkin", "Anker", "Acer", "Trust", "Xiaomi", "Bosch", "Thomson", "Archos"};
+
+    @Param({"1000000"})
+    private int products;
+
+    private ProductSearchIndex index;
+    private List<ProductSearchIndex.Query> queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new ProductSearchIndex();
+        for (int id = 1; id <= products; id++) {
+            String name = pick(random, KINDS) + " " + pick(random, QUALIFIERS) + " " + pick(random, BRANDS)
+                    + " " + Integer.toString(id, 36);
+            index.put(new SearchDocument(id, 0, "SKU-" + id, name, BigDecimal.valueOf(random.nextInt(50, 20000)),
+                    random.nextInt(0, 50), false));
+        }
+
+        queries = List.of(
+                query("ecr", null, null, false),
+                query("souris sans f", null, null, true),
+                query("clavier mecanique log", BigDecimal.valueOf(500), BigDecimal.valueOf(1500), false),
+                query("samsung", null, null, true),
+                query("cable usb", null, BigDecimal.valueOf(300), true),
+                query("casque gamer razer", null, null, false),
+                query("c", null, null, false),
+                query("imprim", BigDecimal.valueOf(1000), null, true));
+    }
+
+    @Benchmark
+    public List<SearchDocument> search() {
+        // racy counter on purpose: the point is only to rotate through the queries
+        ProductSearchIndex.Query query = queries.get(Math.floorMod(next++, queries.size()));
+        return index.search(query);
+    }
+
+    private static ProductSearchIndex.Query query(String text, BigDecimal minPrice, BigDecimal maxPrice, boolean inStock) {
+        return new ProductSearchIndex.Query(text, minPrice, maxPrice, inStock, 10);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,196 @@
+package com.jartiste.smartshop.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login and client lookup latency on the JOINED user tables, comparing the statement Hibernate
+ * issues to load a {@code User} by username (outer joins to every subclass table, every column)
+ * with the credentials projection login now uses, and the {@code Client} lookup by id. Statements
+ * run over plain JDBC, so the numbers are the database's share, without entity hydration.
+ * <p>
+ * The default database is an in-memory H2. For PostgreSQL numbers, point {@code jdbcUrl} at an
+ * empty scratch database: the benchmark creates and drops its own {@code users}, {@code client}
+ * and {@code admin} tables. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.include=UserLookupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgs = "-Xmx8g")
+public class UserLookupBenchmark {
+
+    // what UserRepository.findByUsername used to run
+    private static final String ENTITY_BY_USERNAME = "SELECT u.id, u.user_type, u.created_at, u.password, u.role, u.updated_at, "
+            + "u.username, c.first_order_date, c.last_order_date, c.nom, c.tier, c.total_orders, c.total_spent "
+            + "FROM users u LEFT JOIN admin a ON u.id = a.id LEFT JOIN client c ON u.id = c.id WHERE u.username = ?";
+    // UserRepository.findCredentialsByUsername
+    private static final String CREDENTIALS_BY_USERNAME = "SELECT u.id, u.username, u.password, u.role, CAST(c.tier AS INTEGER) "
+            + "FROM users u LEFT JOIN client c ON c.id = u.id WHERE u.username = ?";
+    // ClientRepository.findById
+    private static final String CLIENT_BY_ID = "SELECT c.id, u.created_at, u.password, u.role, u.updated_at, u.username, "
+            + "c.first_order_date, c.last_order_date, c.nom, c.tier, c.total_orders, c.total_spent "
+            + "FROM client c JOIN users u ON c.id = u.id WHERE c.id = ?";
+    private static final int BATCH_SIZE = 10_000;
+    // one user in ADMIN_EVERY is an admin, the others are clients
+    private static final int ADMIN_EVERY = 1000;
+
+    @Param({"5000000"})
+    private int users;
+
+    @Param({"jdbc:h2:mem:user_lookup;DB_CLOSE_DELAY=-1"})
+    private String jdbcUrl;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl); Statement statement = connection.createStatement()) {
+            dropTables(statement);
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, user_type VARCHAR(31) NOT NULL, username VARCHAR(255), "
+                    + "password VARCHAR(255), role VARCHAR(16), created_at TIMESTAMP(6), updated_at TIMESTAMP(6))");
+            statement.execute("CREATE TABLE admin (id BIGINT PRIMARY KEY)");
+            statement.execute("CREATE TABLE client (id BIGINT PRIMARY KEY, nom VARCHAR(255), tier SMALLINT, total_orders INTEGER, "
+                    + "total_spent NUMERIC(38,2), first_order_date DATE, last_order_date DATE)");
+            // login is a lookup by username, as every database under load should have it indexed
+            statement.execute("CREATE UNIQUE INDEX uk_users_username ON users (username)");
+
+            connection.setAutoCommit(false);
+            try (PreparedStatement user = connection.prepareStatement(
+                         "INSERT INTO users (id, user_type, username, password, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement client = connection.prepareStatement(
+                         "INSERT INTO client (id, nom, tier, total_orders, total_spent) VALUES (?, ?, ?, ?, ?)");
+                 PreparedStatement admin = connection.prepareStatement("INSERT INTO admin (id) VALUES (?)")) {
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                for (int id = 1; id <= users; id++) {
+                    boolean isAdmin = id % ADMIN_EVERY == 0;
+                    user.setLong(1, id);
+                    user.setString(2, isAdmin ? "ADMIN" : "CLIENT");
+                    user.setString(3, username(id));
+                    // a BCrypt hash is 60 characters
+                    user.setString(4, "$2a$10$" + "x".repeat(53));
+                    user.setString(5, isAdmin ? "ADMIN" : "CLIENT");
+                    user.setTimestamp(6, now);
+                    user.setTimestamp(7, now);
+                    user.addBatch();
+                    if (isAdmin) {
+                        admin.setLong(1, id);
+                        admin.addBatch();
+                    } else {
+                        client.setLong(1, id);
+                        client.setString(2, "Client " + id);
+                        client.setInt(3, id % 4);
+                        client.setInt(4, id % 40);
+                        client.setLong(5, id % 5000);
+                        client.addBatch();
+                    }
+                    if (id % BATCH_SIZE == 0 || id == users) {
+                        user.executeBatch();
+                        client.executeBatch();
+                        admin.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl); Statement statement = connection.createStatement()) {
+            dropTables(statement);
+        }
+    }
+
+    @Benchmark
+    public void loginByEntity(Session session, Blackhole blackhole) throws SQLException {
+        session.entityByUsername.setString(1, username(session.nextId(users)));
+        consume(session.entityByUsername, blackhole);
+    }
+
+    @Benchmark
+    public void loginByCredentials(Session session, Blackhole blackhole) throws SQLException {
+        session.credentialsByUsername.setString(1, username(session.nextId(users)));
+        consume(session.credentialsByUsername, blackhole);
+    }
+
+    @Benchmark
+    public void clientById(Session session, Blackhole blackhole) throws SQLException {
+        long id = session.nextId(users);
+        session.clientById.setLong(1, id % ADMIN_EVERY == 0 ? id - 1 : id);
+        consume(session.clientById, blackhole);
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int column = 1; column <= columns; column++) {
+                    blackhole.consume(rs.getObject(column));
+                }
+            }
+        }
+    }
+
+    private static String username(long id) {
+        return "user_" + id;
+    }
+
+    private static void dropTables(Statement statement) throws SQLException {
+        statement.execute("DROP TABLE IF EXISTS client");
+        statement.execute("DROP TABLE IF EXISTS admin");
+        statement.execute("DROP TABLE IF EXISTS users");
+    }
+
+    /** One connection and its prepared statements per benchmark thread, like a pooled connection. */
+    @State(Scope.Thread)
+    public static class Session {
+
+        private final SplittableRandom random = new SplittableRandom();
+        private Connection connection;
+        private PreparedStatement entityByUsername;
+        private PreparedStatement credentialsByUsername;
+        private PreparedStatement clientById;
+
+        @Setup(Level.Trial)
+        public void open(UserLookupBenchmark benchmark) throws SQLException {
+            connection = DriverManager.getConnection(benchmark.jdbcUrl);
+            entityByUsername = connection.prepareStatement(ENTITY_BY_USERNAME);
+            credentialsByUsername = connection.prepareStatement(CREDENTIALS_BY_USERNAME);
+            clientById = connection.prepareStatement(CLIENT_BY_ID);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+
+        long nextId(int users) {
+            return random.nextInt(users) + 1;
+        }
+    }
+}
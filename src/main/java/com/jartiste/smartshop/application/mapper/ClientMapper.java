@@ -13,6 +13,8 @@ public interface ClientMapper {
     @Mapping(target = "tier", constant = "BASIC")
     @Mapping(target = "totalOrders", constant = "0")
     @Mapping(target = "totalSpent", constant = "0.0")
+    @Mapping(target = "firstOrderDate", ignore = true)
+    @Mapping(target = "lastOrderDate", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "password", ignore = true)
@@ -26,6 +28,10 @@ public interface ClientMapper {
     @Mapping(target = "tier", ignore = true)
     @Mapping(target = "totalOrders", ignore = true)
     @Mapping(target = "totalSpent", ignore = true)
+    @Mapping(target = "firstOrderDate", ignore = true)
+    @Mapping(target = "lastOrderDate", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy =  NullValuePropertyMappingStrategy.IGNORE)
     void updateEntityFromDto(ClientRequest request, @MappingTarget Client client);
 }
@@ -2,6 +2,7 @@ package com.jartiste.smartshop.application.mapper;
 
 
 import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.infrastructure.search.SearchDocument;
 import com.jartiste.smartshop.presentation.dto.request.ProductRequest;
 import com.jartiste.smartshop.presentation.dto.response.ProductResponse;
 import org.mapstruct.*;
@@ -13,14 +14,18 @@ public interface ProductMapper {
     @Mapping(target = "deleted", constant = "false")
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Product toEntity(ProductRequest request);
 
     ProductResponse toResponse(Product product);
 
+    ProductResponse toResponse(SearchDocument document);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "deleted", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy =  NullValuePropertyMappingStrategy.IGNORE)
     void updateProductFromDto(ProductRequest request, @MappingTarget Product product);
 }
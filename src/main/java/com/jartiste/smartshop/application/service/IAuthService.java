@@ -2,9 +2,9 @@ package com.jartiste.smartshop.application.service;
 
 import com.jartiste.smartshop.presentation.dto.request.LoginRequest;
 import com.jartiste.smartshop.presentation.dto.response.AuthResponse;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 
 public interface IAuthService {
-    AuthResponse login(LoginRequest request, HttpSession session);
-    void logout(HttpSession session);
+    AuthResponse login(LoginRequest request, HttpServletRequest httpRequest);
+    void logout(HttpServletRequest httpRequest);
 }
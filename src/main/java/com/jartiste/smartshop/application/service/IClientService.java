@@ -2,6 +2,7 @@ package com.jartiste.smartshop.application.service;
 
 import com.jartiste.smartshop.presentation.dto.request.ClientRequest;
 import com.jartiste.smartshop.presentation.dto.response.ClientResponse;
+import com.jartiste.smartshop.presentation.dto.response.CursorPageResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -9,6 +10,8 @@ public interface IClientService {
     ClientResponse createClient(ClientRequest request);
     ClientResponse getClientById(Long id);
     Page<ClientResponse> getAllClients(Pageable pageable);
+    CursorPageResponse<ClientResponse> getAllClients(String cursor, int size);
+    CursorPageResponse<ClientResponse> searchClients(String query, String cursor, int size);
     ClientResponse updateClient(Long id, ClientRequest request);
     void deleteClient(Long id);
 }
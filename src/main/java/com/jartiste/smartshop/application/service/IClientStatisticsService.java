@@ -0,0 +1,11 @@
+package com.jartiste.smartshop.application.service;
+
+import com.jartiste.smartshop.presentation.dto.response.ClientStatsRebuildResponse;
+
+import java.math.BigDecimal;
+
+public interface IClientStatisticsService {
+    void recordConfirmedOrder(Long clientId, BigDecimal orderAmount);
+    ClientStatsRebuildResponse startRebuild();
+    ClientStatsRebuildResponse getLatestRebuild();
+}
@@ -0,0 +1,10 @@
+package com.jartiste.smartshop.application.service;
+
+import com.jartiste.smartshop.infrastructure.export.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+public interface IOrderExportService {
+    StreamingResponseBody exportOrders(LocalDate from, LocalDate to, ExportFormat format);
+}
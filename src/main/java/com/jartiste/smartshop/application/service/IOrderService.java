@@ -1,6 +1,7 @@
 package com.jartiste.smartshop.application.service;
 
 import com.jartiste.smartshop.presentation.dto.request.OrderRequest;
+import com.jartiste.smartshop.presentation.dto.response.CursorPageResponse;
 import com.jartiste.smartshop.presentation.dto.response.OrderResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,6 +10,7 @@ public interface IOrderService {
     OrderResponse createOrder(OrderRequest request);
     OrderResponse getOrderById(Long id);
     Page<OrderResponse> getOrderByClient(Long clientId, Pageable pageable);
+    CursorPageResponse<OrderResponse> getOrderByClient(Long clientId, String cursor, int size);
     OrderResponse validateOrder(Long orderId);
     void cancelOrder(Long orderId);
 }
@@ -0,0 +1,9 @@
+package com.jartiste.smartshop.application.service;
+
+import com.jartiste.smartshop.presentation.dto.request.OrderRequest;
+import com.jartiste.smartshop.presentation.dto.response.OrderSubmissionResponse;
+
+public interface IOrderSubmissionService {
+    OrderSubmissionResponse submitOrder(OrderRequest request, String idempotencyKey);
+    OrderSubmissionResponse getSubmission(Long clientId, String idempotencyKey);
+}
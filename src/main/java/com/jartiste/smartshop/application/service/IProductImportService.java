@@ -0,0 +1,10 @@
+package com.jartiste.smartshop.application.service;
+
+import com.jartiste.smartshop.infrastructure.importer.ImportFormat;
+import com.jartiste.smartshop.presentation.dto.response.ProductImportResponse;
+
+import java.io.InputStream;
+
+public interface IProductImportService {
+    ProductImportResponse importProducts(InputStream body, ImportFormat format);
+}
@@ -1,13 +1,19 @@
 package com.jartiste.smartshop.application.service;
 
 import com.jartiste.smartshop.presentation.dto.request.ProductRequest;
+import com.jartiste.smartshop.presentation.dto.response.CursorPageResponse;
 import com.jartiste.smartshop.presentation.dto.response.ProductResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 public interface IProductService {
     ProductResponse createProduct(ProductRequest request);
     Page<ProductResponse> getAllActiveProduct(Pageable pageable);
+    CursorPageResponse<ProductResponse> getAllActiveProduct(String cursor, int size);
+    List<ProductResponse> searchProducts(String query, BigDecimal minPrice, BigDecimal maxPrice, boolean inStock, int limit);
     ProductResponse getProductById(Long id);
     ProductResponse updateProduct(Long id, ProductRequest request);
     void deleteProduct(Long id);
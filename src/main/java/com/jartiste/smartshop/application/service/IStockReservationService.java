@@ -0,0 +1,12 @@
+package com.jartiste.smartshop.application.service;
+
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.service.StockReserver;
+
+import java.util.Collection;
+import java.util.List;
+
+/** Loads and reserves the stock of an order's products, inside the transaction creating the order. */
+public interface IStockReservationService extends StockReserver {
+    List<Product> findProducts(Collection<Long> productIds);
+}
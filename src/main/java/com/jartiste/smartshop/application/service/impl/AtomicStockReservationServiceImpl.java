@@ -0,0 +1,53 @@
+package com.jartiste.smartshop.application.service.impl;
+
+import com.jartiste.smartshop.application.service.IStockReservationService;
+import com.jartiste.smartshop.domain.entity.OrderItem;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decrements each line with a single conditional UPDATE (stock >= quantity), in product id order.
+ * When a line fails, the lines already decremented in this transaction are given back.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "smartshop.stock", name = "concurrency-mode", havingValue = "atomic")
+@Transactional(propagation = Propagation.MANDATORY)
+public class AtomicStockReservationServiceImpl implements IStockReservationService {
+
+    private final ProductRepository productRepository;
+
+    public List<Product> findProducts(Collection<Long> productIds) {
+        return this.productRepository.findAllByIdInAndDeletedFalse(productIds);
+    }
+
+    public boolean reserve(List<OrderItem> itemList) {
+        List<OrderItem> reserved = new ArrayList<>();
+
+        for(OrderItem item : sortedByProductId(itemList)) {
+            if(this.productRepository.decreaseStockIfAvailable(item.getProduct().getId(), item.getQuantity()) == 0) {
+                reserved.forEach(r -> this.productRepository.increaseStock(r.getProduct().getId(), r.getQuantity()));
+                return false;
+            }
+            reserved.add(item);
+        }
+
+        return true;
+    }
+
+    private List<OrderItem> sortedByProductId(List<OrderItem> itemList) {
+        return itemList.stream()
+                .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+                .toList();
+    }
+}
@@ -2,18 +2,24 @@ package com.jartiste.smartshop.application.service.impl;
 
 
 import com.jartiste.smartshop.application.service.IAuthService;
-import com.jartiste.smartshop.domain.entity.Client;
-import com.jartiste.smartshop.domain.entity.User;
 import com.jartiste.smartshop.domain.enums.CustomerTier;
 import com.jartiste.smartshop.domain.exception.ResourceNotFound;
 import com.jartiste.smartshop.domain.exception.UsernameOrPasswordIncorrect;
 import com.jartiste.smartshop.domain.repository.UserRepository;
+import com.jartiste.smartshop.infrastructure.security.AuthMode;
+import com.jartiste.smartshop.infrastructure.security.AuthTokenProperties;
+import com.jartiste.smartshop.infrastructure.security.AuthTokenService;
+import com.jartiste.smartshop.infrastructure.security.AuthenticatedUser;
 import com.jartiste.smartshop.infrastructure.util.PasswordUtil;
+import com.jartiste.smartshop.infrastructure.util.PasswordVerifier;
 import com.jartiste.smartshop.presentation.dto.request.LoginRequest;
 import com.jartiste.smartshop.presentation.dto.response.AuthResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -21,22 +27,35 @@ public class AuthServiceImpl implements IAuthService {
 
     private final UserRepository userRepository;
     private final PasswordUtil passwordUtil;
+    private final PasswordVerifier passwordVerifier;
+    private final AuthTokenService authTokenService;
+    private final AuthTokenProperties authTokenProperties;
 
-    public AuthResponse login(LoginRequest request, HttpSession session) {
-        User user = this.userRepository.findByUsername(request.username())
+    // no connection is held while BCrypt runs: the lookup and the rehash commit on their own
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponse login(LoginRequest request, HttpServletRequest httpRequest) {
+        UserRepository.LoginCredentials user = this.userRepository.findCredentialsByUsername(request.username())
                 .orElseThrow(() -> new ResourceNotFound("User not Found"));
 
-        if(!passwordUtil.checkPassword(request.password(), user.getPassword())) {
+        if(!passwordVerifier.verify(user.getUsername(), request.password(), user.getPassword())) {
             throw new UsernameOrPasswordIncorrect("username or password Incorrect");
         }
 
-        session.setAttribute("USER_ID", user.getId());
-        session.setAttribute("USER_ROLE", user.getRole());
+        // the configured BCrypt cost changed since this hash was made
+        if(passwordUtil.needsRehash(user.getPassword())) {
+            this.userRepository.updatePassword(user.getId(), passwordVerifier.hash(request.password()));
+        }
+
+        CustomerTier tier = user.getTier();
 
-        CustomerTier tier = null;
+        String token = null;
 
-        if(user instanceof Client client) {
-            tier = client.getTier();
+        if(this.authTokenProperties.mode() == AuthMode.TOKEN) {
+            token = this.authTokenService.issue(user.getId(), user.getRole(), tier);
+        } else {
+            HttpSession session = httpRequest.getSession();
+            session.setAttribute(AuthenticatedUser.USER_ID, user.getId());
+            session.setAttribute(AuthenticatedUser.USER_ROLE, user.getRole());
         }
 
         return AuthResponse.builder()
@@ -44,11 +63,16 @@ public class AuthServiceImpl implements IAuthService {
                 .username(user.getUsername())
                 .role(user.getRole().name())
                 .tier(tier)
+                .token(token)
                 .message("LoggedIn SuccessFully")
                 .build();
     }
 
-    public void logout(HttpSession session) {
-        session.invalidate();
+    public void logout(HttpServletRequest httpRequest) {
+        // tokens are stateless and simply expire
+        HttpSession session = httpRequest.getSession(false);
+        if(null != session) {
+            session.invalidate();
+        }
     }
 }
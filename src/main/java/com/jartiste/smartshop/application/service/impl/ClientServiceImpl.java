@@ -5,26 +5,46 @@ import com.jartiste.smartshop.application.service.IClientService;
 import com.jartiste.smartshop.domain.entity.Client;
 import com.jartiste.smartshop.domain.exception.BusinessLogicViolation;
 import com.jartiste.smartshop.domain.exception.ResourceNotFound;
+import com.jartiste.smartshop.domain.exception.ValidationException;
 import com.jartiste.smartshop.domain.repository.ClientRepository;
 import com.jartiste.smartshop.domain.repository.UserRepository;
+import com.jartiste.smartshop.infrastructure.search.ClientNameSearch;
+import com.jartiste.smartshop.infrastructure.search.ClientSearchHit;
+import com.jartiste.smartshop.infrastructure.util.CursorCodec;
 import com.jartiste.smartshop.infrastructure.util.PasswordUtil;
 import com.jartiste.smartshop.presentation.dto.request.ClientRequest;
 import com.jartiste.smartshop.presentation.dto.response.ClientResponse;
+import com.jartiste.smartshop.presentation.dto.response.CursorPageResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ClientServiceImpl implements IClientService {
 
+    private static final int MIN_SEARCH_LENGTH = 3;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ClientRepository clientRepository;
     private final UserRepository userRepository;
     private final ClientMapper clientMapper;
     private final PasswordUtil passwordUtil;
+    private final CursorCodec cursorCodec;
+    private final ClientNameSearch clientNameSearch;
 
 
+    @Transactional
     public ClientResponse createClient(ClientRequest request) {
         if(userRepository.existsByUsername(request.username())) {
             throw new BusinessLogicViolation("username already exists");
@@ -34,21 +54,69 @@ public class ClientServiceImpl implements IClientService {
         client.setPassword(passwordUtil.hashPassword(request.password()));
 
         Client newClient = this.clientRepository.save(client);
+        this.clientNameSearch.index(newClient);
 
         return this.clientMapper.toResponse(newClient);
     }
 
+    @Transactional(readOnly = true)
     public ClientResponse getClientById(Long id) {
         return this.clientRepository.findById(id)
                 .map(clientMapper::toResponse)
                 .orElseThrow(() -> new ResourceNotFound("Client not Found"));
     }
 
+    // admins list clients right after creating or editing one, so listings stay on the primary
+    @Transactional
     public Page<ClientResponse> getAllClients(Pageable pageable) {
         return this.clientRepository.findAll(pageable)
                 .map(clientMapper::toResponse);
     }
 
+    @Transactional
+    public CursorPageResponse<ClientResponse> getAllClients(String cursor, int size) {
+        if(size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Window<Client> window = this.clientRepository.findAllBy(
+                cursorCodec.decodeId(cursor), Sort.by("id"), Limit.of(size));
+
+        return new CursorPageResponse<>(window.map(clientMapper::toResponse).getContent(),
+                window.size(), window.hasNext(), cursorCodec.nextCursor(window));
+    }
+
+    // the name index is updated on commit, so the hits must be loaded from the primary
+    @Transactional
+    public CursorPageResponse<ClientResponse> searchClients(String query, String cursor, int size) {
+        // fewer than three characters make no trigram, so no index could narrow the search
+        if(null == query || query.trim().length() < MIN_SEARCH_LENGTH) {
+            throw new ValidationException("Search text must have at least " + MIN_SEARCH_LENGTH + " characters");
+        }
+        if(size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        CursorCodec.ScoreAndId position = cursorCodec.decodeScoreAndId(cursor);
+        ClientSearchHit after = null == position ? null : new ClientSearchHit(position.id(), position.score());
+        List<ClientSearchHit> hits = this.clientNameSearch.search(query, after, size + 1);
+        boolean hasNext = hits.size() > size;
+        List<ClientSearchHit> page = hasNext ? hits.subList(0, size) : hits;
+
+        Map<Long, Client> clients = this.clientRepository.findAllById(page.stream().map(ClientSearchHit::id).toList()).stream()
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
+        List<ClientResponse> content = page.stream()
+                .map(hit -> clients.get(hit.id()))
+                .filter(client -> null != client)
+                .map(clientMapper::toResponse)
+                .toList();
+
+        ClientSearchHit last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = hasNext ? cursorCodec.encodeScoreAndId(last.score(), last.id()) : null;
+        return new CursorPageResponse<>(content, content.size(), hasNext, nextCursor);
+    }
+
+    @Transactional
     public ClientResponse updateClient(Long id, ClientRequest request) {
         Client client = this.clientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFound("Client not Found"));
@@ -56,16 +124,19 @@ public class ClientServiceImpl implements IClientService {
         clientMapper.updateEntityFromDto(request, client);
 
         Client updatedClient = this.clientRepository.save(client);
+        this.clientNameSearch.index(updatedClient);
 
         return this.clientMapper.toResponse(updatedClient);
     }
 
 
+    @Transactional
     public void deleteClient(Long id) {
         if(!this.clientRepository.existsById(id)) {
             throw  new ResourceNotFound("Client not Found");
         }
 
         this.clientRepository.deleteById(id);
+        this.clientNameSearch.remove(id);
     }
 }
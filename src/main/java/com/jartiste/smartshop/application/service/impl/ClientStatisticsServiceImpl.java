@@ -0,0 +1,89 @@
+package com.jartiste.smartshop.application.service.impl;
+
+import com.jartiste.smartshop.application.service.IClientStatisticsService;
+import com.jartiste.smartshop.domain.entity.ClientStatsRebuild;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.JobStatus;
+import com.jartiste.smartshop.domain.exception.BusinessLogicViolation;
+import com.jartiste.smartshop.domain.exception.ResourceNotFound;
+import com.jartiste.smartshop.domain.repository.ClientRepository;
+import com.jartiste.smartshop.domain.repository.ClientStatsRebuildRepository;
+import com.jartiste.smartshop.infrastructure.async.ClientStatsRebuilder;
+import com.jartiste.smartshop.presentation.dto.response.ClientStatsRebuildResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+@Service
+@RequiredArgsConstructor
+public class ClientStatisticsServiceImpl implements IClientStatisticsService {
+
+    private static final String CLIENT_NOT_FOUND = "Client not Found";
+
+    private final ClientRepository clientRepository;
+    private final ClientStatsRebuildRepository clientStatsRebuildRepository;
+    private final ClientStatsRebuilder clientStatsRebuilder;
+
+    @Transactional
+    public void recordConfirmedOrder(Long clientId, BigDecimal orderAmount) {
+        if(this.clientRepository.addToStats(clientId, 1, orderAmount) == 0) {
+            throw new ResourceNotFound(CLIENT_NOT_FOUND);
+        }
+
+        // the update keeps the row locked until commit, so these are the totals just written
+        ClientRepository.ClientStats stats = this.clientRepository.findStatsById(clientId)
+                .orElseThrow(() -> new ResourceNotFound(CLIENT_NOT_FOUND));
+        CustomerTier earned = CustomerTier.forStats(stats.getTotalOrders(), stats.getTotalSpent());
+        if(earned != CustomerTier.BASIC && earned != stats.getTier()) {
+            this.clientRepository.updateTier(clientId, earned.ordinal());
+        }
+    }
+
+    // the run must be committed before the rebuild threads look it up
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ClientStatsRebuildResponse startRebuild() {
+        if(this.clientStatsRebuilder.isRunning()) {
+            throw new BusinessLogicViolation("A client statistics rebuild is already running");
+        }
+
+        // an unfinished run is resumed from its last completed chunk
+        ClientStatsRebuild rebuild = this.clientStatsRebuildRepository.findFirstByOrderByIdDesc()
+                .filter(last -> last.getStatus() != JobStatus.COMPLETED)
+                .orElseGet(() -> ClientStatsRebuild.builder()
+                        .lastClientId(0L)
+                        .processedClients(0L)
+                        .build());
+        rebuild.setStatus(JobStatus.RUNNING);
+        rebuild.setErrorMessage(null);
+        rebuild = this.clientStatsRebuildRepository.save(rebuild);
+
+        if(!this.clientStatsRebuilder.start(rebuild.getId())) {
+            throw new BusinessLogicViolation("A client statistics rebuild is already running");
+        }
+        return toResponse(rebuild);
+    }
+
+    // polled while the rebuild threads write its progress, so it reads the primary
+    @Transactional
+    public ClientStatsRebuildResponse getLatestRebuild() {
+        return this.clientStatsRebuildRepository.findFirstByOrderByIdDesc()
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFound("No client statistics rebuild found"));
+    }
+
+    private ClientStatsRebuildResponse toResponse(ClientStatsRebuild rebuild) {
+        return ClientStatsRebuildResponse.builder()
+                .id(rebuild.getId())
+                .status(rebuild.getStatus())
+                .processedClients(rebuild.getProcessedClients())
+                .totalClients(rebuild.getTotalClients())
+                .lastClientId(rebuild.getLastClientId())
+                .error(rebuild.getErrorMessage())
+                .startedAt(rebuild.getStartedAt())
+                .completedAt(rebuild.getCompletedAt())
+                .build();
+    }
+}
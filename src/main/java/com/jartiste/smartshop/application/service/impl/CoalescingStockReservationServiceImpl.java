@@ -0,0 +1,91 @@
+package com.jartiste.smartshop.application.service.impl;
+
+import com.jartiste.smartshop.application.service.IStockReservationService;
+import com.jartiste.smartshop.domain.entity.OrderItem;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.exception.ServiceUnavailableException;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.infrastructure.async.StockDecrementCoalescer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hands every line to the {@link StockDecrementCoalescer} at once and waits for all of them.
+ * The decrements commit in the coalescer's own short transactions, so when a line is refused,
+ * or the order's transaction later rolls back, the lines already taken are given back.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "smartshop.stock", name = "concurrency-mode", havingValue = "coalescing")
+@Transactional(propagation = Propagation.MANDATORY)
+public class CoalescingStockReservationServiceImpl implements IStockReservationService {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final ProductRepository productRepository;
+    private final StockDecrementCoalescer stockDecrementCoalescer;
+
+    public List<Product> findProducts(Collection<Long> productIds) {
+        return this.productRepository.findAllByIdInAndDeletedFalse(productIds);
+    }
+
+    public boolean reserve(List<OrderItem> itemList) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        itemList.forEach(item -> quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+
+        Map<Long, CompletableFuture<Boolean>> results = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> results.put(productId, this.stockDecrementCoalescer.decrement(productId, quantity)));
+
+        try {
+            CompletableFuture.allOf(results.values().toArray(CompletableFuture[]::new)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            releaseGranted(results, quantities);
+            throw new ServiceUnavailableException("Stock reservation timed out, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseGranted(results, quantities);
+            throw new ServiceUnavailableException("Stock reservation interrupted");
+        } catch (ExecutionException e) {
+            releaseGranted(results, quantities);
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e.getCause());
+        }
+
+        if(results.values().stream().anyMatch(result -> !result.join())) {
+            releaseGranted(results, quantities);
+            return false;
+        }
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if(status != STATUS_COMMITTED) {
+                        quantities.forEach(stockDecrementCoalescer::release);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /** Gives back every line granted now or once its flush completes; failed lanes took nothing. */
+    private void releaseGranted(Map<Long, CompletableFuture<Boolean>> results, Map<Long, Integer> quantities) {
+        results.forEach((productId, result) -> result.thenAccept(granted -> {
+            if(granted) this.stockDecrementCoalescer.release(productId, quantities.get(productId));
+        }));
+    }
+}
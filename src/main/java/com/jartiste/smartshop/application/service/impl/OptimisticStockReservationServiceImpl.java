@@ -0,0 +1,83 @@
+package com.jartiste.smartshop.application.service.impl;
+
+import com.jartiste.smartshop.application.service.IStockReservationService;
+import com.jartiste.smartshop.domain.entity.OrderItem;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.exception.BusinessLogicViolation;
+import com.jartiste.smartshop.domain.exception.ResourceNotFound;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decrements each line only if the product version is still the one we read, re-reading
+ * stock and version on conflict up to a bounded number of attempts.
+ */
+@Service
+@ConditionalOnProperty(prefix = "smartshop.stock", name = "concurrency-mode", havingValue = "optimistic")
+@Transactional(propagation = Propagation.MANDATORY)
+public class OptimisticStockReservationServiceImpl implements IStockReservationService {
+
+    private final ProductRepository productRepository;
+    private final int maxRetries;
+
+    public OptimisticStockReservationServiceImpl(ProductRepository productRepository,
+                                                 @Value("${smartshop.stock.optimistic-max-retries:5}") int maxRetries) {
+        this.productRepository = productRepository;
+        this.maxRetries = maxRetries;
+    }
+
+    public List<Product> findProducts(Collection<Long> productIds) {
+        return this.productRepository.findAllByIdInAndDeletedFalse(productIds);
+    }
+
+    public boolean reserve(List<OrderItem> itemList) {
+        List<OrderItem> reserved = new ArrayList<>();
+
+        for(OrderItem item : sortedByProductId(itemList)) {
+            if(!reserveLine(item.getProduct(), item.getQuantity())) {
+                reserved.forEach(r -> this.productRepository.increaseStock(r.getProduct().getId(), r.getQuantity()));
+                return false;
+            }
+            reserved.add(item);
+        }
+
+        return true;
+    }
+
+    private boolean reserveLine(Product product, int quantity) {
+        int stock = product.getStock();
+        Long version = product.getVersion();
+
+        for(int attempt = 0; attempt <= maxRetries; attempt++) {
+            if(stock < quantity) {
+                return false;
+            }
+
+            if(this.productRepository.decreaseStockIfUnchanged(product.getId(), quantity, version) == 1) {
+                return true;
+            }
+
+            ProductRepository.StockView current = this.productRepository.findStockById(product.getId())
+                    .orElseThrow(() -> new ResourceNotFound("Product not Found"));
+            stock = current.getStock();
+            version = current.getVersion();
+        }
+
+        throw new BusinessLogicViolation("Product stock is being updated concurrently, please retry");
+    }
+
+    private List<OrderItem> sortedByProductId(List<OrderItem> itemList) {
+        return itemList.stream()
+                .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+                .toList();
+    }
+}
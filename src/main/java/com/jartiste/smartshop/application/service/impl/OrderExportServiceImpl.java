@@ -0,0 +1,27 @@
+package com.jartiste.smartshop.application.service.impl;
+
+import com.jartiste.smartshop.application.service.IOrderExportService;
+import com.jartiste.smartshop.domain.exception.ValidationException;
+import com.jartiste.smartshop.infrastructure.export.ExportFormat;
+import com.jartiste.smartshop.infrastructure.export.OrderExporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@Service
+@RequiredArgsConstructor
+public class OrderExportServiceImpl implements IOrderExportService {
+
+    private final OrderExporter orderExporter;
+
+    /** Checked up front: once the body starts streaming, the status can no longer change. */
+    public StreamingResponseBody exportOrders(LocalDate from, LocalDate to, ExportFormat format) {
+        if(null == from || null == to || from.isAfter(to)) {
+            throw new ValidationException("Export range is required and 'from' must not be after 'to'");
+        }
+
+        return out -> this.orderExporter.export(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), format, out);
+    }
+}
@@ -2,7 +2,9 @@ package com.jartiste.smartshop.application.service.impl;
 
 
 import com.jartiste.smartshop.application.mapper.OrderMapper;
+import com.jartiste.smartshop.application.service.IClientStatisticsService;
 import com.jartiste.smartshop.application.service.IOrderService;
+import com.jartiste.smartshop.application.service.IStockReservationService;
 import com.jartiste.smartshop.domain.entity.Client;
 import com.jartiste.smartshop.domain.entity.Order;
 import com.jartiste.smartshop.domain.entity.OrderItem;
@@ -10,21 +12,35 @@ import com.jartiste.smartshop.domain.entity.Product;
 import com.jartiste.smartshop.domain.enums.OrderStatus;
 import com.jartiste.smartshop.domain.exception.BusinessLogicViolation;
 import com.jartiste.smartshop.domain.exception.ResourceNotFound;
+import com.jartiste.smartshop.domain.exception.ValidationException;
 import com.jartiste.smartshop.domain.repository.ClientRepository;
 import com.jartiste.smartshop.domain.repository.OrderRepository;
 import com.jartiste.smartshop.domain.repository.ProductRepository;
 import com.jartiste.smartshop.domain.service.OrderDomainService;
+import com.jartiste.smartshop.infrastructure.cache.ProductCatalogCache;
+import com.jartiste.smartshop.infrastructure.util.CursorCodec;
+import com.jartiste.smartshop.presentation.dto.request.OrderItemRequest;
 import com.jartiste.smartshop.presentation.dto.request.OrderRequest;
+import com.jartiste.smartshop.presentation.dto.response.CursorPageResponse;
 import com.jartiste.smartshop.presentation.dto.response.OrderResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -34,58 +50,84 @@ public class OrderServiceImpl implements IOrderService {
     private final ProductRepository productRepository;
     private final ClientRepository clientRepository;
     private final OrderDomainService orderDomainService;
+    private final IStockReservationService stockReservationService;
     private final OrderMapper orderMapper;
+    private final ProductCatalogCache productCatalogCache;
+    private final CursorCodec cursorCodec;
+    private final IClientStatisticsService clientStatisticsService;
     private static final String ORDER_NOT_FOUND = "Order not Found";
+    private static final int MAX_PAGE_SIZE = 100;
 
+    @Transactional
     public OrderResponse createOrder(OrderRequest request) {
         Client client = this.clientRepository.findById(request.ClientId())
                 .orElseThrow(() -> new ResourceNotFound("Client not Found"));
 
-        LocalDate today = LocalDate.now();
-        if (client.getFirstOrderDate() == null) {
-            client.setFirstOrderDate(today);
-        }
-        client.setLastOrderDate(today);
-
         Order order = orderDomainService.initializeOrder(client, request.promoCode());
         order.setItemList(new ArrayList<>());
 
 
+        Map<Long, Integer> quantities = mergeQuantities(request.items());
+        Map<Long, Product> products = this.stockReservationService.findProducts(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        if(products.size() != quantities.size()) {
+            throw new ResourceNotFound("Product not Found");
+        }
+
         List<OrderItem> orderItems = new ArrayList<>();
-        for(var itemReq : request.items()) {
-            Product product = this.productRepository.findByIdAndDeletedFalse(itemReq.productId())
-                    .orElseThrow(() -> new ResourceNotFound("Product not Found"));
+        quantities.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
 
             OrderItem item = OrderItem.builder()
                     .product(product)
-                    .quantity(itemReq.quantity())
+                    .quantity(quantity)
                     .unitPrice(product.getPrice())
                     .build();
 
             orderItems.add(item);
-        }
+        });
 
-        orderDomainService.processOrderItem(order, orderItems);
+        orderDomainService.processOrderItem(order, orderItems, stockReservationService);
+        this.productCatalogCache.evictProducts(products.keySet());
         orderDomainService.calculateFinalAmounts(order);
 
         Order savedOrder = this.orderRepository.save(order);
 
-        this.clientRepository.save(client);
+        // only the order dates: saving the client would write back the stats it was loaded with
+        this.clientRepository.recordOrderDate(client.getId(), LocalDate.now());
 
         return this.orderMapper.toResponse(savedOrder);
     }
 
+    // read back right after a create, payment or status change, so it stays on the primary
+    @Transactional
     public OrderResponse getOrderById(Long id) {
-        return this.orderRepository.findById(id)
+        return this.orderRepository.findWithItemsById(id)
                 .map(orderMapper::toResponse)
                 .orElseThrow(() -> new ResourceNotFound( ORDER_NOT_FOUND));
     }
 
+    @Transactional(readOnly = true)
     public Page<OrderResponse> getOrderByClient(Long clientId, Pageable pageable) {
         return this.orderRepository.findByClient_Id(clientId, pageable)
                 .map(orderMapper::toResponse);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getOrderByClient(Long clientId, String cursor, int size) {
+        if(size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Window<Order> window = this.orderRepository.findByClient_Id(clientId,
+                cursorCodec.decodeCreatedAtAndId(cursor), Sort.by(Sort.Direction.DESC, "createdAt", "id"), Limit.of(size));
+
+        return new CursorPageResponse<>(window.map(orderMapper::toResponse).getContent(),
+                window.size(), window.hasNext(), cursorCodec.nextCursor(window));
+    }
+
+    @Transactional
     public OrderResponse validateOrder(Long orderId) {
         Order order = this.orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFound(ORDER_NOT_FOUND));
@@ -99,38 +141,39 @@ public class OrderServiceImpl implements IOrderService {
         }
 
         order.setOrderStatus(OrderStatus.CONFIRMED);
-        Client client = order.getClient();
-
-        client.updateStats(order.getTotalAmount());
+        this.clientStatisticsService.recordConfirmedOrder(order.getClient().getId(), order.getTotalAmount());
 
-        this.clientRepository.save(client);
         Order saved = this.orderRepository.save(order);
 
         return this.orderMapper.toResponse(saved);
     }
 
+    @Transactional
     public void cancelOrder(Long orderId) {
-        Order order = this.orderRepository.findById(orderId)
+        // items and their products come with the order, not one lookup per item
+        Order order = this.orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new ResourceNotFound(ORDER_NOT_FOUND));
 
         if(order.getOrderStatus() != OrderStatus.PENDING) {
             throw  new BusinessLogicViolation("Only Pending Orders can be Canceled");
         }
 
-        List<Product> productsToUpdate = order.getItemList().stream()
-                .map(item -> {
-                           Product product = this.productRepository.findById(item.getProduct().getId())
-                                   .orElseThrow(() -> new ResourceNotFound("Product not Found"));
-
-                           product.increaseStock(item.getQuantity());
-
-                           return product;
-                        })
-                        .toList();
-
-        this.productRepository.saveAll(productsToUpdate);
+        order.getItemList().stream()
+                .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+                .forEach(item -> this.productRepository.increaseStock(item.getProduct().getId(), item.getQuantity()));
+        this.productCatalogCache.evictProducts(order.getItemList().stream()
+                .map(item -> item.getProduct().getId())
+                .toList());
 
         order.setOrderStatus(OrderStatus.CANCELED);
         this.orderRepository.save(order);
     }
+
+    private Map<Long, Integer> mergeQuantities(List<OrderItemRequest> items) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for(var itemReq : items) {
+            quantities.merge(itemReq.productId(), itemReq.quantity(), Integer::sum);
+        }
+        return quantities;
+    }
 }
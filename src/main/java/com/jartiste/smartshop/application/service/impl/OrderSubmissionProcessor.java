@@ -0,0 +1,143 @@
+package com.jartiste.smartshop.application.service.impl;
+
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jartiste.smartshop.application.service.IOrderService;
+import com.jartiste.smartshop.domain.entity.OrderSubmission;
+import com.jartiste.smartshop.domain.enums.SubmissionStatus;
+import com.jartiste.smartshop.domain.exception.ServiceUnavailableException;
+import com.jartiste.smartshop.domain.repository.OrderSubmissionRepository;
+import com.jartiste.smartshop.presentation.dto.request.OrderRequest;
+import com.jartiste.smartshop.presentation.dto.response.OrderResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Turns queued submissions into orders. A micro-batch is loaded with one query; each order is
+ * then created in its own transaction together with the COMPLETED mark, so a crash can never
+ * leave an order whose submission still looks queued, and one bad order doesn't fail the batch.
+ * That transaction first claims the submission by moving it from QUEUED to PROCESSING: every node
+ * re-enqueues the queued submissions at startup, and only the worker whose claim changed the row
+ * creates the order. A failure is recorded under the same claim.
+ * <p>
+ * Failures that may pass on a second try (lock conflicts, an unreachable database, an overloaded
+ * stock reservation) leave the submission QUEUED with one more attempt counted, and its id is
+ * handed back for the dispatcher to enqueue again, up to {@code max-attempts}. Anything else, or
+ * the last attempt, marks it FAILED: its key then replays the failure.
+ */
+@Component
+@Slf4j
+public class OrderSubmissionProcessor {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OrderSubmissionRepository orderSubmissionRepository;
+    private final IOrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    public OrderSubmissionProcessor(OrderSubmissionRepository orderSubmissionRepository, IOrderService orderService,
+                                    ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                    @Value("${smartshop.orders.async.max-attempts:5}") int maxAttempts) {
+        this.orderSubmissionRepository = orderSubmissionRepository;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+    }
+
+    public List<Long> findQueued() {
+        return this.orderSubmissionRepository.findIdsByStatus(SubmissionStatus.QUEUED);
+    }
+
+    /** Queued submissions nothing has touched since {@code before}, whose worker may be gone. */
+    public List<Long> findQueuedBefore(LocalDateTime before) {
+        return this.orderSubmissionRepository.findIdsByStatusAndUpdatedAtBefore(SubmissionStatus.QUEUED, before);
+    }
+
+    /** Processes the submissions and returns the ids to enqueue again after a retryable failure. */
+    public List<Long> process(Collection<Long> submissionIds) {
+        List<Long> retries = new ArrayList<>();
+        for(OrderSubmission submission : this.orderSubmissionRepository.findAllById(submissionIds)) {
+            if(submission.getStatus() != SubmissionStatus.QUEUED) {
+                continue;
+            }
+
+            try {
+                OrderRequest request = this.objectMapper.readValue(submission.getPayload(), OrderRequest.class);
+                this.transactionTemplate.executeWithoutResult(status -> {
+                    if(!claim(submission)) {
+                        return;
+                    }
+                    OrderResponse order = this.orderService.createOrder(request);
+                    submission.setStatus(SubmissionStatus.COMPLETED);
+                    submission.setOrderId(order.id());
+                    this.orderSubmissionRepository.save(submission);
+                });
+            } catch (JsonProcessingException | RuntimeException e) {
+                try {
+                    if(isRetryable(e) && submission.getAttempts() + 1 < this.maxAttempts && countAttempt(submission)) {
+                        log.info("Order submission {} will be retried (attempt {} of {}): {}",
+                                submission.getId(), submission.getAttempts() + 1, this.maxAttempts, e.getMessage());
+                        retries.add(submission.getId());
+                    } else {
+                        fail(submission, e);
+                    }
+                } catch (RuntimeException recordFailure) {
+                    // the submission stays QUEUED; the dispatcher's sweep enqueues it again
+                    log.warn("Could not record the outcome of order submission {}", submission.getId(), recordFailure);
+                }
+            }
+        }
+        return retries;
+    }
+
+    static boolean isRetryable(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof ServiceUnavailableException;
+    }
+
+    private boolean claim(OrderSubmission submission) {
+        return this.orderSubmissionRepository.updateStatus(submission.getId(), SubmissionStatus.QUEUED, SubmissionStatus.PROCESSING) == 1;
+    }
+
+    private boolean countAttempt(OrderSubmission submission) {
+        return Boolean.TRUE.equals(this.transactionTemplate.execute(status ->
+                this.orderSubmissionRepository.countAttempt(submission.getId(), SubmissionStatus.QUEUED, LocalDateTime.now()) == 1));
+    }
+
+    private void fail(OrderSubmission submission, Exception e) {
+        String message = String.valueOf(e.getMessage());
+        boolean failed = Boolean.TRUE.equals(this.transactionTemplate.execute(status -> {
+            if(!claim(submission)) {
+                return false;
+            }
+            submission.setStatus(SubmissionStatus.FAILED);
+            submission.setOrderId(null);
+            submission.setAttempts(submission.getAttempts() + 1);
+            submission.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            this.orderSubmissionRepository.save(submission);
+            return true;
+        }));
+        if(failed) {
+            log.warn("Order submission {} failed after {} attempt(s): {}", submission.getId(), submission.getAttempts(), message);
+        }
+    }
+}
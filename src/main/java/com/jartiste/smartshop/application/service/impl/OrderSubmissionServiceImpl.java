@@ -0,0 +1,115 @@
+package com.jartiste.smartshop.application.service.impl;
+
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jartiste.smartshop.application.service.IOrderSubmissionService;
+import com.jartiste.smartshop.domain.entity.OrderSubmission;
+import com.jartiste.smartshop.domain.enums.SubmissionStatus;
+import com.jartiste.smartshop.domain.exception.BusinessLogicViolation;
+import com.jartiste.smartshop.domain.exception.ResourceNotFound;
+import com.jartiste.smartshop.domain.exception.ServiceUnavailableException;
+import com.jartiste.smartshop.domain.exception.ValidationException;
+import com.jartiste.smartshop.domain.repository.OrderSubmissionRepository;
+import com.jartiste.smartshop.infrastructure.async.OrderSubmissionDispatcher;
+import com.jartiste.smartshop.presentation.dto.request.OrderRequest;
+import com.jartiste.smartshop.presentation.dto.response.OrderSubmissionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.regex.Pattern;
+
+@Service
+@RequiredArgsConstructor
+public class OrderSubmissionServiceImpl implements IOrderSubmissionService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+    // the key becomes a path segment of the status URL, so only unreserved URL characters,
+    // and not "." or ".." which a client or proxy would resolve as a relative path
+    private static final Pattern KEY_PATTERN = Pattern.compile("(?!\\.{1,2}$)[A-Za-z0-9._~-]{1," + MAX_KEY_LENGTH + "}");
+
+    private final OrderSubmissionRepository orderSubmissionRepository;
+    private final OrderSubmissionDispatcher orderSubmissionDispatcher;
+    private final ObjectMapper objectMapper;
+
+    // the insert commits on its own: a duplicate key must not poison a surrounding transaction,
+    // and the workers must find the submission once it is enqueued
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderSubmissionResponse submitOrder(OrderRequest request, String idempotencyKey) {
+        if(null == idempotencyKey || !KEY_PATTERN.matcher(idempotencyKey).matches()) {
+            throw new ValidationException("Idempotency-Key header is required: 1 to " + MAX_KEY_LENGTH
+                    + " letters, digits, '.', '_', '~' or '-'");
+        }
+
+        String payload = toJson(request);
+
+        OrderSubmission existing = this.orderSubmissionRepository.findByClientIdAndIdempotencyKey(request.ClientId(), idempotencyKey)
+                .orElse(null);
+        if(null != existing) {
+            return replay(existing, payload);
+        }
+
+        OrderSubmission submission;
+        try {
+            submission = this.orderSubmissionRepository.save(OrderSubmission.builder()
+                    .idempotencyKey(idempotencyKey)
+                    .clientId(request.ClientId())
+                    .payload(payload)
+                    .status(SubmissionStatus.QUEUED)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent retry with the same key won the insert
+            return replay(this.orderSubmissionRepository.findByClientIdAndIdempotencyKey(request.ClientId(), idempotencyKey)
+                    .orElseThrow(() -> e), payload);
+        }
+
+        if(!this.orderSubmissionDispatcher.enqueue(submission.getId())) {
+            // nothing was accepted, so a retry with the same key must start over
+            this.orderSubmissionRepository.delete(submission);
+            throw new ServiceUnavailableException("Order queue is full, please retry shortly");
+        }
+
+        return toResponse(submission);
+    }
+
+    // polled right after the 202, so it reads the primary: a lagging replica would answer 404 or QUEUED
+    @Transactional
+    public OrderSubmissionResponse getSubmission(Long clientId, String idempotencyKey) {
+        return this.orderSubmissionRepository.findByClientIdAndIdempotencyKey(clientId, idempotencyKey)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFound("Order submission not Found"));
+    }
+
+    private OrderSubmissionResponse replay(OrderSubmission existing, String payload) {
+        if(!existing.getPayload().equals(payload)) {
+            throw new BusinessLogicViolation("Idempotency-Key already used for a different order");
+        }
+        return toResponse(existing);
+    }
+
+    private String toJson(OrderRequest request) {
+        try {
+            return this.objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Order request can't be serialized: " + e.getOriginalMessage());
+        }
+    }
+
+    public static String statusUrl(Long clientId, String idempotencyKey) {
+        return "/api/orders/client/" + clientId + "/submissions/" + idempotencyKey;
+    }
+
+    private OrderSubmissionResponse toResponse(OrderSubmission submission) {
+        return OrderSubmissionResponse.builder()
+                .idempotencyKey(submission.getIdempotencyKey())
+                .clientId(submission.getClientId())
+                .status(submission.getStatus())
+                .orderId(submission.getOrderId())
+                .error(submission.getErrorMessage())
+                .statusUrl(statusUrl(submission.getClientId(), submission.getIdempotencyKey()))
+                .build();
+    }
+}
@@ -10,12 +10,16 @@ import com.jartiste.smartshop.domain.enums.PaymentMethod;
 import com.jartiste.smartshop.domain.enums.PaymentStatus;
 import com.jartiste.smartshop.domain.exception.BusinessLogicViolation;
 import com.jartiste.smartshop.domain.exception.ResourceNotFound;
+import com.jartiste.smartshop.domain.exception.ValidationException;
 // import com.jartiste.smartshop.domain.repository.ClientRepository;
 import com.jartiste.smartshop.domain.repository.OrderRepository;
 import com.jartiste.smartshop.domain.repository.PaymentRepository;
 import com.jartiste.smartshop.presentation.dto.request.PaymentRequest;
 import com.jartiste.smartshop.presentation.dto.response.PaymentResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +37,7 @@ public class PaymentServiceImpl implements IPaymentService {
     private final OrderRepository orderRepository;
     // private final ClientRepository clientRepository;
     private static final String LOCAL_DATETIME_PATTERN = "yyyyMMddHHmmss";
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Transactional
     public PaymentResponse addPayment(Long orderId, PaymentRequest request) {
@@ -86,13 +91,26 @@ public class PaymentServiceImpl implements IPaymentService {
         return buildPaymentResponse(savedPayment);
     }
 
+    @Transactional(readOnly = true)
     public List<PaymentResponse> getPaymentByOrder(Long orderId) {
-        return paymentRepository.findAll().stream()
-                .filter(p -> p.getOrder().getId().equals(orderId))
+        return paymentRepository.findByOrder_IdOrderByCreatedAtAsc(orderId).stream()
                 .map(this::buildPaymentResponse)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public Page<PaymentResponse> getPaymentByOrder(Long orderId, int page, int size) {
+        if(page < 0) {
+            throw new ValidationException("page must not be negative");
+        }
+        if(size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        return paymentRepository.findByOrder_Id(orderId, PageRequest.of(page, size, Sort.by("createdAt", "id")))
+                .map(this::buildPaymentResponse);
+    }
+
     private void validatePaymentMethodRules(PaymentRequest request) {
         switch (request.paymentMethod()) {
             case ESPECES -> {
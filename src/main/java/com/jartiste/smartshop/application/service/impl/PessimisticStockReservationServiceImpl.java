@@ -0,0 +1,37 @@
+package com.jartiste.smartshop.application.service.impl;
+
+import com.jartiste.smartshop.application.service.IStockReservationService;
+import com.jartiste.smartshop.domain.entity.OrderItem;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.domain.service.OrderDomainService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Locks the product rows with SELECT ... FOR UPDATE, always in product id order so two
+ * orders sharing products can't deadlock, then lets the domain decrease the stock in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "smartshop.stock", name = "concurrency-mode", havingValue = "pessimistic", matchIfMissing = true)
+@Transactional(propagation = Propagation.MANDATORY)
+public class PessimisticStockReservationServiceImpl implements IStockReservationService {
+
+    private final ProductRepository productRepository;
+    private final OrderDomainService orderDomainService;
+
+    public List<Product> findProducts(Collection<Long> productIds) {
+        return this.productRepository.findAllForUpdate(productIds);
+    }
+
+    public boolean reserve(List<OrderItem> itemList) {
+        return this.orderDomainService.reserveInMemory(itemList);
+    }
+}
@@ -0,0 +1,245 @@
+package com.jartiste.smartshop.application.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jartiste.smartshop.application.service.IProductImportService;
+import com.jartiste.smartshop.infrastructure.cache.ProductCatalogCache;
+import com.jartiste.smartshop.infrastructure.importer.ImportFormat;
+import com.jartiste.smartshop.infrastructure.importer.ProductBatchUpserter;
+import com.jartiste.smartshop.infrastructure.importer.ProductImportRow;
+import com.jartiste.smartshop.infrastructure.importer.ProductRowReader;
+import com.jartiste.smartshop.infrastructure.search.ProductSearchIndexer;
+import com.jartiste.smartshop.presentation.dto.request.ProductRequest;
+import com.jartiste.smartshop.presentation.dto.response.ProductImportResponse;
+import com.jartiste.smartshop.presentation.dto.response.ProductImportResponse.RowError;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a product catalog in chunks of {@code batch-size} lines. The request thread only splits
+ * lines; each chunk is parsed and validated in slices on the validation pool, then handed to a
+ * single writer thread, so the next chunk is validated while the previous one is being written.
+ * At most one batch is in flight, which bounds memory whatever the body size. Batches commit one
+ * by one: a failure stops the import but keeps what was already written, and since rows are
+ * upserted by sku the same file can simply be sent again.
+ */
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements IProductImportService {
+
+    private final ProductBatchUpserter productBatchUpserter;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductSearchIndexer productSearchIndexer;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxErrors;
+    private final int validationThreads;
+    private final ExecutorService validationPool;
+    private final ExecutorService writer;
+
+    public ProductImportServiceImpl(ProductBatchUpserter productBatchUpserter,
+                                    ProductCatalogCache productCatalogCache,
+                                    ProductSearchIndexer productSearchIndexer,
+                                    ObjectMapper objectMapper,
+                                    Validator validator,
+                                    @Value("${smartshop.products.import.batch-size:1000}") int batchSize,
+                                    @Value("${smartshop.products.import.validation-threads:0}") int validationThreads,
+                                    @Value("${smartshop.products.import.max-errors:1000}") int maxErrors) {
+        this.productBatchUpserter = productBatchUpserter;
+        this.productCatalogCache = productCatalogCache;
+        this.productSearchIndexer = productSearchIndexer;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.validationThreads = validationThreads > 0 ? validationThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.validationPool = Executors.newFixedThreadPool(this.validationThreads, daemonThreads("product-import-validator-"));
+        this.writer = Executors.newSingleThreadExecutor(daemonThreads("product-import-writer-"));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductImportResponse importProducts(InputStream body, ImportFormat format) {
+        long start = System.nanoTime();
+        ImportTally tally = new ImportTally(this.maxErrors);
+        Future<?> inFlight = null;
+        try {
+            ProductRowReader reader = new ProductRowReader(body, format, this.objectMapper);
+            List<ProductRowReader.Line> lines;
+            while(!(lines = reader.next(this.batchSize)).isEmpty()) {
+                List<ProductImportRow> valid = new ArrayList<>(lines.size());
+                for(ProductImportRow row : validate(reader, lines)) {
+                    if(row.isValid()) {
+                        valid.add(row);
+                    } else {
+                        tally.reject(row);
+                    }
+                }
+                tally.read(lines.size());
+
+                await(inFlight);
+                inFlight = valid.isEmpty() ? null : this.writer.submit(() -> write(valid, tally));
+            }
+            await(inFlight);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // a failed import may still have committed earlier batches
+            this.productCatalogCache.evictAll();
+        }
+
+        ProductImportResponse response = tally.toResponse(System.nanoTime() - start);
+        log.info("Product import: {} rows ({} created, {} updated, {} failed), {} rows/s",
+                response.rows(), response.created(), response.updated(), response.failed(), response.rowsPerSecond());
+        return response;
+    }
+
+    private void write(List<ProductImportRow> rows, ImportTally tally) {
+        ProductBatchUpserter.BatchResult result = this.productBatchUpserter.upsert(rows);
+        result.written().forEach(this.productSearchIndexer::index);
+        tally.written(result);
+    }
+
+    private List<ProductImportRow> validate(ProductRowReader reader, List<ProductRowReader.Line> lines) {
+        int sliceSize = Math.max(1, (lines.size() + this.validationThreads - 1) / this.validationThreads);
+        List<Callable<List<ProductImportRow>>> slices = new ArrayList<>();
+        for(int from = 0; from < lines.size(); from += sliceSize) {
+            List<ProductRowReader.Line> slice = lines.subList(from, Math.min(lines.size(), from + sliceSize));
+            slices.add(() -> slice.stream().map(line -> validate(reader.parse(line))).toList());
+        }
+
+        List<ProductImportRow> rows = new ArrayList<>(lines.size());
+        try {
+            for(Future<List<ProductImportRow>> slice : this.validationPool.invokeAll(slices)) {
+                rows.addAll(slice.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Product import interrupted", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+        return rows;
+    }
+
+    private ProductImportRow validate(ProductImportRow row) {
+        if(!row.isValid()) {
+            return row;
+        }
+        ProductRequest request = row.request();
+        if(null == request.sku() || request.sku().isBlank()) {
+            return row.reject("sku is required");
+        }
+
+        Set<ConstraintViolation<ProductRequest>> violations = this.validator.validate(request);
+        if(violations.isEmpty()) {
+            return row;
+        }
+        return row.reject(violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+    }
+
+    private static void await(Future<?> batch) {
+        if(null == batch) {
+            return;
+        }
+        try {
+            batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Product import interrupted", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.validationPool.shutdownNow();
+        this.writer.shutdownNow();
+    }
+
+    /** Shared by the request thread, which reads and rejects, and the writer thread, which records batches. */
+    private static final class ImportTally {
+
+        private final int maxErrors;
+        private final List<RowError> errors = new ArrayList<>();
+        private long rows;
+        private long created;
+        private long updated;
+        private long failed;
+
+        private ImportTally(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        synchronized void read(int count) {
+            rows += count;
+        }
+
+        synchronized void reject(ProductImportRow row) {
+            error(new RowError(row.line(), row.sku(), row.error()));
+        }
+
+        synchronized void written(ProductBatchUpserter.BatchResult result) {
+            created += result.created();
+            updated += result.updated();
+            result.errors().forEach(this::error);
+        }
+
+        private void error(RowError error) {
+            failed++;
+            if(errors.size() < maxErrors) {
+                errors.add(error);
+            }
+        }
+
+        synchronized ProductImportResponse toResponse(long elapsedNanos) {
+            errors.sort(Comparator.comparingLong(RowError::line));
+            return ProductImportResponse.builder()
+                    .rows(rows)
+                    .created(created)
+                    .updated(updated)
+                    .failed(failed)
+                    .rowsPerSecond(elapsedNanos > 0 ? rows * 1_000_000_000L / elapsedNanos : rows)
+                    .errors(List.copyOf(errors))
+                    .build();
+        }
+    }
+}
@@ -3,14 +3,31 @@ package com.jartiste.smartshop.application.service.impl;
 import com.jartiste.smartshop.application.mapper.ProductMapper;
 import com.jartiste.smartshop.application.service.IProductService;
 import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.exception.BusinessLogicViolation;
 import com.jartiste.smartshop.domain.exception.ResourceNotFound;
+import com.jartiste.smartshop.domain.exception.ValidationException;
 import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.infrastructure.config.CacheConfig;
+import com.jartiste.smartshop.infrastructure.search.ProductSearchIndex;
+import com.jartiste.smartshop.infrastructure.search.ProductSearchIndexer;
+import com.jartiste.smartshop.infrastructure.util.CursorCodec;
 import com.jartiste.smartshop.presentation.dto.request.ProductRequest;
+import com.jartiste.smartshop.presentation.dto.response.CursorPageResponse;
 import com.jartiste.smartshop.presentation.dto.response.ProductResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -18,43 +35,104 @@ public class ProductServiceImpl implements IProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final CursorCodec cursorCodec;
+    private final ProductSearchIndexer productSearchIndexer;
     private static final String NOT_FOUND = "Product not Found";
+    private static final String DUPLICATE_SKU = "Another product already uses this sku";
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_PAGE_SIZE = 100;
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
+    @Transactional
     public ProductResponse createProduct(ProductRequest request) {
+        if(null != request.sku() && this.productRepository.existsBySku(request.sku())) {
+            throw new BusinessLogicViolation(DUPLICATE_SKU);
+        }
+
         Product product = productMapper.toEntity(request);
 
         Product newProduct = this.productRepository.save(product);
+        this.productSearchIndexer.index(newProduct);
 
         return this.productMapper.toResponse(newProduct);
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, condition = "#pageable.pageNumber == 0",
+            key = "#pageable.pageSize + ':' + #pageable.sort")
+    @Transactional(readOnly = true)
     public Page<ProductResponse> getAllActiveProduct(Pageable pageable) {
         return this.productRepository.findAllByDeletedFalse(pageable)
                 .map(productMapper::toResponse);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProductResponse> getAllActiveProduct(String cursor, int size) {
+        if(size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Window<Product> window = this.productRepository.findAllByDeletedFalse(
+                cursorCodec.decodeId(cursor), Sort.by("id"), Limit.of(size));
+
+        return new CursorPageResponse<>(window.map(productMapper::toResponse).getContent(),
+                window.size(), window.hasNext(), cursorCodec.nextCursor(window));
+    }
+
+    public List<ProductResponse> searchProducts(String query, BigDecimal minPrice, BigDecimal maxPrice, boolean inStock, int limit) {
+        if(null == query || query.isBlank()) {
+            throw new ValidationException("Search text is required");
+        }
+        if(limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ValidationException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        if(null != minPrice && null != maxPrice && minPrice.compareTo(maxPrice) > 0) {
+            throw new ValidationException("minPrice must not be greater than maxPrice");
+        }
+
+        return this.productSearchIndexer.search(new ProductSearchIndex.Query(query, minPrice, maxPrice, inStock, limit)).stream()
+                .map(productMapper::toResponse)
+                .toList();
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id")
+    @Transactional(readOnly = true)
     public ProductResponse getProductById(Long id) {
         return this.productRepository.findByIdAndDeletedFalse(id)
                 .map(productMapper::toResponse)
                 .orElseThrow(() -> new ResourceNotFound(NOT_FOUND));
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
+    })
+    @Transactional
     public ProductResponse updateProduct(Long id, ProductRequest request) {
         Product product = this.productRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFound(NOT_FOUND));
 
+        if(null != request.sku() && this.productRepository.existsBySkuAndIdNot(request.sku(), id)) {
+            throw new BusinessLogicViolation(DUPLICATE_SKU);
+        }
+
         productMapper.updateProductFromDto(request, product);
 
         Product updatedProduct = this.productRepository.save(product);
+        this.productSearchIndexer.index(updatedProduct);
 
         return productMapper.toResponse(updatedProduct);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
+    })
+    @Transactional
     public void deleteProduct(Long id) {
         Product product = this.productRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFound(NOT_FOUND));
 
         product.setDeleted(true);
-        this.productRepository.save(product);
+        this.productSearchIndexer.index(this.productRepository.save(product));
     }
 }
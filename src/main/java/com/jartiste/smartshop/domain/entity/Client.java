@@ -7,18 +7,29 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 
+// stats are changed by UPDATE statements of their own, so an edit of the profile only writes what it changed
 @Entity
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
 @SuperBuilder
 @DiscriminatorValue("CLIENT")
 public class Client extends User {
+
+    private static final BigDecimal SILVER_DISCOUNT_THRESHOLD = BigDecimal.valueOf(500);
+    private static final BigDecimal GOLD_DISCOUNT_THRESHOLD = BigDecimal.valueOf(800);
+    private static final BigDecimal PLATINUM_DISCOUNT_THRESHOLD = BigDecimal.valueOf(1200);
+    private static final BigDecimal SILVER_DISCOUNT_RATE = BigDecimal.valueOf(0.05);
+    private static final BigDecimal GOLD_DISCOUNT_RATE = BigDecimal.valueOf(0.10);
+    private static final BigDecimal PLATINUM_DISCOUNT_RATE = BigDecimal.valueOf(0.15);
+
     private String nom;
     private CustomerTier tier;
     private Integer totalOrders;
@@ -34,18 +45,14 @@ public class Client extends User {
     }
 
     private void recalculateTier() {
-        double spent = this.totalSpent.doubleValue();
-        if(this.totalOrders >= 20 || spent >= 15000) this.tier = CustomerTier.PLATINUM;
-        else if (this.totalOrders >= 10 || spent >= 5000) this.tier = CustomerTier.GOLD;
-        else if (this.totalOrders >= 3 || spent >= 1000) this.tier = CustomerTier.SLIVER;
+        CustomerTier earned = CustomerTier.forStats(this.totalOrders, this.totalSpent);
+        if(earned != CustomerTier.BASIC) this.tier = earned;
     }
 
     public BigDecimal getDiscountRate(BigDecimal subTotal) {
-        double amount = subTotal.doubleValue();
-
-        if(this.tier == CustomerTier.SLIVER && amount >= 500) return BigDecimal.valueOf(0.05);
-        if (this.tier == CustomerTier.GOLD && amount >= 800) return BigDecimal.valueOf(0.10);
-        if (this.tier == CustomerTier.PLATINUM && amount >= 1200) return BigDecimal.valueOf(0.15);
+        if(this.tier == CustomerTier.SLIVER && subTotal.compareTo(SILVER_DISCOUNT_THRESHOLD) >= 0) return SILVER_DISCOUNT_RATE;
+        if (this.tier == CustomerTier.GOLD && subTotal.compareTo(GOLD_DISCOUNT_THRESHOLD) >= 0) return GOLD_DISCOUNT_RATE;
+        if (this.tier == CustomerTier.PLATINUM && subTotal.compareTo(PLATINUM_DISCOUNT_THRESHOLD) >= 0) return PLATINUM_DISCOUNT_RATE;
 
         return BigDecimal.ZERO;
     }
@@ -0,0 +1,53 @@
+package com.jartiste.smartshop.domain.entity;
+
+
+import com.jartiste.smartshop.domain.enums.JobStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One run of the client statistics rebuild. Clients are processed in ascending id order and
+ * {@code lastClientId} only moves past chunks that are fully written, so a run that failed or
+ * was interrupted is resumed from there.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "client_stats_rebuild")
+public class ClientStatsRebuild {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_stats_rebuild_seq")
+    @SequenceGenerator(name = "client_stats_rebuild_seq", sequenceName = "client_stats_rebuild_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status;
+
+    @Column(nullable = false)
+    private Long lastClientId;
+
+    @Column(nullable = false)
+    private Long processedClients;
+
+    private Long totalClients;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    @CreationTimestamp
+    private LocalDateTime startedAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+}
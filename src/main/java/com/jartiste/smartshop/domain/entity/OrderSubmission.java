@@ -0,0 +1,62 @@
+package com.jartiste.smartshop.domain.entity;
+
+
+import com.jartiste.smartshop.domain.enums.SubmissionStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order accepted through the asynchronous endpoint, keyed by the client and its
+ * Idempotency-Key: the unique index is what makes a retried submission return the first one
+ * instead of creating a second order. Two clients may use the same key.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "order_submission", indexes = {
+        @Index(name = "uk_order_submission_client_key", columnList = "clientId, idempotencyKey", unique = true),
+        @Index(name = "idx_order_submission_status", columnList = "status")
+})
+public class OrderSubmission {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_submission_seq")
+    @SequenceGenerator(name = "order_submission_seq", sequenceName = "order_submission_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private Long clientId;
+
+    // the OrderRequest as JSON
+    @Column(nullable = false, length = 20000)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SubmissionStatus status;
+
+    private Long orderId;
+
+    // failed attempts so far, retryable ones included
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -4,6 +4,8 @@ package com.jartiste.smartshop.domain.entity;
 import com.jartiste.smartshop.domain.exception.BusinessLogicViolation;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,12 +18,22 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@BatchSize(size = 50)
+@Table(indexes = {
+        @Index(name = "idx_product_deleted_id", columnList = "deleted, id"),
+        @Index(name = "uk_product_sku", columnList = "sku", unique = true)
+})
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
+    // supplier reference, the natural key of the bulk import
+    @Column(length = 64)
+    private String sku;
+
     private String name;
 
     private BigDecimal price;
@@ -30,6 +42,10 @@ public class Product {
 
     private Boolean deleted;
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -1,8 +1,29 @@
 package com.jartiste.smartshop.domain.enums;
 
+import java.math.BigDecimal;
+
 public enum CustomerTier {
-    BASIC,
-    SLIVER,
-    GOLD,
-    PLATINUM
+    BASIC(0, BigDecimal.ZERO),
+    SLIVER(3, BigDecimal.valueOf(1000)),
+    GOLD(10, BigDecimal.valueOf(5000)),
+    PLATINUM(20, BigDecimal.valueOf(15000));
+
+    private final int minOrders;
+    private final BigDecimal minSpent;
+
+    CustomerTier(int minOrders, BigDecimal minSpent) {
+        this.minOrders = minOrders;
+        this.minSpent = minSpent;
+    }
+
+    /** The highest tier reached by either the number of confirmed orders or the amount spent. */
+    public static CustomerTier forStats(int totalOrders, BigDecimal totalSpent) {
+        CustomerTier[] tiers = values();
+        for(int i = tiers.length - 1; i > 0; i--) {
+            if(totalOrders >= tiers[i].minOrders || totalSpent.compareTo(tiers[i].minSpent) >= 0) {
+                return tiers[i];
+            }
+        }
+        return BASIC;
+    }
 }
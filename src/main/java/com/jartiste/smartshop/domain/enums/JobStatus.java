@@ -0,0 +1,7 @@
+package com.jartiste.smartshop.domain.enums;
+
+public enum JobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
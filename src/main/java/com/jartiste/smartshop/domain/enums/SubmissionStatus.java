@@ -0,0 +1,9 @@
+package com.jartiste.smartshop.domain.enums;
+
+public enum SubmissionStatus {
+    QUEUED,
+    // claimed by a worker; only seen inside the transaction that creates the order
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
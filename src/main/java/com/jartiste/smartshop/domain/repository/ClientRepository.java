@@ -1,14 +1,48 @@
 package com.jartiste.smartshop.domain.repository;
 
 import com.jartiste.smartshop.domain.entity.Client;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
-    Page<Client> findByNomContainingIgnoreCase(String keyword, Pageable pageable);
+    Window<Client> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 
     Object existsByUsername(String username);
+
+    // native: a JPQL bulk update on the JOINED hierarchy would go through Hibernate's multi-table path
+    @Modifying
+    @Query(value = "UPDATE client SET total_orders = total_orders + :orders, total_spent = total_spent + :amount WHERE id = :id",
+            nativeQuery = true)
+    int addToStats(@Param("id") Long id, @Param("orders") int orders, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query(value = "UPDATE client SET first_order_date = COALESCE(first_order_date, :today), last_order_date = :today WHERE id = :id",
+            nativeQuery = true)
+    int recordOrderDate(@Param("id") Long id, @Param("today") LocalDate today);
+
+    @Modifying
+    @Query(value = "UPDATE client SET tier = :tier WHERE id = :id", nativeQuery = true)
+    int updateTier(@Param("id") Long id, @Param("tier") int tierOrdinal);
+
+    @Query("SELECT c.totalOrders AS totalOrders, c.totalSpent AS totalSpent, c.tier AS tier FROM Client c WHERE c.id = :id")
+    Optional<ClientStats> findStatsById(@Param("id") Long id);
+
+    interface ClientStats {
+        Integer getTotalOrders();
+        BigDecimal getTotalSpent();
+        CustomerTier getTier();
+    }
 }
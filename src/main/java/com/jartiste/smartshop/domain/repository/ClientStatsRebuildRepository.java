@@ -0,0 +1,10 @@
+package com.jartiste.smartshop.domain.repository;
+
+import com.jartiste.smartshop.domain.entity.ClientStatsRebuild;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ClientStatsRebuildRepository extends JpaRepository<ClientStatsRebuild, Long> {
+    Optional<ClientStatsRebuild> findFirstByOrderByIdDesc();
+}
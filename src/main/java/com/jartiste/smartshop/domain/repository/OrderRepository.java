@@ -1,13 +1,28 @@
 package com.jartiste.smartshop.domain.repository;
 
 import com.jartiste.smartshop.domain.entity.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    @EntityGraph(attributePaths = "client")
     Page<Order> findByClient_Id(Long clientId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "client")
+    Window<Order> findByClient_Id(Long clientId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"client", "itemList", "itemList.product"})
+    Optional<Order> findWithItemsById(Long id);
+
     Page<Order> findAll(Pageable pageable);
 }
@@ -0,0 +1,32 @@
+package com.jartiste.smartshop.domain.repository;
+
+import com.jartiste.smartshop.domain.entity.OrderSubmission;
+import com.jartiste.smartshop.domain.enums.SubmissionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderSubmissionRepository extends JpaRepository<OrderSubmission, Long> {
+    Optional<OrderSubmission> findByClientIdAndIdempotencyKey(Long clientId, String idempotencyKey);
+
+    // the conditional update is the claim: of two workers holding the same submission, one gets 0 rows
+    @Modifying
+    @Query("UPDATE OrderSubmission s SET s.status = :to WHERE s.id = :id AND s.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") SubmissionStatus from, @Param("to") SubmissionStatus to);
+
+    // a bulk update skips @UpdateTimestamp, and updatedAt is what the stale sweep looks at
+    @Modifying
+    @Query("UPDATE OrderSubmission s SET s.attempts = s.attempts + 1, s.updatedAt = :now WHERE s.id = :id AND s.status = :status")
+    int countAttempt(@Param("id") Long id, @Param("status") SubmissionStatus status, @Param("now") LocalDateTime now);
+
+    @Query("SELECT s.id FROM OrderSubmission s WHERE s.status = :status ORDER BY s.id")
+    List<Long> findIdsByStatus(@Param("status") SubmissionStatus status);
+
+    @Query("SELECT s.id FROM OrderSubmission s WHERE s.status = :status AND s.updatedAt < :before ORDER BY s.id")
+    List<Long> findIdsByStatusAndUpdatedAtBefore(@Param("status") SubmissionStatus status, @Param("before") LocalDateTime before);
+}
@@ -1,7 +1,13 @@
 package com.jartiste.smartshop.domain.repository;
 
 import com.jartiste.smartshop.domain.entity.Payment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+    List<Payment> findByOrder_IdOrderByCreatedAtAsc(Long orderId);
+    Page<Payment> findByOrder_Id(Long orderId, Pageable pageable);
 }
@@ -1,16 +1,57 @@
 package com.jartiste.smartshop.domain.repository;
 
 import com.jartiste.smartshop.domain.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     Page<Product> findAllByDeletedFalse(Pageable pageable);
+    Window<Product> findAllByDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
     Optional<Product> findByIdAndDeletedFalse(Long id);
+    List<Product> findAllByIdInAndDeletedFalse(Collection<Long> ids);
     boolean existsByIdAndDeletedFalseAndStockGreaterThanEqual(Long id, int quantity);
+    boolean existsBySku(String sku);
+    boolean existsBySkuAndIdNot(String sku, Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids AND p.deleted = false ORDER BY p.id")
+    List<Product> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.stock AS stock, p.version AS version FROM Product p WHERE p.id = :id")
+    Optional<StockView> findStockById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.stock >= :quantity")
+    int decreaseStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.version = :version AND p.stock >= :quantity")
+    int decreaseStockIfUnchanged(@Param("id") Long id, @Param("quantity") int quantity, @Param("version") Long version);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.version = p.version + 1 WHERE p.id = :id")
+    int increaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    interface StockView {
+        Integer getStock();
+        Long getVersion();
+    }
 }
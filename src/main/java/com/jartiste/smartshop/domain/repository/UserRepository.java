@@ -1,15 +1,41 @@
 package com.jartiste.smartshop.domain.repository;
 
 import com.jartiste.smartshop.domain.entity.User;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
 
     User findAllByUsername(String username);
+
+    // native: loading a User outer-joins every subclass table to find out which entity the row is,
+    // where login only needs the credentials and, for clients, the tier
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.password AS password, u.role AS role, "
+            + "CAST(c.tier AS INTEGER) AS tier FROM users u LEFT JOIN client c ON c.id = u.id WHERE u.username = :username",
+            nativeQuery = true)
+    Optional<LoginCredentials> findCredentialsByUsername(@Param("username") String username);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users SET password = :password, updated_at = CURRENT_TIMESTAMP WHERE id = :id", nativeQuery = true)
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    interface LoginCredentials {
+        Long getId();
+        String getUsername();
+        String getPassword();
+        UserRole getRole();
+        /** Null for admins. */
+        CustomerTier getTier();
+    }
 }
@@ -4,15 +4,19 @@ import com.jartiste.smartshop.domain.entity.Client;
 import com.jartiste.smartshop.domain.entity.Order;
 import com.jartiste.smartshop.domain.entity.OrderItem;
 import com.jartiste.smartshop.domain.enums.OrderStatus;
+import com.jartiste.smartshop.domain.valueobject.PriceBreakdown;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
 
 @Service
+@RequiredArgsConstructor
 public class OrderDomainService {
 
+    private final PricingEngine pricingEngine;
+
     public Order initializeOrder(Client client, String promoCode) {
         return Order.builder()
                 .client(client)
@@ -22,25 +26,17 @@ public class OrderDomainService {
     }
 
     public void processOrderItem(Order order, List<OrderItem> itemList) {
-        BigDecimal subTotal = BigDecimal.ZERO;
-        boolean hasInsufficientStock = false;
+        processOrderItem(order, itemList, this::reserveInMemory);
+    }
 
-        for(OrderItem item: itemList) {
-            if(!item.getProduct().hasAvailableStock(item.getQuantity())) {
-                hasInsufficientStock = true;
-                break;
-            }
-        }
+    public void processOrderItem(Order order, List<OrderItem> itemList, StockReserver stockReserver) {
+        BigDecimal subTotal = BigDecimal.ZERO;
 
-        if(hasInsufficientStock) {
+        if(order.getOrderStatus() != OrderStatus.REJECTED && !stockReserver.reserve(itemList)) {
             order.setOrderStatus(OrderStatus.REJECTED);
         }
 
         for(OrderItem item: itemList) {
-            if(order.getOrderStatus() != OrderStatus.REJECTED) {
-                item.getProduct().decreaseStock(item.getQuantity());
-            }
-
             item.setOrder(order);
             order.getItemList().add(item);
 
@@ -51,30 +47,26 @@ public class OrderDomainService {
         order.setSubTotal(subTotal);
     }
 
-    public void calculateFinalAmounts(Order order) {
-
-        BigDecimal discountRate = order.getClient().getDiscountRate(order.getSubTotal());
-
-        if(order.getPromoCode() != null && order.getPromoCode().matches("PROMO-[A-Z0-9]{4}")) {
-            discountRate = discountRate.add(BigDecimal.valueOf(0.05));
+    public boolean reserveInMemory(List<OrderItem> itemList) {
+        for(OrderItem item: itemList) {
+            if(!item.getProduct().hasAvailableStock(item.getQuantity())) {
+                return false;
+            }
         }
 
-        BigDecimal discountAmount = order.getSubTotal().multiply(discountRate);
-
-
-        order.setDiscountAmount(discountAmount.setScale(2, RoundingMode.HALF_UP));
-
-        BigDecimal netHT = order.getSubTotal().subtract(order.getDiscountAmount());
-
-        if(netHT.compareTo(BigDecimal.ZERO) < 0) netHT = BigDecimal.ZERO;
-
-        BigDecimal tva = netHT.multiply(BigDecimal.valueOf(0.20));
+        for(OrderItem item: itemList) {
+            item.getProduct().decreaseStock(item.getQuantity());
+        }
 
-        order.setTaxAmount(tva.setScale(2, RoundingMode.HALF_UP));
+        return true;
+    }
 
-        BigDecimal total = netHT.add(tva).setScale(2, RoundingMode.HALF_UP);
+    public void calculateFinalAmounts(Order order) {
+        PriceBreakdown breakdown = pricingEngine.price(order.getClient(), order.getSubTotal(), order.getPromoCode());
 
-        order.setTotalAmount(total);
-        order.setRemainingAmount(total);
+        order.setDiscountAmount(breakdown.discountAmount());
+        order.setTaxAmount(breakdown.taxAmount());
+        order.setTotalAmount(breakdown.totalAmount());
+        order.setRemainingAmount(breakdown.totalAmount());
     }
 }
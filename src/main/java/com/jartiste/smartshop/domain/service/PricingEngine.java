@@ -0,0 +1,47 @@
+package com.jartiste.smartshop.domain.service;
+
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.valueobject.PriceBreakdown;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.regex.Pattern;
+
+@Service
+public class PricingEngine {
+
+    private static final BigDecimal PROMO_RATE = new BigDecimal("0.05");
+    private static final BigDecimal TVA_RATE = new BigDecimal("0.20");
+    private static final BigDecimal ZERO_AMOUNT = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+    private static final Pattern PROMO_CODE = Pattern.compile("PROMO-[A-Z0-9]{4}");
+
+    public PriceBreakdown price(Client client, BigDecimal subTotal, String promoCode) {
+        BigDecimal discountRate = client.getDiscountRate(subTotal);
+
+        if(isValidPromoCode(promoCode)) {
+            discountRate = discountRate.add(PROMO_RATE);
+        }
+
+        BigDecimal discountAmount = discountRate.signum() == 0
+                ? ZERO_AMOUNT
+                : subTotal.multiply(discountRate).setScale(2, RoundingMode.HALF_UP);
+
+        BigDecimal netHT = subTotal.subtract(discountAmount);
+
+        if(netHT.signum() < 0) netHT = BigDecimal.ZERO;
+
+        BigDecimal tva = netHT.multiply(TVA_RATE);
+
+        return new PriceBreakdown(
+                subTotal,
+                discountAmount,
+                tva.setScale(2, RoundingMode.HALF_UP),
+                netHT.add(tva).setScale(2, RoundingMode.HALF_UP)
+        );
+    }
+
+    public boolean isValidPromoCode(String promoCode) {
+        return promoCode != null && PROMO_CODE.matcher(promoCode).matches();
+    }
+}
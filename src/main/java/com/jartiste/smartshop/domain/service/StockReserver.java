@@ -0,0 +1,14 @@
+package com.jartiste.smartshop.domain.service;
+
+import com.jartiste.smartshop.domain.entity.OrderItem;
+
+import java.util.List;
+
+/**
+ * Reserves the stock of every line of an order, all or nothing.
+ * Returns false (and leaves the stock untouched) when one line can't be served.
+ */
+@FunctionalInterface
+public interface StockReserver {
+    boolean reserve(List<OrderItem> itemList);
+}
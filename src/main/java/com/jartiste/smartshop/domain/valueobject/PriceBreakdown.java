@@ -0,0 +1,11 @@
+package com.jartiste.smartshop.domain.valueobject;
+
+import java.math.BigDecimal;
+
+public record PriceBreakdown(
+        BigDecimal subTotal,
+        BigDecimal discountAmount,
+        BigDecimal taxAmount,
+        BigDecimal totalAmount
+) {
+}
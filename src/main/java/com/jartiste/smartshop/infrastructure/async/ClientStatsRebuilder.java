@@ -0,0 +1,194 @@
+package com.jartiste.smartshop.infrastructure.async;
+
+
+import com.jartiste.smartshop.domain.entity.ClientStatsRebuild;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.JobStatus;
+import com.jartiste.smartshop.domain.repository.ClientStatsRebuildRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recomputes every client's totals, order dates and tier from the orders table. Clients are cut
+ * into id ranges of {@code chunk-size}; each range is rebuilt with one aggregate query and one
+ * batched update in its own transaction, {@code threads} ranges at a time. After each wave the
+ * highest completed id is saved on the {@link ClientStatsRebuild} row, which is where a failed or
+ * interrupted run resumes.
+ */
+@Component
+@Slf4j
+public class ClientStatsRebuilder {
+
+    private static final String COUNT_CLIENTS = "SELECT COUNT(*) FROM client";
+    private static final String NEXT_CHUNK_END =
+            "SELECT MAX(id) FROM (SELECT id FROM client WHERE id > ? ORDER BY id LIMIT ?) chunk";
+    private static final String LOCK_CHUNK = "SELECT id FROM client WHERE id > ? AND id <= ? ORDER BY id FOR UPDATE";
+    private static final String AGGREGATE_CHUNK = """
+            SELECT client_id,
+                   SUM(CASE WHEN order_status = 'CONFIRMED' THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN order_status = 'CONFIRMED' THEN total_amount ELSE 0 END),
+                   MIN(created_at),
+                   MAX(created_at)
+            FROM orders
+            WHERE client_id > ? AND client_id <= ?
+            GROUP BY client_id""";
+    private static final String UPDATE_CLIENT =
+            "UPDATE client SET total_orders = ?, total_spent = ?, first_order_date = ?, last_order_date = ?, tier = ? WHERE id = ?";
+    private static final int[] UPDATE_TYPES = {Types.INTEGER, Types.NUMERIC, Types.DATE, Types.DATE, Types.INTEGER, Types.BIGINT};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClientStatsRebuildRepository clientStatsRebuildRepository;
+    private final int threads;
+    private final int chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ClientStatsRebuilder(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                ClientStatsRebuildRepository clientStatsRebuildRepository,
+                                @Value("${smartshop.clients.stats-rebuild.threads:4}") int threads,
+                                @Value("${smartshop.clients.stats-rebuild.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clientStatsRebuildRepository = clientStatsRebuildRepository;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean isRunning() {
+        return this.running.get();
+    }
+
+    /** Runs the rebuild in the background; {@code false} when one is already running in this instance. */
+    public boolean start(Long rebuildId) {
+        if(!this.running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        Thread coordinator = new Thread(() -> {
+            try {
+                run(rebuildId);
+            } finally {
+                this.running.set(false);
+            }
+        }, "client-stats-rebuild");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return true;
+    }
+
+    void run(Long rebuildId) {
+        ClientStatsRebuild rebuild = this.clientStatsRebuildRepository.findById(rebuildId).orElseThrow();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(this.threads,
+                runnable -> new Thread(runnable, "client-stats-rebuild-" + threadCount.incrementAndGet()));
+        try {
+            rebuild.setTotalClients(this.jdbcTemplate.queryForObject(COUNT_CLIENTS, Long.class));
+            rebuild = this.clientStatsRebuildRepository.save(rebuild);
+
+            long watermark = rebuild.getLastClientId();
+            long processed = rebuild.getProcessedClients();
+            while(true) {
+                List<Future<Integer>> wave = new ArrayList<>();
+                long from = watermark;
+                for(int i = 0; i < this.threads; i++) {
+                    Long to = this.jdbcTemplate.queryForObject(NEXT_CHUNK_END, Long.class, from, this.chunkSize);
+                    if(to == null) {
+                        break;
+                    }
+                    long chunkFrom = from;
+                    wave.add(workers.submit(() -> rebuildChunk(chunkFrom, to)));
+                    from = to;
+                }
+                if(wave.isEmpty()) {
+                    break;
+                }
+
+                for(Future<Integer> chunk : wave) {
+                    processed += chunk.get();
+                }
+                watermark = from;
+
+                rebuild.setLastClientId(watermark);
+                rebuild.setProcessedClients(processed);
+                rebuild = this.clientStatsRebuildRepository.save(rebuild);
+                log.info("Client stats rebuild {}: {}/{} clients", rebuild.getId(), processed, rebuild.getTotalClients());
+            }
+
+            rebuild.setStatus(JobStatus.COMPLETED);
+            rebuild.setCompletedAt(LocalDateTime.now());
+            this.clientStatsRebuildRepository.save(rebuild);
+            log.info("Client stats rebuild {} completed: {} clients", rebuild.getId(), processed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(rebuild, e);
+        } catch (ExecutionException e) {
+            fail(rebuild, e.getCause());
+        } catch (RuntimeException e) {
+            fail(rebuild, e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    int rebuildChunk(long fromExclusive, long toInclusive) {
+        Integer rebuilt = this.transactionTemplate.execute(status -> {
+            // with the rows locked first, a concurrent order confirmation either is already visible
+            // to the aggregate or waits and applies its delta on top of the rebuilt totals
+            List<Long> clientIds = this.jdbcTemplate.queryForList(LOCK_CHUNK, Long.class, fromExclusive, toInclusive);
+
+            Map<Long, ClientTotals> totals = new HashMap<>();
+            this.jdbcTemplate.query(AGGREGATE_CHUNK, rs -> {
+                totals.put(rs.getLong(1), new ClientTotals(rs.getInt(2), rs.getBigDecimal(3),
+                        toDate(rs.getTimestamp(4)), toDate(rs.getTimestamp(5))));
+            }, fromExclusive, toInclusive);
+
+            List<Object[]> rows = new ArrayList<>(clientIds.size());
+            for(Long clientId : clientIds) {
+                ClientTotals clientTotals = totals.getOrDefault(clientId, ClientTotals.NONE);
+                rows.add(new Object[]{clientTotals.orders(), clientTotals.spent(), clientTotals.firstOrderDate(),
+                        clientTotals.lastOrderDate(), CustomerTier.forStats(clientTotals.orders(), clientTotals.spent()).ordinal(), clientId});
+            }
+            this.jdbcTemplate.batchUpdate(UPDATE_CLIENT, rows, UPDATE_TYPES);
+            return clientIds.size();
+        });
+        return rebuilt == null ? 0 : rebuilt;
+    }
+
+    private void fail(ClientStatsRebuild rebuild, Throwable cause) {
+        log.error("Client stats rebuild {} failed after client {}", rebuild.getId(), rebuild.getLastClientId(), cause);
+
+        String message = String.valueOf(cause.getMessage());
+        rebuild.setStatus(JobStatus.FAILED);
+        rebuild.setErrorMessage(message.length() > 500 ? message.substring(0, 500) : message);
+        this.clientStatsRebuildRepository.save(rebuild);
+    }
+
+    private static Date toDate(Timestamp timestamp) {
+        return timestamp == null ? null : Date.valueOf(timestamp.toLocalDateTime().toLocalDate());
+    }
+
+    private record ClientTotals(int orders, BigDecimal spent, Date firstOrderDate, Date lastOrderDate) {
+        private static final ClientTotals NONE = new ClientTotals(0, BigDecimal.ZERO, null, null);
+    }
+}
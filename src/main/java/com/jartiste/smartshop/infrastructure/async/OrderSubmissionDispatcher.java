@@ -0,0 +1,150 @@
+package com.jartiste.smartshop.infrastructure.async;
+
+
+import com.jartiste.smartshop.application.service.impl.OrderSubmissionProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process queue of order submission ids, drained by a fixed set of worker threads in
+ * micro-batches. A full queue is reported to the caller instead of blocking the request thread.
+ * Submissions still queued in the database when the application starts (e.g. after a restart)
+ * are picked up again; with several nodes each one enqueues them, and the processor's claim lets
+ * only one create the order. The ids the processor hands back after a retryable failure are
+ * enqueued again, and a periodic sweep enqueues the submissions left QUEUED and untouched for
+ * {@code stale-after}: a batch that failed as a whole, a retry that found the queue full.
+ * An id already waiting in the queue is not added twice.
+ */
+@Component
+@Slf4j
+public class OrderSubmissionDispatcher implements SmartLifecycle {
+
+    private static final long POLL_MILLIS = 500;
+
+    private final OrderSubmissionProcessor orderSubmissionProcessor;
+    private final BlockingQueue<Long> queue;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration staleAfter;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public OrderSubmissionDispatcher(OrderSubmissionProcessor orderSubmissionProcessor,
+                                     @Value("${smartshop.orders.async.queue-capacity:1000}") int queueCapacity,
+                                     @Value("${smartshop.orders.async.workers:2}") int workerCount,
+                                     @Value("${smartshop.orders.async.batch-size:20}") int batchSize,
+                                     @Value("${smartshop.orders.async.stale-after:PT1M}") Duration staleAfter) {
+        this.orderSubmissionProcessor = orderSubmissionProcessor;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.staleAfter = staleAfter;
+    }
+
+    public boolean enqueue(Long submissionId) {
+        if(!this.queued.add(submissionId)) {
+            return true;
+        }
+        if(!this.queue.offer(submissionId)) {
+            this.queued.remove(submissionId);
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.orders.async.sweep-interval:PT1M}", initialDelayString = "${smartshop.orders.async.sweep-interval:PT1M}")
+    public void sweepStale() {
+        if(!this.running) {
+            return;
+        }
+        for(Long submissionId : this.orderSubmissionProcessor.findQueuedBefore(LocalDateTime.now().minus(this.staleAfter))) {
+            if(!enqueue(submissionId)) {
+                log.warn("Order queue full while sweeping stale submissions, the rest is picked up on the next sweep");
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        this.running = true;
+
+        for(Long submissionId : this.orderSubmissionProcessor.findQueued()) {
+            if(!enqueue(submissionId)) {
+                log.warn("Order queue full while recovering queued submissions, the rest is picked up on next start");
+                break;
+            }
+        }
+
+        for(int i = 0; i < this.workerCount; i++) {
+            Thread worker = new Thread(this::drain, "order-submission-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            this.workers.add(worker);
+        }
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+        for(Thread worker : this.workers) {
+            worker.interrupt();
+        }
+        for(Thread worker : this.workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    private void drain() {
+        List<Long> batch = new ArrayList<>(this.batchSize);
+        while(this.running) {
+            try {
+                Long first = this.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if(null == first) {
+                    continue;
+                }
+
+                batch.add(first);
+                this.queue.drainTo(batch, this.batchSize - 1);
+                this.queued.removeAll(batch);
+                for(Long retry : this.orderSubmissionProcessor.process(batch)) {
+                    if(!enqueue(retry)) {
+                        log.debug("Order queue full, submission {} is retried by the stale sweep", retry);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // the submissions stay QUEUED in the database and the stale sweep enqueues them again
+                log.error("Order submission batch {} failed", batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.jartiste.smartshop.infrastructure.async;
+
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Groups concurrent stock decrements of the same product into one short transaction. Requests
+ * wait in a per-product lane for at most {@code window} or until {@code max-batch} of them are
+ * pending; the lane is then flushed with a single conditional UPDATE of the summed quantity.
+ * When the stock can't cover everyone, the row is locked and the requests are served in
+ * arrival order, the rest being refused. The row lock is held for the flush only, not for the
+ * whole checkout of each order. A lane left empty after its flush is dropped, so only products
+ * with decrements in flight keep one.
+ *
+ * <p>Checkouts keep their connection while they wait for a flush, so flushes use a small pool of
+ * their own; otherwise waiting checkouts could hold every pooled connection and starve them.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "smartshop.stock", name = "concurrency-mode", havingValue = "coalescing")
+public class StockDecrementCoalescer implements DisposableBean {
+
+    private static final String DECREASE_IF_AVAILABLE =
+            "UPDATE product SET stock = stock - ?, version = version + 1 WHERE id = ? AND deleted = false AND stock >= ?";
+    private static final String SELECT_FOR_UPDATE = "SELECT stock FROM product WHERE id = ? AND deleted = false FOR UPDATE";
+    private static final String INCREASE = "UPDATE product SET stock = stock + ?, version = version + 1 WHERE id = ?";
+
+    private final HikariDataSource ownPool;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    public StockDecrementCoalescer(DataSource dataSource,
+                                   @Value("${smartshop.stock.coalescing.window:2ms}") Duration window,
+                                   @Value("${smartshop.stock.coalescing.max-batch:64}") int maxBatch,
+                                   @Value("${smartshop.stock.coalescing.threads:4}") int threads) {
+        this.ownPool = ownPool(dataSource, threads);
+        DataSource flushDataSource = this.ownPool != null ? this.ownPool : dataSource;
+        this.jdbcTemplate = new JdbcTemplate(flushDataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(flushDataSource));
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "stock-coalescer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Completes with {@code true} once the quantity is taken from the stock, {@code false} when there isn't enough. */
+    public CompletableFuture<Boolean> decrement(Long productId, int quantity) {
+        Request request = new Request(quantity, new CompletableFuture<>());
+
+        while(true) {
+            Lane lane = this.lanes.computeIfAbsent(productId, Lane::new);
+            boolean flushNow = false;
+            boolean schedule = false;
+            synchronized (lane) {
+                // a lane dropped after its last flush takes no more requests, the next one replaces it
+                if(lane.retired) {
+                    continue;
+                }
+                lane.pending.add(request);
+                if(lane.pending.size() >= this.maxBatch) {
+                    flushNow = true;
+                } else if(!lane.scheduled) {
+                    lane.scheduled = true;
+                    schedule = true;
+                }
+            }
+
+            if(flushNow) {
+                this.scheduler.execute(() -> flush(lane));
+            } else if(schedule) {
+                this.scheduler.schedule(() -> flush(lane), this.windowNanos, TimeUnit.NANOSECONDS);
+            }
+            return request.result();
+        }
+    }
+
+    /** Gives back stock taken for an order that did not go through. */
+    public void release(Long productId, int quantity) {
+        this.scheduler.execute(() -> {
+            try {
+                this.transactionTemplate.executeWithoutResult(status -> this.jdbcTemplate.update(INCREASE, quantity, productId));
+            } catch (RuntimeException e) {
+                log.error("Could not give back {} units of product {}", quantity, productId, e);
+            }
+        });
+    }
+
+    private void flush(Lane lane) {
+        List<Request> batch;
+        synchronized (lane) {
+            lane.scheduled = false;
+            if(lane.pending.isEmpty()) {
+                retireIfIdle(lane);
+                return;
+            }
+            batch = new ArrayList<>(lane.pending);
+            lane.pending.clear();
+        }
+
+        try {
+            boolean[] granted = this.transactionTemplate.execute(status -> apply(lane.productId, batch));
+            for(int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(granted[i]);
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(request -> request.result().completeExceptionally(e));
+        }
+
+        synchronized (lane) {
+            retireIfIdle(lane);
+        }
+    }
+
+    /** Drops a lane nothing is waiting in; requests arriving meanwhile have scheduled another flush. Caller holds the lane. */
+    private void retireIfIdle(Lane lane) {
+        if(lane.pending.isEmpty() && !lane.scheduled && !lane.retired) {
+            lane.retired = true;
+            this.lanes.remove(lane.productId, lane);
+        }
+    }
+
+    private boolean[] apply(Long productId, List<Request> batch) {
+        boolean[] granted = new boolean[batch.size()];
+
+        int total = batch.stream().mapToInt(Request::quantity).sum();
+        if(this.jdbcTemplate.update(DECREASE_IF_AVAILABLE, total, productId, total) == 1) {
+            Arrays.fill(granted, true);
+            return granted;
+        }
+
+        List<Integer> locked = this.jdbcTemplate.queryForList(SELECT_FOR_UPDATE, Integer.class, productId);
+        int available = locked.isEmpty() ? 0 : locked.get(0);
+        int taken = 0;
+        for(int i = 0; i < batch.size(); i++) {
+            int quantity = batch.get(i).quantity();
+            if(taken + quantity <= available) {
+                taken += quantity;
+                granted[i] = true;
+            }
+        }
+
+        if(taken > 0) {
+            this.jdbcTemplate.update(DECREASE_IF_AVAILABLE, taken, productId, taken);
+        }
+        return granted;
+    }
+
+    private static HikariDataSource ownPool(DataSource dataSource, int size) {
+        try {
+            if(!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return null;
+            }
+            HikariConfig config = new HikariConfig();
+            dataSource.unwrap(HikariDataSource.class).copyStateTo(config);
+            config.setPoolName("stock-coalescer");
+            config.setMaximumPoolSize(size);
+            config.setMinimumIdle(1);
+            return new HikariDataSource(config);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not inspect the datasource", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // pending flushes and give-backs still run
+        this.scheduler.shutdown();
+        try {
+            if(!this.scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Stock coalescer stopped with pending work");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if(this.ownPool != null) {
+            this.ownPool.close();
+        }
+    }
+
+    private record Request(int quantity, CompletableFuture<Boolean> result) {
+    }
+
+    private static final class Lane {
+        private final Long productId;
+        private final List<Request> pending = new ArrayList<>();
+        private boolean scheduled;
+        private boolean retired;
+
+        private Lane(Long productId) {
+            this.productId = productId;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.jartiste.smartshop.infrastructure.cache;
+
+import com.jartiste.smartshop.infrastructure.config.CacheConfig;
+import com.jartiste.smartshop.infrastructure.search.ProductSearchIndexer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Invalidates cached catalog entries when stock moves outside of the product admin endpoints
+ * (order checkout and cancellation) or products are written in bulk. Stock moves are also passed
+ * on to the search index, when the application runs one.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCatalogCache {
+
+    private final CacheManager cacheManager;
+    private final ObjectProvider<ProductSearchIndexer> productSearchIndexer;
+
+    public void evictProducts(Collection<Long> productIds) {
+        Cache products = this.cacheManager.getCache(CacheConfig.PRODUCTS);
+        if(products != null) {
+            productIds.forEach(products::evict);
+        }
+
+        Cache pages = this.cacheManager.getCache(CacheConfig.PRODUCT_PAGES);
+        if(pages != null) {
+            pages.clear();
+        }
+
+        this.productSearchIndexer.ifAvailable(indexer -> indexer.stockChanged(productIds));
+    }
+
+    public void evictAll() {
+        for(String cacheName : new String[]{CacheConfig.PRODUCTS, CacheConfig.PRODUCT_PAGES}) {
+            Cache cache = this.cacheManager.getCache(cacheName);
+            if(cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
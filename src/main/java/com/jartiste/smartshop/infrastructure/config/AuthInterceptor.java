@@ -3,19 +3,45 @@ package com.jartiste.smartshop.infrastructure.config;
 import com.jartiste.smartshop.domain.enums.UserRole;
 import com.jartiste.smartshop.domain.exception.ForbiddenException;
 import com.jartiste.smartshop.domain.exception.UnAuthorizedException;
+import com.jartiste.smartshop.infrastructure.security.AuthMode;
+import com.jartiste.smartshop.infrastructure.security.AuthTokenProperties;
+import com.jartiste.smartshop.infrastructure.security.AuthTokenService;
+import com.jartiste.smartshop.infrastructure.security.AuthenticatedUser;
 import com.jartiste.smartshop.presentation.annotation.RequireRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
+@RequiredArgsConstructor
 public class AuthInterceptor implements HandlerInterceptor {
 
+    static final String AUTHORIZATION_TIMER = "smartshop.auth.check";
+
+    private static final String BEARER = "Bearer ";
+
+    private final MeterRegistry meterRegistry;
+    private final AuthTokenService authTokenService;
+    private final AuthTokenProperties authTokenProperties;
+
+    // resolved once per handler method; the annotation lookup never runs again for that endpoint
+    private final Map<Method, EndpointRule> rules = new ConcurrentHashMap<>();
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
 
@@ -23,29 +49,78 @@ public class AuthInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        RequireRole requireRole = handlerMethod.getMethodAnnotation(RequireRole.class);
-        if(null == requireRole)  {
-            requireRole = handlerMethod.getBeanType().getAnnotation(RequireRole.class);
+        EndpointRule rule = this.rules.computeIfAbsent(handlerMethod.getMethod(), method -> resolve(handlerMethod));
+
+        if(null == rule.allowedRoles()) {
+            return true;
         }
 
-        if(null == requireRole) {
+        long start = System.nanoTime();
+        try {
+            AuthenticatedUser user = this.authTokenProperties.mode() == AuthMode.TOKEN
+                    ? fromToken(request)
+                    : fromSession(request);
+
+            if(null == user) {
+                throw new UnAuthorizedException("You are not authenticated");
+            }
+
+            if(!rule.allowedRoles().contains(user.role())) {
+                throw new ForbiddenException("Access Forbidden. Insufficient priviléges");
+            }
+
+            // controllers read the caller from the request, whichever mode authenticated it
+            request.setAttribute(AuthenticatedUser.USER_ID, user.id());
+            request.setAttribute(AuthenticatedUser.USER_ROLE, user.role());
+            request.setAttribute(AuthenticatedUser.USER_TIER, user.tier());
             return true;
+        } finally {
+            rule.timer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
+    }
 
+    private AuthenticatedUser fromToken(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if(null == authorization || !authorization.startsWith(BEARER)) {
+            return null;
+        }
+        return this.authTokenService.verify(authorization.substring(BEARER.length()));
+    }
+
+    private AuthenticatedUser fromSession(HttpServletRequest request) {
         HttpSession session = request.getSession(false);
+        if(null == session || null == session.getAttribute(AuthenticatedUser.USER_ROLE)) {
+            return null;
+        }
+        return new AuthenticatedUser(
+                (Long) session.getAttribute(AuthenticatedUser.USER_ID),
+                (UserRole) session.getAttribute(AuthenticatedUser.USER_ROLE),
+                null);
+    }
 
-        if(null == session || null == session.getAttribute("USER_ROLE")) {
-            throw new UnAuthorizedException("You are not authenticated");
+    private EndpointRule resolve(HandlerMethod handlerMethod) {
+        RequireRole requireRole = handlerMethod.getMethodAnnotation(RequireRole.class);
+        if(null == requireRole)  {
+            requireRole = handlerMethod.getBeanType().getAnnotation(RequireRole.class);
+        }
+
+        if(null == requireRole) {
+            return EndpointRule.UNPROTECTED;
         }
 
-        UserRole userRole = (UserRole) session.getAttribute("USER_ROLE");
+        Set<UserRole> allowedRoles = EnumSet.noneOf(UserRole.class);
+        allowedRoles.addAll(Arrays.asList(requireRole.value()));
 
-        boolean isAllowed = Arrays.asList(requireRole.value()).contains(userRole);
+        Timer timer = Timer.builder(AUTHORIZATION_TIMER)
+                .description("Time spent authorizing a request against @RequireRole")
+                .tag("endpoint", handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName())
+                .register(this.meterRegistry);
 
-        if(!isAllowed) {
-            throw new ForbiddenException("Access Forbidden. Insufficient priviléges");
-        }
+        return new EndpointRule(allowedRoles, timer);
+    }
 
-        return true;
+    /** Roles allowed on an endpoint, {@code null} when it carries no {@link RequireRole}. */
+    private record EndpointRule(Set<UserRole> allowedRoles, Timer timer) {
+        static final EndpointRule UNPROTECTED = new EndpointRule(null, null);
     }
 }
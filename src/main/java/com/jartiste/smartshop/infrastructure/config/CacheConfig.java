@@ -0,0 +1,33 @@
+package com.jartiste.smartshop.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_PAGES = "product-pages";
+
+    /**
+     * Bounded Caffeine caches (W-TinyLFU eviction) for the product catalog. The manager is
+     * transaction aware so evictions issued inside a transaction only apply after commit.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${smartshop.cache.catalog-spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String catalogSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.from(catalogSpec));
+        cacheManager.setCacheNames(List.of(PRODUCTS, PRODUCT_PAGES));
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,72 @@
+package com.jartiste.smartshop.infrastructure.config;
+
+import com.jartiste.smartshop.infrastructure.datasource.ReplicaProperties;
+import com.jartiste.smartshop.infrastructure.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured pool once {@code smartshop.datasource.replicas} lists a replica:
+ * the primary pool is built from {@code spring.datasource.*} as before, each replica gets a
+ * read-only pool of its own, and the application's {@code DataSource} routes between them. Every
+ * pool publishes its {@code hikaricp.*} metrics tagged with its name ({@code primary},
+ * {@code replica-1}, ...).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "smartshop.datasource.replicas[0]", name = "url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaProperties replicaProperties,
+                                                             Environment environment,
+                                                             MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        List<HikariDataSource> replicaPools = new ArrayList<>();
+        for(int i = 0; i < replicaProperties.replicas().size(); i++) {
+            ReplicaProperties.Replica replica = replicaProperties.replicas().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            primary.copyStateTo(pool);
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(replica.url());
+            if(null != replica.username()) {
+                pool.setUsername(replica.username());
+                pool.setPassword(replica.password());
+            }
+            if(null != replica.maximumPoolSize()) {
+                pool.setMaximumPoolSize(replica.maximumPoolSize());
+            }
+            pool.setReadOnly(true);
+            replicaPools.add(pool);
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicaPools, replicaProperties.maxLag(),
+                replicaProperties.lagQuery(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,14 @@
+package com.jartiste.smartshop.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on {@code @Scheduled} for the background jobs: search index stock refresh, replica health
+ * checks, expired session sweep and stale order submission sweep. Kept on its own so none of them
+ * depends on whichever feature configuration happens to be loaded.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,55 @@
+package com.jartiste.smartshop.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jartiste.smartshop.infrastructure.session.JsonSessionAttributeConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Where HTTP sessions live ({@code smartshop.session.store}). {@code jdbc}, the default, keeps
+ * them in the shared database through Spring Session so any node can serve any request;
+ * {@code memory} keeps them in a map, for tests and single-node runs.
+ */
+@Configuration
+public class SessionConfig {
+
+    /** How session attributes are written to the store ({@code smartshop.session.serialization}: jdk | json). */
+    @Bean
+    public ConversionService springSessionConversionService(
+            @Value("${smartshop.session.serialization:jdk}") String serialization,
+            ObjectMapper objectMapper) {
+        GenericConversionService conversionService = new GenericConversionService();
+        if("json".equalsIgnoreCase(serialization)) {
+            conversionService.addConverter(new JsonSessionAttributeConverter(objectMapper));
+        } else {
+            ClassLoader classLoader = SessionConfig.class.getClassLoader();
+            conversionService.addConverter(Object.class, byte[].class, new SerializingConverter());
+            conversionService.addConverter(byte[].class, Object.class, new DeserializingConverter(classLoader));
+        }
+        return conversionService;
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "smartshop.session.store", havingValue = "memory")
+    @EnableSpringHttpSession
+    static class InMemorySessionConfig {
+
+        @Bean
+        public MapSessionRepository sessionRepository(@Value("${spring.session.timeout:30m}") Duration timeout) {
+            MapSessionRepository repository = new MapSessionRepository(new ConcurrentHashMap<>());
+            repository.setDefaultMaxInactiveInterval(timeout);
+            return repository;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.jartiste.smartshop.infrastructure.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code smartshop.datasource.*}: the read replicas behind {@code readOnly} transactions. A
+ * replica left without credentials uses the primary's, and its pool copies the primary's Hikari
+ * settings. {@code lag-query} replaces the built-in lag check; it must return the lag in seconds.
+ */
+@ConfigurationProperties(prefix = "smartshop.datasource")
+public record ReplicaProperties(List<Replica> replicas, Duration maxLag, String lagQuery) {
+
+    public ReplicaProperties {
+        if(replicas == null) replicas = List.of();
+        if(maxLag == null) maxLag = Duration.ofSeconds(5);
+        if(lagQuery != null && lagQuery.isBlank()) lagQuery = null;
+    }
+
+    public record Replica(String url, String username, String password, Integer maximumPoolSize) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.jartiste.smartshop.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the connections of {@code readOnly} transactions to the read replicas, round-robin, and
+ * every other connection to the primary. The decision is taken when a connection is handed out,
+ * so this must sit behind a {@code LazyConnectionDataSourceProxy}: the transaction is then
+ * already marked read-only when its first statement fetches the physical connection.
+ * <p>
+ * Replica lag is measured every {@code smartshop.datasource.lag-check-interval}. A replica that
+ * lags more than {@code max-lag}, or can't be reached, gets no reads until a later check finds it
+ * caught up; when no replica is usable, reads fall back to the primary. Until its first check a
+ * replica counts as unusable. On PostgreSQL the lag is the age of the last replayed transaction,
+ * or zero when everything received has been replayed; other databases only get a reachability
+ * check, unless {@code lag-query} is set.
+ * <p>
+ * Unwrapping returns the primary pool, as seen outside a read-only transaction.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END
+            """;
+    private static final String REACHABILITY_QUERY = "SELECT 0";
+    private static final int LAG_QUERY_TIMEOUT_SECONDS = 2;
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> connections = new HashMap<>();
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools, Duration maxLag,
+                                    String lagQuery, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.lagQuery = lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.connections.put(PRIMARY, connectionCounter(PRIMARY, meterRegistry));
+        for(Replica replica : this.replicas) {
+            targets.put(replica.name, replica.pool);
+            this.connections.put(replica.name, connectionCounter(replica.name, meterRegistry));
+            Gauge.builder("smartshop.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .baseUnit("seconds").tag("pool", replica.name).register(meterRegistry);
+            Gauge.builder("smartshop.datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                    .tag("pool", replica.name).register(meterRegistry);
+        }
+        this.fallbacks = Counter.builder("smartshop.datasource.replica.fallbacks").register(meterRegistry);
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String pool = PRIMARY;
+        if(TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Replica replica = nextAvailableReplica();
+            if(null != replica) {
+                pool = replica.name;
+            } else {
+                this.fallbacks.increment();
+            }
+        }
+        this.connections.get(pool).increment();
+        return pool;
+    }
+
+    private Replica nextAvailableReplica() {
+        int start = this.next.getAndIncrement();
+        for(int i = 0; i < this.replicas.size(); i++) {
+            Replica replica = this.replicas.get(Math.floorMod(start + i, this.replicas.size()));
+            if(replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.datasource.lag-check-interval:PT2S}")
+    public void checkReplicas() {
+        for(Replica replica : this.replicas) {
+            try (Connection connection = replica.pool.getConnection(); Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(LAG_QUERY_TIMEOUT_SECONDS);
+                try (ResultSet rs = statement.executeQuery(lagQuery(connection))) {
+                    rs.next();
+                    replica.measured(rs.getDouble(1), this.maxLagSeconds);
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.unreachable(e);
+            }
+        }
+    }
+
+    private String lagQuery(Connection connection) throws SQLException {
+        if(null != this.lagQuery) {
+            return this.lagQuery;
+        }
+        boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+        return postgres ? POSTGRES_LAG_QUERY : REACHABILITY_QUERY;
+    }
+
+    @Override
+    public void close() {
+        this.replicas.forEach(replica -> replica.pool.close());
+        this.primary.close();
+    }
+
+    private static Counter connectionCounter(String pool, MeterRegistry meterRegistry) {
+        return Counter.builder("smartshop.datasource.connections").tag("pool", pool).register(meterRegistry);
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource pool;
+        private volatile double lagSeconds = Double.NaN;
+        private volatile boolean available;
+
+        Replica(HikariDataSource pool) {
+            this.name = pool.getPoolName();
+            this.pool = pool;
+        }
+
+        void measured(double lagSeconds, double maxLagSeconds) {
+            this.lagSeconds = lagSeconds;
+            boolean caughtUp = lagSeconds <= maxLagSeconds;
+            if(caughtUp != this.available) {
+                if(caughtUp) {
+                    log.info("Replica {} is {} s behind, sending it reads", this.name, lagSeconds);
+                } else {
+                    log.warn("Replica {} is {} s behind (max {} s), reads go elsewhere", this.name, lagSeconds, maxLagSeconds);
+                }
+            }
+            this.available = caughtUp;
+        }
+
+        void unreachable(Exception e) {
+            this.lagSeconds = Double.NaN;
+            if(this.available) {
+                log.warn("Replica {} failed its lag check, reads go elsewhere: {}", this.name, e.getMessage());
+            }
+            this.available = false;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.jartiste.smartshop.infrastructure.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * One line per order, then one per item and one per payment of that order, all under a single
+ * header; {@code record_type} tells them apart and columns that don't apply are left empty.
+ */
+class CsvOrderExportWriter implements OrderExportWriter {
+
+    private static final String HEADER = "record_type,order_id,client_id,created_at,status,promo_code,sub_total,discount_amount,"
+            + "tax_amount,total_amount,remaining_amount,product_id,quantity,unit_price,payment_id,payment_method,"
+            + "payment_status,amount,reference,bank_name,due_date,cleared_date";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+
+    CsvOrderExportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.writer.write(HEADER);
+        this.writer.write('\n');
+    }
+
+    @Override
+    public void startOrder(ResultSet order) throws SQLException, IOException {
+        writer.write("ORDER,");
+        value(order.getLong(1));
+        value(order.getLong(2));
+        value(order.getTimestamp(3));
+        value(order.getString(4));
+        text(order.getString(5));
+        value(order.getBigDecimal(6));
+        value(order.getBigDecimal(7));
+        value(order.getBigDecimal(8));
+        value(order.getBigDecimal(9));
+        last(order.getBigDecimal(10));
+        writer.write(",,,,,,,,,,,\n");
+    }
+
+    @Override
+    public void item(ResultSet item) throws SQLException, IOException {
+        writer.write("ITEM,");
+        value(item.getLong(1));
+        writer.write(",,,,,,,,,");
+        value(item.getLong(2));
+        value(item.getInt(3));
+        last(item.getBigDecimal(4));
+        writer.write(",,,,,,,,\n");
+    }
+
+    @Override
+    public void payment(ResultSet payment) throws SQLException, IOException {
+        writer.write("PAYMENT,");
+        value(payment.getLong(1));
+        writer.write(",,,,,,,,,,,,");
+        value(payment.getLong(2));
+        value(payment.getString(3));
+        value(payment.getString(4));
+        value(payment.getBigDecimal(5));
+        text(payment.getString(6));
+        text(payment.getString(7));
+        value(payment.getDate(8));
+        last(payment.getTimestamp(9));
+        writer.write('\n');
+    }
+
+    @Override
+    public void endOrder() {
+        // nothing to close between orders
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void value(Object value) throws IOException {
+        last(value);
+        writer.write(',');
+    }
+
+    private void last(Object value) throws IOException {
+        if(value instanceof BigDecimal number) {
+            writer.write(number.toPlainString());
+        } else if(value instanceof Timestamp timestamp) {
+            writer.write(timestamp.toLocalDateTime().toString());
+        } else if(value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    private void text(String value) throws IOException {
+        if(value != null && value.chars().anyMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            last(value);
+        }
+        writer.write(',');
+    }
+}
@@ -0,0 +1,33 @@
+package com.jartiste.smartshop.infrastructure.export;
+
+import com.jartiste.smartshop.domain.exception.ValidationException;
+
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static ExportFormat from(String value) {
+        for(ExportFormat format : values()) {
+            if(format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new ValidationException("Unknown export format '" + value + "', expected csv or ndjson");
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,104 @@
+package com.jartiste.smartshop.infrastructure.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * One JSON object per line and per order, with its {@code items} and {@code payments} nested.
+ * Items always come before payments, so both arrays are written as the cursors reach them.
+ */
+class NdjsonOrderExportWriter implements OrderExportWriter {
+
+    private final JsonGenerator generator;
+    private boolean inItems;
+
+    NdjsonOrderExportWriter(JsonFactory jsonFactory, OutputStream out) throws IOException {
+        this.generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void startOrder(ResultSet order) throws SQLException, IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", order.getLong(1));
+        generator.writeNumberField("clientId", order.getLong(2));
+        timestamp("createdAt", order.getTimestamp(3));
+        generator.writeStringField("status", order.getString(4));
+        generator.writeStringField("promoCode", order.getString(5));
+        decimal("subTotal", order.getBigDecimal(6));
+        decimal("discountAmount", order.getBigDecimal(7));
+        decimal("taxAmount", order.getBigDecimal(8));
+        decimal("totalAmount", order.getBigDecimal(9));
+        decimal("remainingAmount", order.getBigDecimal(10));
+        generator.writeArrayFieldStart("items");
+        inItems = true;
+    }
+
+    @Override
+    public void item(ResultSet item) throws SQLException, IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("productId", item.getLong(2));
+        generator.writeNumberField("quantity", item.getInt(3));
+        decimal("unitPrice", item.getBigDecimal(4));
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void payment(ResultSet payment) throws SQLException, IOException {
+        startPayments();
+        generator.writeStartObject();
+        generator.writeNumberField("id", payment.getLong(2));
+        generator.writeStringField("method", payment.getString(3));
+        generator.writeStringField("status", payment.getString(4));
+        decimal("amount", payment.getBigDecimal(5));
+        generator.writeStringField("reference", payment.getString(6));
+        generator.writeStringField("bankName", payment.getString(7));
+        Date dueDate = payment.getDate(8);
+        generator.writeStringField("dueDate", dueDate == null ? null : dueDate.toLocalDate().toString());
+        timestamp("clearedDate", payment.getTimestamp(9));
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void endOrder() throws IOException {
+        startPayments();
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+
+    private void startPayments() throws IOException {
+        if(inItems) {
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("payments");
+            inItems = false;
+        }
+    }
+
+    private void decimal(String name, BigDecimal value) throws IOException {
+        if(value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private void timestamp(String name, Timestamp value) throws IOException {
+        generator.writeStringField(name, value == null ? null : value.toLocalDateTime().toString());
+    }
+}
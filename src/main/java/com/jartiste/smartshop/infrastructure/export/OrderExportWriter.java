@@ -0,0 +1,22 @@
+package com.jartiste.smartshop.infrastructure.export;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Receives the export one record at a time, straight from the cursors; the column order of each
+ * result set is the one selected by {@link OrderExporter}.
+ */
+interface OrderExportWriter {
+
+    void startOrder(ResultSet order) throws SQLException, IOException;
+
+    void item(ResultSet item) throws SQLException, IOException;
+
+    void payment(ResultSet payment) throws SQLException, IOException;
+
+    void endOrder() throws IOException;
+
+    void finish() throws IOException;
+}
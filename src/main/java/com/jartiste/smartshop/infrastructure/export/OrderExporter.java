@@ -0,0 +1,158 @@
+package com.jartiste.smartshop.infrastructure.export;
+
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the orders created in a time range, with their items and payments, to an output stream.
+ * Orders, items and payments are read through three forward-only cursors sorted the same way
+ * ({@code created_at, id} of the order) and merged as they go, so only the current row of each
+ * is held in memory whatever the size of the range. The cursors run in a read-only transaction,
+ * which is what makes the PostgreSQL driver honour the fetch size instead of loading everything.
+ * That transaction is REPEATABLE READ so the three cursors share one snapshot; under READ COMMITTED
+ * each would see the orders committed up to its own start. Should an item or payment still belong
+ * to an order the order cursor never returned, it is skipped rather than stalling the merge.
+ */
+@Component
+@Slf4j
+public class OrderExporter {
+
+    private static final String RANGE = " FROM orders o %s WHERE o.created_at >= ? AND o.created_at < ? ORDER BY o.created_at, o.id%s";
+    private static final String ORDERS_SQL = "SELECT o.id, o.client_id, o.created_at, o.order_status, o.promo_code, o.sub_total, "
+            + "o.discount_amount, o.tax_amount, o.total_amount, o.remaining_amount" + RANGE.formatted("", "");
+    private static final String ITEMS_SQL = "SELECT i.order_id, i.product_id, i.quantity, i.unit_price, o.created_at"
+            + RANGE.formatted("JOIN order_item i ON i.order_id = o.id", ", i.id");
+    private static final String PAYMENTS_SQL = "SELECT p.order_id, p.id, p.payment_method, p.payment_status, p.amount, "
+            + "p.reference, p.bank_name, p.due_date, p.cleared_date, o.created_at" + RANGE.formatted("JOIN payment p ON p.order_id = o.id", ", p.id");
+    private static final int ITEM_CREATED_AT = 5;
+    private static final int PAYMENT_CREATED_AT = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonFactory jsonFactory;
+    private final MeterRegistry meterRegistry;
+    private final int fetchSize;
+
+    public OrderExporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry, @Value("${smartshop.orders.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.jsonFactory = objectMapper.getFactory();
+        this.meterRegistry = meterRegistry;
+        this.fetchSize = fetchSize;
+    }
+
+    /** Writes the orders created in {@code [from, to)} and returns the number of records written. */
+    public long export(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream out) {
+        long start = System.nanoTime();
+
+        ExportCounts counts = this.transactionTemplate.execute(status -> this.jdbcTemplate.execute((ConnectionCallback<ExportCounts>) connection -> {
+            try {
+                OrderExportWriter writer = format == ExportFormat.CSV
+                        ? new CsvOrderExportWriter(out)
+                        : new NdjsonOrderExportWriter(this.jsonFactory, out);
+                return stream(connection, Timestamp.valueOf(from), Timestamp.valueOf(to), writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+
+        long elapsed = System.nanoTime() - start;
+        double seconds = Math.max(elapsed, 1) / 1_000_000_000.0;
+        double rowsPerSecond = counts.rows() / seconds;
+
+        String formatTag = format.name().toLowerCase();
+        Counter.builder("smartshop.export.rows").tag("format", formatTag).register(this.meterRegistry).increment(counts.rows());
+        Timer.builder("smartshop.export.duration").tag("format", formatTag).register(this.meterRegistry).record(elapsed, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("smartshop.export.throughput").baseUnit("rows/s").tag("format", formatTag)
+                .register(this.meterRegistry).record(rowsPerSecond);
+        log.info("Exported {} orders ({} rows) as {} in {} s, {} rows/s",
+                counts.orders(), counts.rows(), formatTag, String.format("%.1f", seconds), String.format("%.0f", rowsPerSecond));
+
+        return counts.rows();
+    }
+
+    private ExportCounts stream(Connection connection, Timestamp from, Timestamp to, OrderExportWriter writer) throws SQLException, IOException {
+        try (PreparedStatement orderStatement = cursor(connection, ORDERS_SQL, from, to);
+             PreparedStatement itemStatement = cursor(connection, ITEMS_SQL, from, to);
+             PreparedStatement paymentStatement = cursor(connection, PAYMENTS_SQL, from, to);
+             ResultSet orders = orderStatement.executeQuery();
+             ResultSet items = itemStatement.executeQuery();
+             ResultSet payments = paymentStatement.executeQuery()) {
+
+            long orderCount = 0;
+            long rows = 0;
+            boolean hasItem = items.next();
+            boolean hasPayment = payments.next();
+            while(orders.next()) {
+                long orderId = orders.getLong(1);
+                Timestamp createdAt = orders.getTimestamp(3);
+                writer.startOrder(orders);
+                while(hasItem && sortsBefore(items, ITEM_CREATED_AT, createdAt, orderId)) {
+                    hasItem = items.next();
+                }
+                while(hasItem && items.getLong(1) == orderId) {
+                    writer.item(items);
+                    rows++;
+                    hasItem = items.next();
+                }
+                while(hasPayment && sortsBefore(payments, PAYMENT_CREATED_AT, createdAt, orderId)) {
+                    hasPayment = payments.next();
+                }
+                while(hasPayment && payments.getLong(1) == orderId) {
+                    writer.payment(payments);
+                    rows++;
+                    hasPayment = payments.next();
+                }
+                writer.endOrder();
+                orderCount++;
+                rows++;
+            }
+            writer.finish();
+            return new ExportCounts(orderCount, rows);
+        }
+    }
+
+    /** Whether the current row belongs to an order sorting before {@code (createdAt, orderId)}, one the merge has passed. */
+    private static boolean sortsBefore(ResultSet rows, int createdAtColumn, Timestamp createdAt, long orderId) throws SQLException {
+        int byDate = rows.getTimestamp(createdAtColumn).compareTo(createdAt);
+        return byDate < 0 || (byDate == 0 && rows.getLong(1) < orderId);
+    }
+
+    private PreparedStatement cursor(Connection connection, String sql, Timestamp from, Timestamp to) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(this.fetchSize);
+        statement.setTimestamp(1, from);
+        statement.setTimestamp(2, to);
+        return statement;
+    }
+
+    private record ExportCounts(long orders, long rows) {
+    }
+}
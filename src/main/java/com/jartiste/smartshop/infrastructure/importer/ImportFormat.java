@@ -0,0 +1,31 @@
+package com.jartiste.smartshop.infrastructure.importer;
+
+import com.jartiste.smartshop.domain.exception.ValidationException;
+import org.springframework.http.MediaType;
+
+public enum ImportFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String contentType;
+
+    ImportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public static ImportFormat fromContentType(String value) {
+        if(null != value) {
+            MediaType mediaType = MediaType.parseMediaType(value);
+            for(ImportFormat format : values()) {
+                if(mediaType.isCompatibleWith(MediaType.parseMediaType(format.contentType))) {
+                    return format;
+                }
+            }
+        }
+        throw new ValidationException("Unsupported import content type '" + value + "', expected text/csv or application/x-ndjson");
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,148 @@
+package com.jartiste.smartshop.infrastructure.importer;
+
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.infrastructure.util.SequenceIdAllocator;
+import com.jartiste.smartshop.presentation.dto.request.ProductRequest;
+import com.jartiste.smartshop.presentation.dto.response.ProductImportResponse.RowError;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes one batch of validated import rows keyed by sku, in its own transaction: one lookup of
+ * the batch's skus, then one JDBC batch of updates for live products and one of inserts for new
+ * ones. Soft-deleted products are never revived or modified; their rows come back as errors. When
+ * a sku repeats inside a batch the last row wins, as it would across batches.
+ */
+@Component
+@Slf4j
+public class ProductBatchUpserter {
+
+    private static final String SELECT_EXISTING = "SELECT id, sku, deleted, version FROM product WHERE sku IN (:skus)";
+    private static final String UPDATE_PRODUCT =
+            "UPDATE product SET name = ?, price = ?, stock = ?, version = version + 1, updated_at = ? WHERE id = ? AND deleted = false";
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO product (id, sku, name, price, stock, deleted, version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, false, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SequenceIdAllocator productIds;
+
+    public ProductBatchUpserter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productIds = new SequenceIdAllocator(jdbcTemplate, entityManagerFactory, "product_seq");
+    }
+
+    public BatchResult upsert(List<ProductImportRow> rows) {
+        try {
+            return write(rows);
+        } catch (DuplicateKeyException e) {
+            // another import inserted one of these skus after the lookup; the retry finds it and updates it instead
+            log.debug("Product import batch raced on a sku, retrying", e);
+            return write(rows);
+        }
+    }
+
+    private BatchResult write(List<ProductImportRow> rows) {
+        return this.transactionTemplate.execute(status -> {
+            Map<String, List<ProductImportRow>> bySku = new LinkedHashMap<>();
+            for(ProductImportRow row : rows) {
+                bySku.computeIfAbsent(row.sku(), sku -> new ArrayList<>()).add(row);
+            }
+
+            Map<String, ExistingProduct> existing = new HashMap<>();
+            this.namedParameterJdbcTemplate.query(SELECT_EXISTING, Map.of("skus", bySku.keySet()), rs -> {
+                existing.put(rs.getString(2), new ExistingProduct(rs.getLong(1), rs.getBoolean(3), rs.getLong(4)));
+            });
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> updates = new ArrayList<>();
+            List<List<ProductImportRow>> updatedRows = new ArrayList<>();
+            List<Product> updatedProducts = new ArrayList<>();
+            List<Product> written = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            List<RowError> errors = new ArrayList<>();
+            int created = 0;
+            int updated = 0;
+
+            for(Map.Entry<String, List<ProductImportRow>> entry : bySku.entrySet()) {
+                List<ProductImportRow> skuRows = entry.getValue();
+                ProductRequest latest = skuRows.get(skuRows.size() - 1).request();
+                ExistingProduct product = existing.get(entry.getKey());
+
+                if(null == product) {
+                    long id = this.productIds.next();
+                    inserts.add(new Object[]{id, entry.getKey(), latest.name(), latest.price(), latest.stock(), now, now});
+                    written.add(toProduct(id, 0, entry.getKey(), latest));
+                    created++;
+                    updated += skuRows.size() - 1;
+                } else if(product.deleted()) {
+                    reject(skuRows, "Product with this sku is deleted", errors);
+                } else {
+                    updates.add(new Object[]{latest.name(), latest.price(), latest.stock(), now, product.id()});
+                    updatedRows.add(skuRows);
+                    updatedProducts.add(toProduct(product.id(), product.version() + 1, entry.getKey(), latest));
+                }
+            }
+
+            if(!updates.isEmpty()) {
+                int[] counts = this.jdbcTemplate.batchUpdate(UPDATE_PRODUCT, updates);
+                for(int i = 0; i < counts.length; i++) {
+                    // SUCCESS_NO_INFO (-2) counts as applied
+                    if(counts[i] == 0) {
+                        reject(updatedRows.get(i), "Product with this sku is deleted", errors);
+                    } else {
+                        updated += updatedRows.get(i).size();
+                        written.add(updatedProducts.get(i));
+                    }
+                }
+            }
+            if(!inserts.isEmpty()) {
+                this.jdbcTemplate.batchUpdate(INSERT_PRODUCT, inserts);
+            }
+            return new BatchResult(created, updated, errors, written);
+        });
+    }
+
+    private static Product toProduct(long id, long version, String sku, ProductRequest request) {
+        return Product.builder()
+                .id(id)
+                .version(version)
+                .sku(sku)
+                .name(request.name())
+                .price(request.price())
+                .stock(request.stock())
+                .deleted(false)
+                .build();
+    }
+
+    private static void reject(List<ProductImportRow> rows, String message, List<RowError> errors) {
+        for(ProductImportRow row : rows) {
+            errors.add(new RowError(row.line(), row.sku(), message));
+        }
+    }
+
+    private record ExistingProduct(long id, boolean deleted, long version) {
+    }
+
+    /** {@code written} holds the products as they now stand, for the search index. */
+    public record BatchResult(int created, int updated, List<RowError> errors, List<Product> written) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.jartiste.smartshop.infrastructure.importer;
+
+import com.jartiste.smartshop.presentation.dto.request.ProductRequest;
+
+/**
+ * One data line of an import body. {@code error} is set when the line could not be turned into a
+ * {@link ProductRequest} or the request failed validation; such rows are reported, never written.
+ */
+public record ProductImportRow(long line, ProductRequest request, String error) {
+
+    public static ProductImportRow parsed(long line, ProductRequest request) {
+        return new ProductImportRow(line, request, null);
+    }
+
+    public static ProductImportRow rejected(long line, String sku, String error) {
+        return new ProductImportRow(line, new ProductRequest(null, null, null, sku), error);
+    }
+
+    public ProductImportRow reject(String error) {
+        return new ProductImportRow(line, request, error);
+    }
+
+    public boolean isValid() {
+        return null == error;
+    }
+
+    public String sku() {
+        return request.sku();
+    }
+}
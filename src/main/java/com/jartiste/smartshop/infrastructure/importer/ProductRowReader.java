@@ -0,0 +1,163 @@
+package com.jartiste.smartshop.infrastructure.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jartiste.smartshop.domain.exception.ValidationException;
+import com.jartiste.smartshop.presentation.dto.request.ProductRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads an import body line by line, so only the chunk being handed out is ever in memory.
+ * {@link #next} is for a single reader thread; {@link #parse} only reads state fixed by the header
+ * and may run on any number of threads.
+ * CSV bodies start with a header naming the {@code sku}, {@code name}, {@code price} and
+ * {@code stock} columns in any order; fields may be double-quoted but not span lines. NDJSON
+ * bodies hold one {@link ProductRequest} object per line. Line numbers count every physical line,
+ * header included, so they match what the supplier sees in their file.
+ */
+public class ProductRowReader {
+
+    private static final List<String> CSV_COLUMNS = List.of("sku", "name", "price", "stock");
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private final int[] columnIndexes = new int[CSV_COLUMNS.size()];
+    private int columnCount;
+    private long line;
+
+    public ProductRowReader(InputStream body, ImportFormat format, ObjectMapper objectMapper) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if(format == ImportFormat.CSV) {
+            readHeader();
+        }
+    }
+
+    /** Up to {@code max} non-blank lines; an empty list once the body is exhausted. */
+    public List<Line> next(int max) throws IOException {
+        List<Line> lines = new ArrayList<>(max);
+        String text;
+        while(lines.size() < max && null != (text = reader.readLine())) {
+            line++;
+            if(!text.isBlank()) {
+                lines.add(new Line(line, text));
+            }
+        }
+        return lines;
+    }
+
+    public ProductImportRow parse(Line line) {
+        return format == ImportFormat.CSV ? parseCsv(line.number(), line.text()) : parseJson(line.number(), line.text());
+    }
+
+    private void readHeader() throws IOException {
+        String header = reader.readLine();
+        line++;
+        if(null == header) {
+            throw new ValidationException("CSV import body is empty, expected a header line");
+        }
+
+        List<String> fields = splitCsv(!header.isEmpty() && header.charAt(0) == '\uFEFF' ? header.substring(1) : header);
+        Map<String, Integer> positions = new HashMap<>();
+        for(int i = 0; i < fields.size(); i++) {
+            positions.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for(int i = 0; i < CSV_COLUMNS.size(); i++) {
+            Integer position = positions.get(CSV_COLUMNS.get(i));
+            if(null == position) {
+                throw new ValidationException("CSV header must name the columns " + String.join(",", CSV_COLUMNS));
+            }
+            columnIndexes[i] = position;
+        }
+        columnCount = fields.size();
+    }
+
+    private ProductImportRow parseCsv(long line, String text) {
+        List<String> fields;
+        try {
+            fields = splitCsv(text);
+        } catch (IllegalArgumentException e) {
+            return ProductImportRow.rejected(line, null, e.getMessage());
+        }
+        String sku = blankToNull(field(fields, 0));
+        if(fields.size() != columnCount) {
+            return ProductImportRow.rejected(line, sku, "Expected " + columnCount + " fields but found " + fields.size());
+        }
+
+        try {
+            String price = blankToNull(field(fields, 2));
+            String stock = blankToNull(field(fields, 3));
+            return ProductImportRow.parsed(line, new ProductRequest(
+                    blankToNull(field(fields, 1)),
+                    null == price ? null : new BigDecimal(price.trim()),
+                    null == stock ? null : Integer.valueOf(stock.trim()),
+                    sku));
+        } catch (NumberFormatException e) {
+            return ProductImportRow.rejected(line, sku, "price and stock must be numbers");
+        }
+    }
+
+    private ProductImportRow parseJson(long line, String text) {
+        try {
+            return ProductImportRow.parsed(line, objectMapper.readValue(text, ProductRequest.class));
+        } catch (JsonProcessingException e) {
+            return ProductImportRow.rejected(line, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private String field(List<String> fields, int column) {
+        int index = columnIndexes[column];
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static String blankToNull(String value) {
+        return null == value || value.isBlank() ? null : value;
+    }
+
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for(int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if(quoted) {
+                if(c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if(c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if(c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if(c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if(c != '\r') {
+                field.append(c);
+            }
+        }
+        if(quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public record Line(long number, String text) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.jartiste.smartshop.infrastructure.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs {@code EXPLAIN} on the statements behind the hot repository methods once the application is
+ * ready (after seeding), and fails startup if any of them plans a sequential scan, so a missing or
+ * unusable index shows up at deploy time rather than under load.
+ * <p>
+ * On PostgreSQL sequential scans are disabled for the check: the planner then picks an index
+ * whenever one can serve the query, whatever the size of the seeded tables, and still falls back
+ * to a sequential scan when none can. On H2 a table scan is reported as {@code tableScan}.
+ */
+@Component
+@ConditionalOnProperty(name = "smartshop.db.plan-check.enabled", havingValue = "true")
+@Slf4j
+public class QueryPlanChecker {
+
+    /** Sample values only shape the plan; the rows they match do not matter. */
+    public static final List<HotQuery> HOT_QUERIES = List.of(
+            new HotQuery("UserRepository.findCredentialsByUsername",
+                    "SELECT u.id, u.password, c.tier FROM users u LEFT JOIN client c ON c.id = u.id WHERE u.username = 'plan_check'"),
+            new HotQuery("UserRepository.existsByUsername",
+                    "SELECT u.id FROM users u WHERE u.username = 'plan_check'"),
+            new HotQuery("OrderRepository.findByClient_Id",
+                    "SELECT o.id FROM orders o WHERE o.client_id = 1 ORDER BY o.created_at DESC, o.id DESC"),
+            new HotQuery("OrderExporter.export",
+                    "SELECT o.id FROM orders o WHERE o.created_at >= TIMESTAMP '2025-01-01 00:00:00' "
+                            + "AND o.created_at < TIMESTAMP '2025-02-01 00:00:00' ORDER BY o.created_at, o.id"),
+            new HotQuery("ClientStatsRebuilder.rebuild",
+                    "SELECT o.client_id, COUNT(*) FROM orders o WHERE o.client_id > 0 AND o.client_id <= 1000 GROUP BY o.client_id"),
+            new HotQuery("OrderRepository.findWithItemsById",
+                    "SELECT i.id, i.product_id FROM order_item i WHERE i.order_id = 1"),
+            new HotQuery("PaymentRepository.findByOrder_IdOrderByCreatedAtAsc",
+                    "SELECT p.id FROM payment p WHERE p.order_id = 1 ORDER BY p.created_at"),
+            new HotQuery("ProductRepository.findAllByDeletedFalse",
+                    "SELECT p.id FROM product p WHERE p.deleted = false ORDER BY p.id"),
+            new HotQuery("ProductRepository.existsBySku",
+                    "SELECT p.id FROM product p WHERE p.sku = 'plan_check'"),
+            new HotQuery("OrderSubmissionRepository.findByClientIdAndIdempotencyKey",
+                    "SELECT s.id FROM order_submission s WHERE s.client_id = 1 AND s.idempotency_key = 'plan_check'"),
+            new HotQuery("OrderSubmissionRepository.findIdsByStatus",
+                    "SELECT s.id FROM order_submission s WHERE s.status = 'QUEUED' ORDER BY s.id"),
+            new HotQuery("OrderSubmissionRepository.findIdsByStatusAndUpdatedAtBefore",
+                    "SELECT s.id FROM order_submission s WHERE s.status = 'QUEUED' "
+                            + "AND s.updated_at < TIMESTAMP '2025-01-01 00:00:00' ORDER BY s.id")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public QueryPlanChecker(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkOnStartup() {
+        List<String> scans = sequentialScans(HOT_QUERIES);
+        if(!scans.isEmpty()) {
+            throw new IllegalStateException("Hot queries plan sequential scans, add the missing indexes: " + String.join("; ", scans));
+        }
+        log.info("Query plans checked: {} hot queries, all served by indexes", HOT_QUERIES.size());
+    }
+
+    /** One line per query whose plan scans a whole table, naming the query and the plan. */
+    public List<String> sequentialScans(List<HotQuery> queries) {
+        boolean postgres = this.jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres"));
+
+        List<String> scans = new ArrayList<>();
+        for(HotQuery query : queries) {
+            String plan = explain(query.sql(), Boolean.TRUE.equals(postgres));
+            boolean scan = Boolean.TRUE.equals(postgres) ? plan.contains("Seq Scan") : plan.contains(".tableScan");
+            if(scan) {
+                scans.add(query.name() + ": " + plan.replaceAll("\\s+", " ").trim());
+            }
+        }
+        return scans;
+    }
+
+    private String explain(String sql, boolean postgres) {
+        return this.transactionTemplate.execute(status -> {
+            if(postgres) {
+                this.jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            }
+            return String.join("\n", this.jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        });
+    }
+
+    public record HotQuery(String name, String sql) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+import com.jartiste.smartshop.domain.entity.Client;
+
+import java.util.List;
+
+/**
+ * Fuzzy search over client names for the back office, selected by {@code smartshop.clients.search.engine}:
+ * {@code trigram} asks PostgreSQL's {@code pg_trgm} GIN index, {@code memory} keeps a trigram index in
+ * this JVM for H2. A client matches when its name contains the query or shares enough of its trigrams.
+ */
+public interface ClientNameSearch {
+
+    /** Best matches first, starting after {@code after} (null for the first page), at most {@code limit}. */
+    List<ClientSearchHit> search(String text, ClientSearchHit after, int limit);
+
+    /** A client was created or renamed. */
+    default void index(Client client) {
+    }
+
+    /** A client was deleted. */
+    default void remove(Long clientId) {
+    }
+}
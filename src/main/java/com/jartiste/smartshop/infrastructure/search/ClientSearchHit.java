@@ -0,0 +1,14 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+/**
+ * A client matching a name search. {@code score} runs from 0 to 1, the share of the query's
+ * trigrams found in the client's name; hits are ordered by score, then id, which is also the
+ * keyset the next page resumes after.
+ */
+public record ClientSearchHit(long id, float score) {
+
+    /** Whether this hit sorts after {@code other}: a lower score, or the same score and a higher id. */
+    public boolean isAfter(ClientSearchHit other) {
+        return score < other.score || (score == other.score && id > other.id);
+    }
+}
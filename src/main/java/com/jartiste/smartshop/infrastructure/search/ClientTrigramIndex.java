@@ -0,0 +1,209 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over client names, the H2 counterpart of a {@code pg_trgm} GIN index.
+ * Names are folded like product names, then every word is padded with two leading spaces and one
+ * trailing space and cut into overlapping three-character grams, as {@code pg_trgm} does. Each gram
+ * points at the ordinals of the names containing it.
+ * <p>
+ * A query counts, for every name sharing at least one gram with it, how many of its grams the name
+ * has. The score is that count over the query's gram count. Names scoring at least the threshold
+ * match, which tolerates typos; names containing the query as a substring always match.
+ * <p>
+ * Renaming a client moves it to a new ordinal; deleting one leaves a tombstone, so that a startup
+ * load running behind a write cannot bring the old name back.
+ */
+public class ClientTrigramIndex {
+
+    private static final Comparator<ClientSearchHit> RANKING =
+            Comparator.comparing(ClientSearchHit::score).reversed().thenComparingLong(ClientSearchHit::id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> grams = new HashMap<>();
+    // client id -> ordinal, -1 once deleted
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final float threshold;
+    private long[] ids = new long[1024];
+    private String[] names = new String[1024];
+    private int nextOrdinal;
+    private int live;
+
+    public ClientTrigramIndex(float threshold) {
+        this.threshold = threshold;
+    }
+
+    /** Indexes a client's current name, replacing what was indexed for it. */
+    public void put(long id, String name) {
+        write(id, name, true);
+    }
+
+    /** Indexes a client read by a bulk load, unless a write already indexed or removed it. */
+    public void putIfAbsent(long id, String name) {
+        write(id, name, false);
+    }
+
+    public void remove(long id) {
+        this.lock.writeLock().lock();
+        try {
+            retire(this.ordinals.put(id, -1));
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            this.grams.clear();
+            this.ordinals.clear();
+            this.ids = new long[1024];
+            this.names = new String[1024];
+            this.nextOrdinal = 0;
+            this.live = 0;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.live;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public List<ClientSearchHit> search(String text, ClientSearchHit after, int limit) {
+        String query = SearchTokenizer.normalize(text);
+        Set<String> queryGrams = trigrams(query);
+        if(queryGrams.isEmpty()) {
+            return List.of();
+        }
+        // grams inside a word, without padding: a name containing the query has all of them
+        int innerGrams = (int) queryGrams.stream().filter(gram -> gram.indexOf(' ') < 0).count();
+
+        List<ClientSearchHit> hits = new ArrayList<>();
+        this.lock.readLock().lock();
+        try {
+            int[] counts = new int[this.nextOrdinal];
+            int[] touched = new int[16];
+            int touchedCount = 0;
+            for(String gram : queryGrams) {
+                Postings postings = this.grams.get(gram);
+                if(null == postings) {
+                    continue;
+                }
+                for(int i = 0; i < postings.size; i++) {
+                    int ordinal = postings.ordinals[i];
+                    if(counts[ordinal]++ == 0) {
+                        if(touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = ordinal;
+                    }
+                }
+            }
+
+            for(int i = 0; i < touchedCount; i++) {
+                int ordinal = touched[i];
+                String name = this.names[ordinal];
+                if(null == name) {
+                    continue;
+                }
+                int count = counts[ordinal];
+                float score = (float) count / queryGrams.size();
+                if(score < this.threshold && (count < innerGrams || !name.contains(query))) {
+                    continue;
+                }
+                ClientSearchHit hit = new ClientSearchHit(this.ids[ordinal], score);
+                if(null == after || hit.isAfter(after)) {
+                    hits.add(hit);
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        hits.sort(RANKING);
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    private void write(long id, String name, boolean replace) {
+        String normalized = SearchTokenizer.normalize(name);
+        Set<String> nameGrams = trigrams(normalized);
+
+        this.lock.writeLock().lock();
+        try {
+            Integer current = this.ordinals.get(id);
+            if(null != current && !replace) {
+                return;
+            }
+            if(null != current && current >= 0 && normalized.equals(this.names[current])) {
+                return;
+            }
+            retire(current);
+
+            int ordinal = this.nextOrdinal++;
+            if(ordinal == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, ordinal * 2);
+                this.names = Arrays.copyOf(this.names, ordinal * 2);
+            }
+            this.ids[ordinal] = id;
+            this.names[ordinal] = normalized;
+            for(String gram : nameGrams) {
+                this.grams.computeIfAbsent(gram, key -> new Postings()).add(ordinal);
+            }
+            this.ordinals.put(id, ordinal);
+            this.live++;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    // under the write lock
+    private void retire(Integer ordinal) {
+        if(null != ordinal && ordinal >= 0) {
+            this.names[ordinal] = null;
+            this.live--;
+        }
+    }
+
+    static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        if(normalized.isEmpty()) {
+            return grams;
+        }
+        for(String word : normalized.split(" ")) {
+            String padded = "  " + word + " ";
+            for(int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    /** Ordinals of the names holding one gram, in insertion order. */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if(this.size == this.ordinals.length) {
+                this.ordinals = Arrays.copyOf(this.ordinals, this.size * 2);
+            }
+            this.ordinals[this.size++] = ordinal;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.exception.ServiceUnavailableException;
+import com.jartiste.smartshop.infrastructure.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@link ClientNameSearch} over a {@link ClientTrigramIndex}, for databases without {@code pg_trgm}.
+ * Client names are loaded once the application is ready and searches get a 503 until then; client
+ * writes through the service are applied when they commit.
+ */
+@Component
+@ConditionalOnProperty(name = "smartshop.clients.search.engine", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryClientNameSearch implements ClientNameSearch {
+
+    private static final String LOAD_NAMES = "SELECT id, nom FROM client";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClientTrigramIndex index;
+    private volatile boolean ready;
+
+    public InMemoryClientNameSearch(JdbcTemplate jdbcTemplate,
+                                    @Value("${smartshop.clients.search.similarity-threshold:0.5}") float threshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.index = new ClientTrigramIndex(threshold);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread thread = new Thread(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                log.error("Client name index load failed, client search stays unavailable", e);
+            }
+        }, "client-search-load");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void load() {
+        long start = System.nanoTime();
+        this.jdbcTemplate.query(LOAD_NAMES, rs -> {
+            this.index.putIfAbsent(rs.getLong(1), rs.getString(2));
+        });
+        this.ready = true;
+        log.info("Client name index loaded: {} clients in {} ms", this.index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public List<ClientSearchHit> search(String text, ClientSearchHit after, int limit) {
+        if(!this.ready) {
+            throw new ServiceUnavailableException("Client search is still loading, try again shortly");
+        }
+        return this.index.search(text, after, limit);
+    }
+
+    @Override
+    public void index(Client client) {
+        AfterCommit.run(() -> this.index.put(client.getId(), client.getNom()));
+    }
+
+    @Override
+    public void remove(Long clientId) {
+        AfterCommit.run(() -> this.index.remove(clientId));
+    }
+}
@@ -0,0 +1,295 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory inverted index over product names. Each indexed product gets an ordinal, and every
+ * word and every word prefix (up to {@link #MAX_PREFIX} characters) points at the ordinals of the
+ * products containing it. Ordinals only grow and postings are append-only, so each list is sorted
+ * and a prefix query is a single list lookup. Renaming a product moves it to a new ordinal and
+ * leaves the old one dead; a rebuild compacts.
+ * <p>
+ * Every query word but the last must match a whole word; the last is a prefix, as autocomplete
+ * sends it. Whole-word matches of the last word come first, then prefix matches, each in index
+ * order, and the scan stops as soon as {@code limit} products pass the filters. Stock and price
+ * are kept in primitive columns so filtering does not touch the documents.
+ * <p>
+ * Reads take no lock. Writes are serialized; tokenizing happens before the lock.
+ */
+public class ProductSearchIndex {
+
+    /** Longer query prefixes are looked up by their first {@code MAX_PREFIX} characters, then checked against the name. */
+    static final int MAX_PREFIX = 12;
+    private static final long NO_PRICE = Long.MIN_VALUE;
+
+    private final Object writeLock = new Object();
+    private final ConcurrentHashMap<String, Term> terms = new ConcurrentHashMap<>();
+    // guarded by writeLock; deleted products keep a slot without ordinal so an older version cannot bring them back
+    private final Map<Long, Slot> slots = new HashMap<>();
+    private volatile Columns columns = new Columns(1024);
+    private int nextOrdinal;
+    private volatile int live;
+
+    /** Adds, replaces or (for a deleted document) retires a product, unless a newer version is already indexed. */
+    public void put(SearchDocument document) {
+        List<String> tokens = document.deleted() ? List.of() : SearchTokenizer.tokenize(document.name());
+
+        synchronized (this.writeLock) {
+            Slot slot = this.slots.get(document.id());
+            if(null != slot && slot.version() > document.version()) {
+                return;
+            }
+
+            if(null != slot && slot.ordinal() >= 0) {
+                Columns current = this.columns;
+                if(!document.deleted() && Objects.equals(current.documents[slot.ordinal()].name(), document.name())) {
+                    // same words, same postings: refresh the columns in place
+                    current.set(slot.ordinal(), document);
+                    this.slots.put(document.id(), new Slot(slot.ordinal(), document.version()));
+                    return;
+                }
+                current.documents[slot.ordinal()] = null;
+                this.live--;
+            }
+
+            if(document.deleted()) {
+                this.slots.put(document.id(), new Slot(-1, document.version()));
+                return;
+            }
+
+            int ordinal = this.nextOrdinal++;
+            Columns current = this.columns;
+            if(ordinal == current.documents.length) {
+                current = current.grow();
+                this.columns = current;
+            }
+            current.set(ordinal, document);
+
+            Set<String> prefixes = new HashSet<>();
+            for(String token : tokens) {
+                this.terms.computeIfAbsent(token, key -> new Term()).whole().add(ordinal);
+                for(int length = 1; length <= Math.min(token.length(), MAX_PREFIX); length++) {
+                    String prefix = token.substring(0, length);
+                    if(prefixes.add(prefix)) {
+                        this.terms.computeIfAbsent(prefix, key -> new Term()).prefixed.add(ordinal);
+                    }
+                }
+            }
+            this.slots.put(document.id(), new Slot(ordinal, document.version()));
+            this.live++;
+        }
+    }
+
+    public void updateStock(long id, int stock) {
+        synchronized (this.writeLock) {
+            Slot slot = this.slots.get(id);
+            if(null != slot && slot.ordinal() >= 0) {
+                Columns current = this.columns;
+                current.set(slot.ordinal(), current.documents[slot.ordinal()].withStock(stock));
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (this.writeLock) {
+            this.terms.clear();
+            this.slots.clear();
+            this.columns = new Columns(1024);
+            this.nextOrdinal = 0;
+            this.live = 0;
+        }
+    }
+
+    public int size() {
+        return this.live;
+    }
+
+    public List<SearchDocument> search(Query query) {
+        List<String> tokens = SearchTokenizer.tokenize(query.text());
+        if(tokens.isEmpty()) {
+            return List.of();
+        }
+
+        String prefix = tokens.get(tokens.size() - 1);
+        List<String> words = tokens.subList(0, tokens.size() - 1);
+        Filter filter = new Filter(query);
+        List<SearchDocument> hits = new ArrayList<>(query.limit());
+        Set<Integer> seen = new HashSet<>();
+
+        collect(wholeWords(tokens), null, filter, hits, seen);
+        if(hits.size() < query.limit()) {
+            List<Postings.Snapshot> lists = wholeWords(words);
+            if(null != lists) {
+                Term term = this.terms.get(prefix.length() > MAX_PREFIX ? prefix.substring(0, MAX_PREFIX) : prefix);
+                lists.add(null == term ? null : term.prefixed.snapshot());
+                collect(lists, prefix.length() > MAX_PREFIX ? prefix : null, filter, hits, seen);
+            }
+        }
+        return hits;
+    }
+
+    private List<Postings.Snapshot> wholeWords(List<String> words) {
+        List<Postings.Snapshot> lists = new ArrayList<>(words.size() + 1);
+        for(String word : words) {
+            Term term = this.terms.get(word);
+            Postings whole = null == term ? null : term.whole;
+            if(null == whole) {
+                return null;
+            }
+            lists.add(whole.snapshot());
+        }
+        return lists;
+    }
+
+    /**
+     * Walks the shortest list and probes the others by binary search. {@code longPrefix} is set when
+     * the query prefix was longer than what the postings hold and has to be checked on the name.
+     */
+    private void collect(List<Postings.Snapshot> lists, String longPrefix, Filter filter, List<SearchDocument> hits, Set<Integer> seen) {
+        if(null == lists || lists.isEmpty() || lists.contains(null)) {
+            return;
+        }
+        Postings.Snapshot shortest = lists.get(0);
+        for(Postings.Snapshot list : lists) {
+            if(list.size() < shortest.size()) {
+                shortest = list;
+            }
+        }
+
+        // read after the postings: every ordinal they hold has its columns published
+        Columns current = this.columns;
+        for(int i = 0; i < shortest.size() && hits.size() < filter.limit(); i++) {
+            int ordinal = shortest.ordinals()[i];
+            SearchDocument document = current.documents[ordinal];
+            if(null == document || !filter.accepts(current.stock[ordinal], current.priceCents[ordinal])) {
+                continue;
+            }
+            if(!containsAll(lists, shortest, ordinal) || seen.contains(ordinal)) {
+                continue;
+            }
+            if(null != longPrefix && SearchTokenizer.tokenize(document.name()).stream().noneMatch(token -> token.startsWith(longPrefix))) {
+                continue;
+            }
+            seen.add(ordinal);
+            hits.add(document);
+        }
+    }
+
+    private static boolean containsAll(List<Postings.Snapshot> lists, Postings.Snapshot except, int ordinal) {
+        for(Postings.Snapshot list : lists) {
+            if(list != except && Arrays.binarySearch(list.ordinals(), 0, list.size(), ordinal) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        return price.movePointRight(2).setScale(0, roundingMode).longValue();
+    }
+
+    public record Query(String text, BigDecimal minPrice, BigDecimal maxPrice, boolean inStockOnly, int limit) {
+    }
+
+    private record Slot(int ordinal, long version) {
+    }
+
+    private record Filter(boolean inStockOnly, long minCents, long maxCents, boolean priced, int limit) {
+
+        Filter(Query query) {
+            this(query.inStockOnly(),
+                    null == query.minPrice() ? Long.MIN_VALUE : toCents(query.minPrice(), RoundingMode.CEILING),
+                    null == query.maxPrice() ? Long.MAX_VALUE : toCents(query.maxPrice(), RoundingMode.FLOOR),
+                    null != query.minPrice() || null != query.maxPrice(),
+                    query.limit());
+        }
+
+        boolean accepts(int stock, long priceCents) {
+            if(inStockOnly && stock <= 0) {
+                return false;
+            }
+            if(priced && (priceCents == NO_PRICE || priceCents < minCents || priceCents > maxCents)) {
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /** Products containing a term as a whole word, and products with a word starting with it. */
+    private static final class Term {
+        private volatile Postings whole;
+        private final Postings prefixed = new Postings();
+
+        // writers only, under the index write lock
+        Postings whole() {
+            if(null == whole) {
+                whole = new Postings();
+            }
+            return whole;
+        }
+    }
+
+    /** Append-only sorted ordinals; written under the index write lock, read without it. */
+    private static final class Postings {
+        private volatile int[] ordinals = new int[2];
+        private volatile int size;
+
+        void add(int ordinal) {
+            int[] current = this.ordinals;
+            if(this.size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[this.size] = ordinal;
+            this.ordinals = current;
+            // published last: a reader that sees the new size also sees the element
+            this.size = this.size + 1;
+        }
+
+        Snapshot snapshot() {
+            int count = this.size;
+            return new Snapshot(this.ordinals, count);
+        }
+
+        record Snapshot(int[] ordinals, int size) {
+        }
+    }
+
+    /** Per-ordinal columns; replaced by a larger copy when full, written under the index write lock. */
+    private static final class Columns {
+        private final SearchDocument[] documents;
+        private final int[] stock;
+        private final long[] priceCents;
+
+        Columns(int capacity) {
+            this(new SearchDocument[capacity], new int[capacity], new long[capacity]);
+        }
+
+        private Columns(SearchDocument[] documents, int[] stock, long[] priceCents) {
+            this.documents = documents;
+            this.stock = stock;
+            this.priceCents = priceCents;
+        }
+
+        Columns grow() {
+            int capacity = this.documents.length * 2;
+            return new Columns(Arrays.copyOf(this.documents, capacity), Arrays.copyOf(this.stock, capacity),
+                    Arrays.copyOf(this.priceCents, capacity));
+        }
+
+        void set(int ordinal, SearchDocument document) {
+            this.stock[ordinal] = document.stock();
+            this.priceCents[ordinal] = null == document.price() ? NO_PRICE : toCents(document.price(), RoundingMode.HALF_UP);
+            this.documents[ordinal] = document;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.exception.ServiceUnavailableException;
+import com.jartiste.smartshop.infrastructure.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Keeps the {@link ProductSearchIndex} in step with the product table. The index is loaded once
+ * the application is ready, {@code rebuild-threads} id ranges at a time, and searches get a 503
+ * until it is complete. Product writes are applied when they commit; stock moved by orders is only
+ * noted on commit and re-read in bulk every {@code stock-refresh-interval}, so checkouts never pay
+ * for the index.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndexer {
+
+    private static final String ID_BOUNDS = "SELECT MIN(id), MAX(id) FROM product";
+    private static final String LOAD_RANGE =
+            "SELECT id, version, sku, name, price, stock FROM product WHERE id >= ? AND id < ? AND deleted = false";
+    private static final String LOAD_STOCK = "SELECT id, stock FROM product WHERE id IN (:ids)";
+    private static final int STOCK_REFRESH_BATCH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ProductSearchIndex index = new ProductSearchIndex();
+    private final Set<Long> staleStock = ConcurrentHashMap.newKeySet();
+    private final int rebuildThreads;
+    private final int rebuildChunkSize;
+    private volatile boolean ready;
+
+    public ProductSearchIndexer(JdbcTemplate jdbcTemplate,
+                                @Value("${smartshop.products.search.rebuild-threads:0}") int rebuildThreads,
+                                @Value("${smartshop.products.search.rebuild-chunk-size:10000}") int rebuildChunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.rebuildThreads = rebuildThreads > 0 ? rebuildThreads : Runtime.getRuntime().availableProcessors();
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Product search index rebuild failed, search stays unavailable", e);
+            }
+        }, "product-search-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        this.ready = false;
+        this.index.clear();
+
+        long[] bounds = this.jdbcTemplate.queryForObject(ID_BOUNDS,
+                (rs, rowNum) -> null == rs.getObject(1) ? null : new long[]{rs.getLong(1), rs.getLong(2)});
+        if(null != bounds) {
+            ExecutorService workers = Executors.newFixedThreadPool(this.rebuildThreads);
+            try {
+                List<Future<?>> ranges = new ArrayList<>();
+                for(long from = bounds[0]; from <= bounds[1]; from += this.rebuildChunkSize) {
+                    long lower = from;
+                    ranges.add(workers.submit(() -> loadRange(lower, lower + this.rebuildChunkSize)));
+                }
+                for(Future<?> range : ranges) {
+                    range.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Product search index rebuild interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Product search index rebuild failed", e.getCause());
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+
+        this.ready = true;
+        log.info("Product search index built: {} products in {} ms", this.index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void loadRange(long fromInclusive, long toExclusive) {
+        this.jdbcTemplate.query(LOAD_RANGE, rs -> {
+            this.index.put(new SearchDocument(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+                    rs.getBigDecimal(5), rs.getInt(6), false));
+        }, fromInclusive, toExclusive);
+    }
+
+    public List<SearchDocument> search(ProductSearchIndex.Query query) {
+        if(!this.ready) {
+            throw new ServiceUnavailableException("Product search is still loading, try again shortly");
+        }
+        return this.index.search(query);
+    }
+
+    /** Applies a product as saved, including a soft delete, once the transaction writing it commits. */
+    public void index(Product product) {
+        // read at commit, when the flush has bumped the version
+        AfterCommit.run(() -> this.index.put(new SearchDocument(product.getId(), null == product.getVersion() ? 0 : product.getVersion(),
+                product.getSku(), product.getName(), product.getPrice(),
+                null == product.getStock() ? 0 : product.getStock(), Boolean.TRUE.equals(product.getDeleted()))));
+    }
+
+    /** Stock of these products moved outside the product endpoints; it is re-read once the transaction commits. */
+    public void stockChanged(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        AfterCommit.run(() -> this.staleStock.addAll(ids));
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.products.search.stock-refresh-interval:PT1S}")
+    public void refreshStock() {
+        while(!this.staleStock.isEmpty()) {
+            List<Long> ids = new ArrayList<>(STOCK_REFRESH_BATCH);
+            Iterator<Long> stale = this.staleStock.iterator();
+            while(stale.hasNext() && ids.size() < STOCK_REFRESH_BATCH) {
+                ids.add(stale.next());
+                stale.remove();
+            }
+            this.namedParameterJdbcTemplate.query(LOAD_STOCK, Map.of("ids", ids),
+                    rs -> {
+                        this.index.updateStock(rs.getLong(1), rs.getInt(2));
+                    });
+        }
+    }
+}
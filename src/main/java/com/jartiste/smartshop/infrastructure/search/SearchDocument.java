@@ -0,0 +1,14 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+import java.math.BigDecimal;
+
+/**
+ * What the index keeps of a product. {@code version} is the product's optimistic-lock version:
+ * a document never replaces a newer one, so a slow startup rebuild cannot undo a later edit.
+ */
+public record SearchDocument(long id, long version, String sku, String name, BigDecimal price, int stock, boolean deleted) {
+
+    SearchDocument withStock(int newStock) {
+        return new SearchDocument(id, version, sku, name, price, newStock, deleted);
+    }
+}
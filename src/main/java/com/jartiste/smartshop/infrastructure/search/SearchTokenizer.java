@@ -0,0 +1,50 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into lower-case, accent-free words, so "Écran" and "ecran" meet in the index.
+ * Ligatures that do not decompose ("œ", "æ") are spelled out; everything that is not a letter
+ * or a digit separates words.
+ */
+final class SearchTokenizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        if(null == text || text.isBlank()) {
+            return List.of();
+        }
+
+        List<String> tokens = new ArrayList<>();
+        for(String token : SEPARATORS.split(fold(text))) {
+            if(!token.isEmpty() && !tokens.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /** The words of {@code text}, folded as by {@link #tokenize}, joined by single spaces. */
+    static String normalize(String text) {
+        if(null == text || text.isBlank()) {
+            return "";
+        }
+        return SEPARATORS.matcher(fold(text)).replaceAll(" ").trim();
+    }
+
+    private static String fold(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+    }
+}
@@ -0,0 +1,84 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link ClientNameSearch} on PostgreSQL. Both match conditions, {@code <%} (word similarity above
+ * the threshold) and {@code LIKE '%text%'}, are served by the {@code idx_client_nom_trgm} GIN index
+ * on {@code lower(nom)} (migration {@code V5__client_name_trgm_index}), so only matching rows are
+ * read and scored. The threshold is set for the search transaction only.
+ */
+@Component
+@ConditionalOnProperty(name = "smartshop.clients.search.engine", havingValue = "trigram")
+@Slf4j
+public class TrigramClientNameSearch implements ClientNameSearch {
+
+    static final String INDEX_NAME = "idx_client_nom_trgm";
+    private static final String SET_THRESHOLD = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)";
+    private static final String SEARCH = """
+            SELECT id, score
+            FROM (SELECT c.id, word_similarity(:text, lower(c.nom)) AS score
+                  FROM client c
+                  WHERE :text <% lower(c.nom) OR lower(c.nom) LIKE :pattern) matches
+            WHERE score < :afterScore OR (score = :afterScore AND id > :afterId)
+            ORDER BY score DESC, id
+            LIMIT :limit""";
+    private static final String INDEX_EXISTS = "SELECT COUNT(*) FROM pg_indexes WHERE indexname = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String threshold;
+
+    public TrigramClientNameSearch(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   @Value("${smartshop.clients.search.similarity-threshold:0.5}") float threshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.threshold = Float.toString(threshold);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkIndex() {
+        Integer indexes = this.jdbcTemplate.queryForObject(INDEX_EXISTS, Integer.class, INDEX_NAME);
+        if(null == indexes || indexes == 0) {
+            log.warn("{} is missing: client search scans the whole client table. Check the Flyway migrations", INDEX_NAME);
+        }
+    }
+
+    @Override
+    public List<ClientSearchHit> search(String text, ClientSearchHit after, int limit) {
+        String query = text.trim().toLowerCase(Locale.ROOT);
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("text", query)
+                .addValue("pattern", "%" + escapeLike(query) + "%")
+                // a first page starts above any score
+                .addValue("afterScore", null == after ? 2f : after.score())
+                .addValue("afterId", null == after ? 0L : after.id())
+                .addValue("limit", limit);
+
+        return this.transactionTemplate.execute(status -> {
+            this.namedParameterJdbcTemplate.queryForObject(SET_THRESHOLD, new MapSqlParameterSource("threshold", this.threshold), String.class);
+            return this.namedParameterJdbcTemplate.query(SEARCH, parameters,
+                    (rs, rowNum) -> new ClientSearchHit(rs.getLong(1), rs.getFloat(2)));
+        });
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,6 @@
+package com.jartiste.smartshop.infrastructure.security;
+
+public enum AuthMode {
+    SESSION,
+    TOKEN
+}
@@ -0,0 +1,29 @@
+package com.jartiste.smartshop.infrastructure.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * {@code smartshop.auth.*}: how callers authenticate, and the signing keys for {@code token}
+ * mode. {@code keys} maps key ids to base64 secrets; new tokens are signed with
+ * {@code active-key} while every listed key is still accepted, which is how keys are rotated.
+ */
+@ConfigurationProperties(prefix = "smartshop.auth")
+public record AuthTokenProperties(AuthMode mode, Token token) {
+
+    public AuthTokenProperties {
+        if(mode == null) mode = AuthMode.SESSION;
+        if(token == null) token = new Token(null, null, null);
+    }
+
+    public record Token(String activeKey, Map<String, String> keys, Duration ttl) {
+
+        public Token {
+            if(activeKey != null && activeKey.isBlank()) activeKey = null;
+            if(keys == null) keys = Map.of();
+            if(ttl == null) ttl = Duration.ofHours(8);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.jartiste.smartshop.infrastructure.security;
+
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Issues and verifies stateless HMAC-SHA256 tokens {@code <kid>.<payload>.<signature>}, the
+ * payload being {@code id|role|tier|expiry} in base64url. Verification needs no storage: the
+ * keys are initialized once, and each check clones a ready {@link Mac}.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(AuthTokenProperties.class)
+public class AuthTokenService {
+
+    private static final String HMAC = "HmacSHA256";
+    private static final String NO_TIER = "-";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, Mac> macsByKeyId = new HashMap<>();
+    private final String activeKeyId;
+    private final long ttlSeconds;
+    private final Clock clock;
+
+    @Autowired
+    public AuthTokenService(AuthTokenProperties properties) {
+        this(properties.token(), Clock.systemUTC());
+    }
+
+    AuthTokenService(AuthTokenProperties.Token token, Clock clock) {
+        this.ttlSeconds = token.ttl().toSeconds();
+        this.clock = clock;
+
+        if(token.keys().isEmpty()) {
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            this.activeKeyId = "local";
+            this.macsByKeyId.put(this.activeKeyId, mac(secret));
+            log.warn("No smartshop.auth.token.keys configured, tokens are signed with a random key and only valid on this node");
+            return;
+        }
+
+        token.keys().forEach((keyId, secret) -> this.macsByKeyId.put(keyId, mac(Base64.getDecoder().decode(secret))));
+        this.activeKeyId = null != token.activeKey() ? token.activeKey() : token.keys().keySet().iterator().next();
+        if(!this.macsByKeyId.containsKey(this.activeKeyId)) {
+            throw new IllegalStateException("smartshop.auth.token.active-key '" + this.activeKeyId + "' is not one of the configured keys");
+        }
+    }
+
+    public String issue(Long userId, UserRole role, CustomerTier tier) {
+        long expiry = this.clock.instant().getEpochSecond() + this.ttlSeconds;
+        String payload = userId + "|" + role.name() + "|" + (null == tier ? NO_TIER : tier.name()) + "|" + expiry;
+        String signedPart = this.activeKeyId + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+
+        return signedPart + "." + ENCODER.encodeToString(sign(this.activeKeyId, signedPart));
+    }
+
+    /** The token's identity, or {@code null} when it is malformed, forged, signed by an unknown key or expired. */
+    public AuthenticatedUser verify(String token) {
+        if(null == token) {
+            return null;
+        }
+
+        int signatureStart = token.lastIndexOf('.');
+        int payloadStart = token.indexOf('.');
+        if(payloadStart <= 0 || signatureStart <= payloadStart) {
+            return null;
+        }
+
+        String keyId = token.substring(0, payloadStart);
+        if(!this.macsByKeyId.containsKey(keyId)) {
+            return null;
+        }
+
+        try {
+            String signedPart = token.substring(0, signatureStart);
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if(!MessageDigest.isEqual(sign(keyId, signedPart), signature)) {
+                return null;
+            }
+
+            String[] claims = new String(DECODER.decode(token.substring(payloadStart + 1, signatureStart)), StandardCharsets.UTF_8).split("\\|");
+            if(claims.length != 4 || Long.parseLong(claims[3]) < this.clock.instant().getEpochSecond()) {
+                return null;
+            }
+
+            return new AuthenticatedUser(
+                    Long.valueOf(claims[0]),
+                    UserRole.valueOf(claims[1]),
+                    NO_TIER.equals(claims[2]) ? null : CustomerTier.valueOf(claims[2]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String keyId, String signedPart) {
+        try {
+            Mac mac = (Mac) this.macsByKeyId.get(keyId).clone();
+            return mac.doFinal(signedPart.getBytes(StandardCharsets.UTF_8));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Mac mac(byte[] secret) {
+        if(secret.length < 32) {
+            throw new IllegalStateException("Token signing keys must be at least 256 bits");
+        }
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(new SecretKeySpec(secret, HMAC));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.jartiste.smartshop.infrastructure.security;
+
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.UserRole;
+
+/** Caller identity, as stored in the session or carried by a signed token. */
+public record AuthenticatedUser(Long id, UserRole role, CustomerTier tier) {
+
+    public static final String USER_ID = "USER_ID";
+    public static final String USER_ROLE = "USER_ROLE";
+    public static final String USER_TIER = "USER_TIER";
+}
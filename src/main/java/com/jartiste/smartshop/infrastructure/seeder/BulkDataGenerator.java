@@ -0,0 +1,317 @@
+package com.jartiste.smartshop.infrastructure.seeder;
+
+
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.OrderStatus;
+import com.jartiste.smartshop.domain.enums.PaymentMethod;
+import com.jartiste.smartshop.domain.enums.PaymentStatus;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import com.jartiste.smartshop.domain.service.PricingEngine;
+import com.jartiste.smartshop.domain.valueobject.PriceBreakdown;
+import com.jartiste.smartshop.infrastructure.util.PasswordUtil;
+import com.jartiste.smartshop.infrastructure.util.SequenceIdAllocator;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes a production-sized synthetic dataset with plain JDBC batch inserts: Zipf product
+ * popularity, a configurable tier / order status / payment method mix and partial payments on
+ * pending orders. Clients are generated in chunks, each chunk being flushed table by table, so
+ * memory stays flat whatever the dataset size.
+ */
+@Component
+@Slf4j
+@EnableConfigurationProperties(SeedProperties.class)
+public class BulkDataGenerator {
+
+    private static final BigDecimal CASH_LIMIT = BigDecimal.valueOf(20000);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final String PROMO_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final String[] BANKS = {"Attijariwafa Bank", "BMCE Bank", "Banque Populaire", "CIH Bank", "Societe Generale"};
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, username, password, role, user_type, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CLIENT =
+            "INSERT INTO client (id, nom, tier, total_orders, total_spent, first_order_date, last_order_date) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO product (id, name, price, stock, deleted, version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (id, client_id, order_status, promo_code, sub_total, discount_amount, tax_amount, total_amount, remaining_amount, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_ITEM =
+            "INSERT INTO order_item (id, order_id, product_id, quantity, unit_price, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PAYMENT =
+            "INSERT INTO payment (id, order_id, amount, payment_method, payment_status, reference, bank_name, due_date, cleared_date, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PricingEngine pricingEngine;
+    private final PasswordUtil passwordUtil;
+    private final SeedProperties.Bulk properties;
+
+    public BulkDataGenerator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                             PricingEngine pricingEngine, PasswordUtil passwordUtil, SeedProperties seedProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.pricingEngine = pricingEngine;
+        this.passwordUtil = passwordUtil;
+        this.properties = seedProperties.bulk();
+    }
+
+    public void generate() {
+        Long existingClients = this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM client", Long.class);
+        if(existingClients != null && existingClients > 0) {
+            log.info("Bulk seed skipped: {} clients already present", existingClients);
+            return;
+        }
+
+        Run run = new Run();
+        long start = System.nanoTime();
+
+        run.seedProducts();
+        for(int first = 0; first < properties.clients(); first += properties.batchSize()) {
+            run.seedClients(Math.min(properties.batchSize(), properties.clients() - first));
+
+            if((first / properties.batchSize()) % 10 == 9) {
+                log.info("Bulk seed progress: {} / {} clients", first + properties.batchSize(), properties.clients());
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        log.info("Bulk seed done in {} s: {} users, {} products, {} orders, {} items, {} payments",
+                String.format("%.1f", seconds), run.users, run.products, run.orders, run.items, run.payments);
+        log.info("Bulk seed throughput: {} rows/s", String.format("%.0f", run.totalRows() / seconds));
+    }
+
+    /** State of one generation run. */
+    private final class Run {
+
+        private final Random random = new Random(properties.randomSeed());
+        private final ZipfDistribution productPopularity = new ZipfDistribution(properties.products(), properties.zipfExponent());
+        private final WeightedPicker<CustomerTier> tierMix = new WeightedPicker<>(properties.tierMix());
+        private final WeightedPicker<OrderStatus> statusMix = new WeightedPicker<>(properties.statusMix());
+        private final WeightedPicker<PaymentMethod> paymentMethodMix = new WeightedPicker<>(properties.paymentMethodMix());
+        private final String passwordHash = passwordUtil.hashPassword(properties.password());
+        private final LocalDateTime now = LocalDateTime.now();
+
+        private final SequenceIdAllocator userIds = new SequenceIdAllocator(jdbcTemplate, entityManagerFactory, "users_seq");
+        private final SequenceIdAllocator productIds = new SequenceIdAllocator(jdbcTemplate, entityManagerFactory, "product_seq");
+        private final SequenceIdAllocator orderIds = new SequenceIdAllocator(jdbcTemplate, entityManagerFactory, "orders_seq");
+        private final SequenceIdAllocator itemIds = new SequenceIdAllocator(jdbcTemplate, entityManagerFactory, "order_item_seq");
+        private final SequenceIdAllocator paymentIds = new SequenceIdAllocator(jdbcTemplate, entityManagerFactory, "payment_seq");
+
+        private final long[] productIdByRank = new long[properties.products()];
+        private final BigDecimal[] priceByRank = new BigDecimal[properties.products()];
+
+        private final List<Object[]> userRows = new ArrayList<>();
+        private final List<Object[]> clientRows = new ArrayList<>();
+        private final List<Object[]> orderRows = new ArrayList<>();
+        private final List<Object[]> itemRows = new ArrayList<>();
+        private final List<Object[]> paymentRows = new ArrayList<>();
+
+        private long users;
+        private long products;
+        private long orders;
+        private long items;
+        private long payments;
+
+        long totalRows() {
+            // each client is one users row and one client row
+            return users * 2 + products + orders + items + payments;
+        }
+
+        void seedProducts() {
+            List<Object[]> rows = new ArrayList<>();
+            double minLog = Math.log(20);
+            double maxLog = Math.log(40000);
+
+            for(int rank = 0; rank < properties.products(); rank++) {
+                long id = productIds.next();
+                BigDecimal price = BigDecimal.valueOf(Math.exp(minLog + random.nextDouble() * (maxLog - minLog)))
+                        .setScale(2, RoundingMode.HALF_UP);
+                LocalDateTime createdAt = now.minusMonths(properties.historyMonths()).minusDays(random.nextInt(30));
+
+                productIdByRank[rank] = id;
+                priceByRank[rank] = price;
+                rows.add(new Object[]{id, "Product " + id, price, 1_000 + random.nextInt(100_000),
+                        random.nextInt(50) == 0, 0L, createdAt, createdAt});
+
+                if(rows.size() == properties.batchSize()) {
+                    jdbcTemplate.batchUpdate(INSERT_PRODUCT, rows);
+                    rows.clear();
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT, rows);
+            products = properties.products();
+        }
+
+        void seedClients(int count) {
+            for(int i = 0; i < count; i++) {
+                seedClient();
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_USER, userRows);
+            jdbcTemplate.batchUpdate(INSERT_CLIENT, clientRows);
+            jdbcTemplate.batchUpdate(INSERT_ORDER, orderRows);
+            jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, itemRows);
+            jdbcTemplate.batchUpdate(INSERT_PAYMENT, paymentRows);
+
+            users += userRows.size();
+            orders += orderRows.size();
+            items += itemRows.size();
+            payments += paymentRows.size();
+
+            userRows.clear();
+            clientRows.clear();
+            orderRows.clear();
+            itemRows.clear();
+            paymentRows.clear();
+        }
+
+        private void seedClient() {
+            long clientId = userIds.next();
+            Client client = Client.builder()
+                    .id(clientId)
+                    .tier(CustomerTier.BASIC)
+                    .totalOrders(0)
+                    .totalSpent(BigDecimal.ZERO)
+                    .build();
+
+            List<OrderStatus> statuses = orderStatuses(tierMix.pick(random));
+            List<LocalDateTime> dates = new ArrayList<>();
+            long historyMinutes = Duration.between(now.minusMonths(properties.historyMonths()), now).toMinutes();
+            for(int i = 0; i < statuses.size(); i++) {
+                dates.add(now.minusMinutes(random.nextLong(historyMinutes)));
+            }
+            dates.sort(null);
+
+            for(int i = 0; i < statuses.size(); i++) {
+                seedOrder(client, statuses.get(i), dates.get(i));
+            }
+
+            LocalDateTime createdAt = dates.isEmpty()
+                    ? now.minusDays(random.nextInt(30 * properties.historyMonths()))
+                    : dates.get(0).minusDays(random.nextInt(30));
+
+            userRows.add(new Object[]{clientId, "bulk_client_" + clientId, passwordHash, UserRole.CLIENT.name(), "CLIENT", createdAt, createdAt});
+            clientRows.add(new Object[]{clientId, "Client " + clientId, client.getTier().ordinal(), client.getTotalOrders(),
+                    client.getTotalSpent(),
+                    dates.isEmpty() ? null : dates.get(0).toLocalDate(),
+                    dates.isEmpty() ? null : dates.get(dates.size() - 1).toLocalDate()});
+        }
+
+        /** Confirmed orders sized so the client lands in the target tier, plus a few non-confirmed ones. */
+        private List<OrderStatus> orderStatuses(CustomerTier targetTier) {
+            int confirmed = switch (targetTier) {
+                case BASIC -> random.nextInt(3);
+                case SLIVER -> 3 + random.nextInt(7);
+                case GOLD -> 10 + random.nextInt(10);
+                case PLATINUM -> 20 + random.nextInt(16);
+            };
+            int others = random.nextInt(confirmed / 3 + 2);
+
+            List<OrderStatus> statuses = new ArrayList<>();
+            for(int i = 0; i < confirmed; i++) statuses.add(OrderStatus.CONFIRMED);
+            for(int i = 0; i < others; i++) statuses.add(statusMix.pick(random));
+            Collections.shuffle(statuses, random);
+            return statuses;
+        }
+
+        private void seedOrder(Client client, OrderStatus status, LocalDateTime createdAt) {
+            long orderId = orderIds.next();
+
+            // skewed towards small baskets
+            double u = random.nextDouble();
+            int lines = 1 + (int) (u * u * properties.maxLinesPerOrder());
+            BigDecimal subTotal = BigDecimal.ZERO;
+            for(int line = 0; line < lines; line++) {
+                int rank = productPopularity.sample(random);
+                int quantity = 1 + random.nextInt(5);
+                BigDecimal unitPrice = priceByRank[rank];
+
+                itemRows.add(new Object[]{itemIds.next(), orderId, productIdByRank[rank], quantity, unitPrice, createdAt, createdAt});
+                subTotal = subTotal.add(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+            }
+
+            String promoCode = random.nextInt(10) == 0 ? promoCode() : null;
+            PriceBreakdown breakdown = pricingEngine.price(client, subTotal, promoCode);
+            BigDecimal remaining = seedPayments(orderId, status, breakdown.totalAmount(), createdAt);
+
+            orderRows.add(new Object[]{orderId, client.getId(), status.name(), promoCode, breakdown.subTotal(),
+                    breakdown.discountAmount(), breakdown.taxAmount(), breakdown.totalAmount(), remaining, createdAt, createdAt});
+
+            if(status == OrderStatus.CONFIRMED) {
+                client.updateStats(breakdown.totalAmount());
+            }
+        }
+
+        /** Confirmed orders are paid in full, pending ones partially; returns the remaining amount. */
+        private BigDecimal seedPayments(long orderId, OrderStatus status, BigDecimal total, LocalDateTime orderDate) {
+            BigDecimal toPay;
+            if(status == OrderStatus.CONFIRMED) {
+                toPay = total;
+            } else if(status == OrderStatus.PENDING && random.nextDouble() < properties.partialPaymentRate()) {
+                toPay = total.multiply(BigDecimal.valueOf(20 + random.nextInt(71))).divide(HUNDRED, 2, RoundingMode.DOWN);
+            } else {
+                return total;
+            }
+
+            int installments = 1 + random.nextInt(status == OrderStatus.CONFIRMED ? 2 : 3);
+            BigDecimal paid = BigDecimal.ZERO;
+            for(int i = 0; i < installments; i++) {
+                BigDecimal amount = i == installments - 1
+                        ? toPay.subtract(paid)
+                        : toPay.divide(BigDecimal.valueOf(installments), 2, RoundingMode.DOWN);
+                LocalDateTime paidAt = orderDate.plusDays(i * 7L + random.nextInt(7));
+                seedPayment(orderId, status, amount, paidAt);
+                paid = paid.add(amount);
+            }
+
+            return total.subtract(paid);
+        }
+
+        private void seedPayment(long orderId, OrderStatus status, BigDecimal amount, LocalDateTime paidAt) {
+            PaymentMethod method = paymentMethodMix.pick(random);
+            if(method == PaymentMethod.ESPECES && amount.compareTo(CASH_LIMIT) > 0) {
+                method = PaymentMethod.VIREMENT;
+            }
+
+            long paymentId = paymentIds.next();
+            boolean cleared = method == PaymentMethod.ESPECES || status == OrderStatus.CONFIRMED;
+            String bankName = method == PaymentMethod.ESPECES ? null : BANKS[random.nextInt(BANKS.length)];
+            String prefix = switch (method) {
+                case ESPECES -> "ESP-";
+                case VIREMENT -> "VIR-";
+                case CHEQUE -> "CHQ-";
+            };
+
+            paymentRows.add(new Object[]{paymentId, orderId, amount, method.name(),
+                    (cleared ? PaymentStatus.ENCAISSE : PaymentStatus.EN_ATTENTE).name(),
+                    prefix + paymentId, bankName,
+                    method == PaymentMethod.CHEQUE ? paidAt.toLocalDate().plusDays(30) : null,
+                    cleared ? paidAt : null, paidAt, paidAt});
+        }
+
+        private String promoCode() {
+            StringBuilder code = new StringBuilder("PROMO-");
+            for(int i = 0; i < 4; i++) {
+                code.append(PROMO_ALPHABET.charAt(random.nextInt(PROMO_ALPHABET.length())));
+            }
+            return code.toString();
+        }
+    }
+}
@@ -43,11 +43,19 @@ public class DataInitializer implements CommandLineRunner {
     private final OrderRepository orderRepository;
     private final PaymentRepository paymentRepository;
     private final PasswordUtil passwordUtil;
+    private final SeedProperties seedProperties;
+    private final BulkDataGenerator bulkDataGenerator;
 
 
     @Override
     public void run(String... args) throws Exception {
         seedUsers();
+
+        if(this.seedProperties.mode() == SeedMode.BULK) {
+            this.bulkDataGenerator.generate();
+            return;
+        }
+
         seedClients();
         seedProducts();
         seedOrders();
@@ -509,18 +517,7 @@ public class DataInitializer implements CommandLineRunner {
     }
 
     private void recalculateTier(Client client) {
-        double spent = client.getTotalSpent().doubleValue();
-        int orders = client.getTotalOrders();
-
-        if (orders >= 20 || spent >= 15000) {
-            client.setTier(CustomerTier.PLATINUM);
-        } else if (orders >= 10 || spent >= 5000) {
-            client.setTier(CustomerTier.GOLD);
-        } else if (orders >= 3 || spent >= 1000) {
-            client.setTier(CustomerTier.SLIVER);
-        } else {
-            client.setTier(CustomerTier.BASIC);
-        }
+        client.setTier(CustomerTier.forStats(client.getTotalOrders(), client.getTotalSpent()));
     }
 
     private Payment createPayment(Order order, BigDecimal amount, PaymentMethod method,
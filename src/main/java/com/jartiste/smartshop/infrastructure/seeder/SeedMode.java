@@ -0,0 +1,6 @@
+package com.jartiste.smartshop.infrastructure.seeder;
+
+public enum SeedMode {
+    FIXED,
+    BULK
+}
@@ -0,0 +1,54 @@
+package com.jartiste.smartshop.infrastructure.seeder;
+
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.OrderStatus;
+import com.jartiste.smartshop.domain.enums.PaymentMethod;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * {@code smartshop.seed.*}: which dataset {@link DataInitializer} writes on startup, and the
+ * shape of the synthetic dataset in {@code bulk} mode.
+ */
+@ConfigurationProperties(prefix = "smartshop.seed")
+public record SeedProperties(SeedMode mode, Bulk bulk) {
+
+    public SeedProperties {
+        if(mode == null) mode = SeedMode.FIXED;
+        if(bulk == null) bulk = new Bulk(0, 0, 0, 0, 0, 0, 0, 0, null, null, null, null);
+    }
+
+    public record Bulk(
+            int clients,
+            int products,
+            int maxLinesPerOrder,
+            double zipfExponent,
+            int historyMonths,
+            double partialPaymentRate,
+            int batchSize,
+            long randomSeed,
+            String password,
+            Map<CustomerTier, Integer> tierMix,
+            Map<OrderStatus, Integer> statusMix,
+            Map<PaymentMethod, Integer> paymentMethodMix) {
+
+        public Bulk {
+            if(clients <= 0) clients = 100_000;
+            if(products <= 0) products = 10_000;
+            if(maxLinesPerOrder <= 0) maxLinesPerOrder = 8;
+            if(zipfExponent <= 0) zipfExponent = 1.1;
+            if(historyMonths <= 0) historyMonths = 24;
+            if(partialPaymentRate <= 0) partialPaymentRate = 0.5;
+            if(batchSize <= 0) batchSize = 1_000;
+            if(randomSeed == 0) randomSeed = 42;
+            if(password == null) password = "client123";
+            if(tierMix == null || tierMix.isEmpty()) tierMix = Map.of(
+                    CustomerTier.BASIC, 60, CustomerTier.SLIVER, 25, CustomerTier.GOLD, 10, CustomerTier.PLATINUM, 5);
+            if(statusMix == null || statusMix.isEmpty()) statusMix = Map.of(
+                    OrderStatus.PENDING, 50, OrderStatus.CANCELED, 35, OrderStatus.REJECTED, 15);
+            if(paymentMethodMix == null || paymentMethodMix.isEmpty()) paymentMethodMix = Map.of(
+                    PaymentMethod.ESPECES, 40, PaymentMethod.VIREMENT, 40, PaymentMethod.CHEQUE, 20);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.jartiste.smartshop.infrastructure.seeder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/** Picks values with probability proportional to their configured weight. */
+final class WeightedPicker<T extends Comparable<T>> {
+
+    private final List<T> values = new ArrayList<>();
+    private final int[] cumulative;
+
+    WeightedPicker(Map<T, Integer> weights) {
+        // sorted so that the same seed always gives the same dataset
+        Map<T, Integer> sorted = new TreeMap<>(weights);
+        cumulative = new int[sorted.size()];
+
+        int total = 0;
+        for(Map.Entry<T, Integer> entry : sorted.entrySet()) {
+            total += Math.max(0, entry.getValue());
+            cumulative[values.size()] = total;
+            values.add(entry.getKey());
+        }
+
+        if(total == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+    }
+
+    T pick(Random random) {
+        int target = random.nextInt(cumulative[cumulative.length - 1]);
+        for(int i = 0; i < cumulative.length; i++) {
+            if(target < cumulative[i]) {
+                return values.get(i);
+            }
+        }
+        return values.get(values.size() - 1);
+    }
+}
@@ -0,0 +1,26 @@
+package com.jartiste.smartshop.infrastructure.seeder;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/** Samples ranks 0..n-1 where rank k has weight 1 / (k + 1)^exponent. */
+final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int size, double exponent) {
+        cumulative = new double[size];
+
+        double total = 0;
+        for(int k = 0; k < size; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+    }
+
+    int sample(Random random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+}
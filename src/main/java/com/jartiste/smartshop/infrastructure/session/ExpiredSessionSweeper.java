@@ -0,0 +1,51 @@
+package com.jartiste.smartshop.infrastructure.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes expired JDBC sessions in bounded batches, each its own short statement, instead of
+ * Spring Session's single unbounded delete, so a large backlog never holds long locks on the
+ * session table. Every node runs it; concurrent sweeps simply find fewer rows.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "smartshop.session.store", havingValue = "jdbc", matchIfMissing = true)
+public class ExpiredSessionSweeper {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final String deleteBatchSql;
+
+    public ExpiredSessionSweeper(JdbcTemplate jdbcTemplate,
+                                 @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String tableName,
+                                 @Value("${smartshop.session.sweep-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        // attribute rows go with their session through ON DELETE CASCADE
+        this.deleteBatchSql = "DELETE FROM " + tableName + " WHERE PRIMARY_ID IN (" +
+                "SELECT PRIMARY_ID FROM " + tableName + " WHERE EXPIRY_TIME < ? ORDER BY EXPIRY_TIME LIMIT ?)";
+    }
+
+    @Scheduled(fixedDelayString = "${smartshop.session.sweep-interval:PT1M}", initialDelayString = "${smartshop.session.sweep-interval:PT1M}")
+    public void sweep() {
+        int total = sweep(System.currentTimeMillis());
+        if(total > 0) {
+            log.debug("Removed {} expired sessions", total);
+        }
+    }
+
+    int sweep(long now) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = this.jdbcTemplate.update(this.deleteBatchSql, now, this.batchSize);
+            total += deleted;
+        } while (deleted == this.batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,67 @@
+package com.jartiste.smartshop.infrastructure.session;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes session attributes as {@code {"@class": ..., "value": ...}} JSON instead of Java
+ * serialization: readable in the database and not tied to the class layout of one build.
+ * Only JDK value types and application classes are read back.
+ */
+public class JsonSessionAttributeConverter implements GenericConverter {
+
+    private static final String CLASS = "@class";
+    private static final String VALUE = "value";
+    private static final List<String> ALLOWED_PACKAGES = List.of("java.lang.", "java.time.", "com.jartiste.smartshop.");
+
+    private final ObjectMapper objectMapper;
+
+    public JsonSessionAttributeConverter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Set<ConvertiblePair> getConvertibleTypes() {
+        return Set.of(new ConvertiblePair(Object.class, byte[].class), new ConvertiblePair(byte[].class, Object.class));
+    }
+
+    @Override
+    public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+        if(null == source) {
+            return null;
+        }
+
+        try {
+            if(source instanceof byte[] bytes) {
+                return read(bytes);
+            }
+
+            ObjectNode node = this.objectMapper.createObjectNode();
+            node.put(CLASS, source.getClass().getName());
+            node.set(VALUE, this.objectMapper.valueToTree(source));
+            return this.objectMapper.writeValueAsBytes(node);
+        } catch (IOException | ClassNotFoundException | IllegalArgumentException e) {
+            throw new ConversionFailedException(sourceType, targetType, source, e);
+        }
+    }
+
+    private Object read(byte[] bytes) throws IOException, ClassNotFoundException {
+        JsonNode node = this.objectMapper.readTree(bytes);
+        String className = node.path(CLASS).asText();
+
+        if(ALLOWED_PACKAGES.stream().noneMatch(className::startsWith)) {
+            throw new IllegalArgumentException("Session attribute type not allowed: " + className);
+        }
+
+        Class<?> type = Class.forName(className, false, JsonSessionAttributeConverter.class.getClassLoader());
+        return this.objectMapper.treeToValue(node.get(VALUE), type);
+    }
+}
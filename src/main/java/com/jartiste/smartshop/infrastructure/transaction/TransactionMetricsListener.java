@@ -0,0 +1,70 @@
+package com.jartiste.smartshop.infrastructure.transaction;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every physical transaction of the application's transaction manager, from begin to commit
+ * or rollback, as {@code smartshop.transaction.duration} tagged with the method that started it
+ * ({@code OrderServiceImpl.createOrder}), {@code readonly} and {@code outcome}. That is how long the
+ * operation held its connection. Calls joining a running transaction are part of its time.
+ */
+@Component
+public class TransactionMetricsListener implements TransactionExecutionListener {
+
+    private static final String UNNAMED = "unnamed";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TransactionExecution, Long> starts = new ConcurrentHashMap<>();
+
+    public TransactionMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if(null == beginFailure) {
+            this.starts.put(transaction, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        record(transaction, null == commitFailure ? "commit" : "failed");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        record(transaction, "rollback");
+    }
+
+    private void record(TransactionExecution transaction, String outcome) {
+        Long start = this.starts.remove(transaction);
+        if(null == start) {
+            return;
+        }
+        Timer.builder("smartshop.transaction.duration")
+                .tag("method", method(transaction.getTransactionName()))
+                .tag("readonly", String.valueOf(transaction.isReadOnly()))
+                .tag("outcome", outcome)
+                .register(this.meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /** {@code com.example.FooServiceImpl.bar} becomes {@code FooServiceImpl.bar}. */
+    static String method(String transactionName) {
+        if(null == transactionName || transactionName.isEmpty()) {
+            return UNNAMED;
+        }
+        int methodDot = transactionName.lastIndexOf('.');
+        int classDot = methodDot > 0 ? transactionName.lastIndexOf('.', methodDot - 1) : -1;
+        return transactionName.substring(classDot + 1);
+    }
+}
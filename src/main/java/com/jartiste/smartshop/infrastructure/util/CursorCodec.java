@@ -0,0 +1,111 @@
+package com.jartiste.smartshop.infrastructure.util;
+
+import com.jartiste.smartshop.domain.exception.ValidationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns keyset scroll positions into opaque continuation tokens and back. Tokens only carry
+ * the seek keys of the last row returned: {@code id}, {@code createdAt} and {@code id}, or a search
+ * score and {@code id}.
+ */
+@Component
+public class CursorCodec {
+
+    private static final String ID = "id";
+    private static final String CREATED_AT = "createdAt";
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR = "Invalid cursor";
+
+    public ScrollPosition decodeId(String cursor) {
+        if(cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            return ScrollPosition.forward(Map.of(ID, Long.parseLong(decode(cursor))));
+        } catch (NumberFormatException e) {
+            throw new ValidationException(INVALID_CURSOR);
+        }
+    }
+
+    public ScrollPosition decodeCreatedAtAndId(String cursor) {
+        if(cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String[] parts = decode(cursor).split("\\" + SEPARATOR);
+        if(parts.length != 2) {
+            throw new ValidationException(INVALID_CURSOR);
+        }
+
+        try {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(CREATED_AT, LocalDateTime.parse(parts[0]));
+            keys.put(ID, Long.parseLong(parts[1]));
+            return ScrollPosition.forward(keys);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new ValidationException(INVALID_CURSOR);
+        }
+    }
+
+    /** The score and id of the last search hit returned, or null for the first page. */
+    public ScoreAndId decodeScoreAndId(String cursor) {
+        if(cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        String[] parts = decode(cursor).split("\\" + SEPARATOR);
+        if(parts.length != 2) {
+            throw new ValidationException(INVALID_CURSOR);
+        }
+
+        try {
+            return new ScoreAndId(Float.parseFloat(parts[0]), Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new ValidationException(INVALID_CURSOR);
+        }
+    }
+
+    public String encodeScoreAndId(float score, long id) {
+        return encode(score + SEPARATOR + id);
+    }
+
+    public String nextCursor(Window<?> window) {
+        if(!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Object> keys = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+        String raw = keys.containsKey(CREATED_AT)
+                ? keys.get(CREATED_AT) + SEPARATOR + keys.get(ID)
+                : String.valueOf(keys.get(ID));
+
+        return encode(raw);
+    }
+
+    private String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(INVALID_CURSOR);
+        }
+    }
+
+    /** Float scores print and parse back to the same value, so the seek is exact. */
+    public record ScoreAndId(float score, long id) {
+    }
+}
@@ -1,16 +1,40 @@
 package com.jartiste.smartshop.infrastructure.util;
 
 import org.mindrot.jbcrypt.BCrypt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class PasswordUtil {
 
+    private static final int DEFAULT_COST = 10;
+
+    private final int cost;
+
+    public PasswordUtil() {
+        this(DEFAULT_COST);
+    }
+
+    @Autowired
+    public PasswordUtil(@Value("${smartshop.auth.bcrypt-cost:10}") int cost) {
+        this.cost = cost;
+    }
+
     public String hashPassword(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt());
+        return BCrypt.hashpw(password, BCrypt.gensalt(this.cost));
     }
 
     public boolean checkPassword(String plainPassword, String hashedPassword) {
         return BCrypt.checkpw(plainPassword, hashedPassword);
     }
+
+    /** Whether the hash was produced with another cost than the configured one ({@code $2a$10$...}). */
+    public boolean needsRehash(String hashedPassword) {
+        try {
+            return Integer.parseInt(hashedPassword.substring(4, 6)) != this.cost;
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            return true;
+        }
+    }
 }
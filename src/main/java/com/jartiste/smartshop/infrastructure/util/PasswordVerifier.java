@@ -0,0 +1,131 @@
+package com.jartiste.smartshop.infrastructure.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jartiste.smartshop.domain.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt work on a small bounded pool so a login storm cannot take every request thread.
+ * When the pool and its queue are full the login is refused with a 503 right away. Successful
+ * checks are remembered for a short time under an HMAC of username, password and stored hash,
+ * so a repeated login skips the hash and a password change naturally misses the cache.
+ */
+@Component
+public class PasswordVerifier {
+
+    private static final String HMAC = "HmacSHA256";
+
+    private final PasswordUtil passwordUtil;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Cache<String, Boolean> verified;
+    private final SecretKeySpec digestKey;
+
+    public PasswordVerifier(PasswordUtil passwordUtil,
+                            @Value("${smartshop.auth.verification.threads:0}") int threads,
+                            @Value("${smartshop.auth.verification.queue-capacity:64}") int queueCapacity,
+                            @Value("${smartshop.auth.verification.timeout-ms:5000}") long timeoutMillis,
+                            @Value("${smartshop.auth.verification.cache-spec:maximumSize=10000,expireAfterWrite=5m}") String cacheSpec) {
+        this.passwordUtil = passwordUtil;
+        this.timeoutMillis = timeoutMillis;
+        this.verified = Caffeine.from(cacheSpec).build();
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.digestKey = new SecretKeySpec(key, HMAC);
+    }
+
+    public boolean verify(String username, String password, String hashedPassword) {
+        String key = digest(username, password, hashedPassword);
+        if(null != this.verified.getIfPresent(key)) {
+            return true;
+        }
+
+        boolean matches = execute(() -> this.passwordUtil.checkPassword(password, hashedPassword));
+        if(matches) {
+            this.verified.put(key, Boolean.TRUE);
+        }
+        return matches;
+    }
+
+    public String hash(String password) {
+        return execute(() -> this.passwordUtil.hashPassword(password));
+    }
+
+    <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = this.executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many concurrent logins, please retry shortly");
+        }
+
+        try {
+            return future.get(this.timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceUnavailableException("Password verification timed out, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password verification interrupted");
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    int queuedTasks() {
+        return this.executor.getQueue().size();
+    }
+
+    private String digest(String username, String password, String hashedPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(this.digestKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(password.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return HexFormat.of().formatHex(mac.doFinal(hashedPassword.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        this.executor.shutdownNow();
+    }
+}
@@ -0,0 +1,36 @@
+package com.jartiste.smartshop.infrastructure.util;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Hands out ids from the same sequences as the entities, for rows written with plain JDBC. Each
+ * sequence call reserves the block (value - 50, value], which is how Hibernate's pooled optimizer
+ * reads it, so ids taken here never collide with ids allocated by the application.
+ */
+public class SequenceIdAllocator {
+
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueSql;
+    private long next = 1;
+    private long hi = 0;
+
+    public SequenceIdAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory, String sequenceName) {
+        this.jdbcTemplate = jdbcTemplate;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.nextValueSql = dialect.getSequenceSupport().getSequenceNextValString(sequenceName);
+    }
+
+    public synchronized long next() {
+        if(next > hi) {
+            Long value = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+            hi = value == null ? 0 : value;
+            next = Math.max(1, hi - SEQUENCE_INCREMENT + 1);
+        }
+        return next++;
+    }
+}
@@ -2,6 +2,7 @@ package com.jartiste.smartshop.presentation.advice;
 
 
 import com.jartiste.smartshop.domain.exception.*;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -109,4 +110,34 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
         return problemDetail;
     }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException ex, WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT,
+                ex.getMessage()
+        );
+
+        problemDetail.setTitle("Concurrent Modification");
+        problemDetail.setDetail("The resource was modified concurrently, please retry");
+        problemDetail.setProperty(PATH, request.getContextPath());
+        problemDetail.setProperty(TIMESTAMP, Instant.now());
+
+        return problemDetail;
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ProblemDetail handleServiceUnavailable(ServiceUnavailableException ex, WebRequest request) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage()
+        );
+
+        problemDetail.setTitle("Service Unavailable");
+        problemDetail.setDetail("Service Unavailable: " + ex.getMessage());
+        problemDetail.setProperty(PATH, request.getContextPath());
+        problemDetail.setProperty(TIMESTAMP, Instant.now());
+
+        return problemDetail;
+    }
 }
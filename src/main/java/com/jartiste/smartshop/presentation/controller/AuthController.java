@@ -10,7 +10,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -29,7 +29,7 @@ public class AuthController {
 
     @Operation(
             summary = "User login",
-            description = "Authenticate user with username and password, creates a session"
+            description = "Authenticate user with username and password, creates a session or, in token mode, returns a signed bearer token"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -41,11 +41,16 @@ public class AuthController {
                     responseCode = "401",
                     description = "Invalid credentials",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Too many concurrent logins",
+                    content = @Content
             )
     })
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpSession session) {
-        AuthResponse response = this.authService.login(request, session);
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        AuthResponse response = this.authService.login(request, httpRequest);
         return ResponseEntity.ok(response);
     }
 
@@ -60,8 +65,8 @@ public class AuthController {
             )
     })
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(HttpSession session) {
-        this.authService.logout(session);
+    public ResponseEntity<Void> logout(HttpServletRequest httpRequest) {
+        this.authService.logout(httpRequest);
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,11 +1,15 @@
 package com.jartiste.smartshop.presentation.controller;
 
 import com.jartiste.smartshop.application.service.IClientService;
+import com.jartiste.smartshop.application.service.IClientStatisticsService;
 import com.jartiste.smartshop.domain.enums.UserRole;
 import com.jartiste.smartshop.domain.exception.ForbiddenException;
+import com.jartiste.smartshop.infrastructure.security.AuthenticatedUser;
 import com.jartiste.smartshop.presentation.annotation.RequireRole;
 import com.jartiste.smartshop.presentation.dto.request.ClientRequest;
 import com.jartiste.smartshop.presentation.dto.response.ClientResponse;
+import com.jartiste.smartshop.presentation.dto.response.ClientStatsRebuildResponse;
+import com.jartiste.smartshop.presentation.dto.response.CursorPageResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,7 +17,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -31,6 +35,7 @@ import java.net.URI;
 public class ClientController {
 
     private final IClientService clientService;
+    private final IClientStatisticsService clientStatisticsService;
 
     @Operation(
             summary = "Create a new client",
@@ -87,6 +92,74 @@ public class ClientController {
         return ResponseEntity.ok(clientResponses);
     }
 
+    @Operation(
+            summary = "Scroll all clients",
+            description = "Retrieve clients ordered by ID using an opaque continuation cursor, without a total count (Admin only)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved clients",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied",
+                    content = @Content
+            )
+    })
+    @GetMapping("/cursor")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<CursorPageResponse<ClientResponse>> getAllClientsByCursor(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, up to 100") @RequestParam(defaultValue = "10") int size
+    ) {
+        CursorPageResponse<ClientResponse> clientResponses = this.clientService.getAllClients(cursor, size);
+        return ResponseEntity.ok(clientResponses);
+    }
+
+    @Operation(
+            summary = "Search clients by name",
+            description = "Fuzzy search over client names for the back office: substrings and near misses match, best matches first (Admin only)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Best matches first",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Search text shorter than 3 characters, invalid size or cursor",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Search index still loading after a restart",
+                    content = @Content
+            )
+    })
+    @GetMapping("/search")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<CursorPageResponse<ClientResponse>> searchClients(
+            @Parameter(description = "Part of the client name, at least 3 characters, e.g. \"atlas\"") @RequestParam String q,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, up to 100") @RequestParam(defaultValue = "10") int size
+    ) {
+        CursorPageResponse<ClientResponse> clientResponses = this.clientService.searchClients(q, cursor, size);
+        return ResponseEntity.ok(clientResponses);
+    }
+
     @Operation(
             summary = "Get client by ID",
             description = "Retrieve client details by ID (Admin or own profile)"
@@ -112,9 +185,9 @@ public class ClientController {
     @RequireRole({UserRole.ADMIN, UserRole.CLIENT})
     public ResponseEntity<ClientResponse> getClient(
             @Parameter(description = "Client ID") @PathVariable Long id,
-            HttpSession session
+            HttpServletRequest httpRequest
     ) {
-        validateAccess(id, session);
+        validateAccess(id, httpRequest);
         ClientResponse response = this.clientService.getClientById(id);
         return ResponseEntity.ok(response);
     }
@@ -145,9 +218,9 @@ public class ClientController {
     public ResponseEntity<ClientResponse> updateClient(
             @Parameter(description = "Client ID") @PathVariable Long id,
             @Valid @RequestBody ClientRequest request,
-            HttpSession session
+            HttpServletRequest httpRequest
     ) {
-        validateAccess(id, session);
+        validateAccess(id, httpRequest);
         ClientResponse response = this.clientService.updateClient(id, request);
         return ResponseEntity.ok(response);
     }
@@ -179,9 +252,64 @@ public class ClientController {
         return ResponseEntity.noContent().build();
     }
 
-    private void validateAccess(Long targetId, HttpSession session) {
-        UserRole role = (UserRole)  session.getAttribute("USER_ROLE");
-        Long currentUserId = (Long) session.getAttribute("USER_ID");
+    @Operation(
+            summary = "Rebuild client statistics",
+            description = "Recompute total orders, total spent, order dates and tier of every client from the orders table in the background. An unfinished previous run is resumed (Admin only)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Rebuild started",
+                    content = @Content(schema = @Schema(implementation = ClientStatsRebuildResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "A rebuild is already running",
+                    content = @Content
+            )
+    })
+    @PostMapping("/statistics/rebuild")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<ClientStatsRebuildResponse> rebuildStatistics() {
+        ClientStatsRebuildResponse response = this.clientStatisticsService.startRebuild();
+        return ResponseEntity.accepted().location(URI.create("/api/clients/statistics/rebuild")).body(response);
+    }
+
+    @Operation(
+            summary = "Get client statistics rebuild progress",
+            description = "Status and progress of the latest client statistics rebuild (Admin only)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Latest rebuild",
+                    content = @Content(schema = @Schema(implementation = ClientStatsRebuildResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No rebuild has been run",
+                    content = @Content
+            )
+    })
+    @GetMapping("/statistics/rebuild")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<ClientStatsRebuildResponse> getStatisticsRebuild() {
+        return ResponseEntity.ok(this.clientStatisticsService.getLatestRebuild());
+    }
+
+    private void validateAccess(Long targetId, HttpServletRequest httpRequest) {
+        UserRole role = (UserRole)  httpRequest.getAttribute(AuthenticatedUser.USER_ROLE);
+        Long currentUserId = (Long) httpRequest.getAttribute(AuthenticatedUser.USER_ID);
 
         if(UserRole.ADMIN.equals(role)) {
             return;
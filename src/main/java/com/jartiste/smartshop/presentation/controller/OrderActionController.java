@@ -17,6 +17,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -65,6 +66,38 @@ public class OrderActionController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Get order payments",
+            description = "Retrieve paginated payments of an order, oldest first (Admin only)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved payments",
+                    content = @Content(schema = @Schema(implementation = Page.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Negative page or page size outside 1..100",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied",
+                    content = @Content
+            )
+    })
+    @GetMapping("/{id}/payments")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<Page<PaymentResponse>> getPayments(
+            @Parameter(description = "Order ID") @PathVariable Long id,
+            @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size, up to 100") @RequestParam(defaultValue = "10") int size
+    ) {
+        Page<PaymentResponse> response = this.paymentService.getPaymentByOrder(id, page, size);
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(
             summary = "Confirm order",
             description = "Confirm a pending order (Admin only). Order must be fully paid."
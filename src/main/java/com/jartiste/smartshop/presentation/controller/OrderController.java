@@ -1,11 +1,17 @@
 package com.jartiste.smartshop.presentation.controller;
 
+import com.jartiste.smartshop.application.service.IOrderExportService;
 import com.jartiste.smartshop.application.service.IOrderService;
+import com.jartiste.smartshop.application.service.IOrderSubmissionService;
 import com.jartiste.smartshop.domain.enums.UserRole;
 import com.jartiste.smartshop.domain.exception.ForbiddenException;
+import com.jartiste.smartshop.infrastructure.export.ExportFormat;
+import com.jartiste.smartshop.infrastructure.security.AuthenticatedUser;
 import com.jartiste.smartshop.presentation.annotation.RequireRole;
 import com.jartiste.smartshop.presentation.dto.request.OrderRequest;
+import com.jartiste.smartshop.presentation.dto.response.CursorPageResponse;
 import com.jartiste.smartshop.presentation.dto.response.OrderResponse;
+import com.jartiste.smartshop.presentation.dto.response.OrderSubmissionResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,15 +19,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -30,6 +44,8 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final IOrderService orderService;
+    private final IOrderSubmissionService orderSubmissionService;
+    private final IOrderExportService orderExportService;
 
     @Operation(
             summary = "Create a new order",
@@ -59,12 +75,123 @@ public class OrderController {
     })
     @PostMapping
     @RequireRole({UserRole.ADMIN, UserRole.CLIENT})
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request, HttpSession session) {
-        validateClientAccess(request.ClientId(), session);
+    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request, HttpServletRequest httpRequest) {
+        validateClientAccess(request.ClientId(), httpRequest);
         OrderResponse response = this.orderService.createOrder(request);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @Operation(
+            summary = "Submit an order asynchronously",
+            description = "Queue an order for background processing. Retrying with the same Idempotency-Key returns the first submission instead of creating another order"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Order accepted, poll the status URL for the result",
+                    content = @Content(schema = @Schema(implementation = OrderSubmissionResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Missing or invalid Idempotency-Key",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Idempotency-Key already used for a different order",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Order queue is full",
+                    content = @Content
+            )
+    })
+    @PostMapping("/async")
+    @RequireRole({UserRole.ADMIN, UserRole.CLIENT})
+    public ResponseEntity<OrderSubmissionResponse> submitOrder(
+            @Valid @RequestBody OrderRequest request,
+            @Parameter(description = "Client generated key identifying this order across retries: 1 to 100 letters, digits, ., _, ~ or -")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletRequest httpRequest
+    ) {
+        validateClientAccess(request.ClientId(), httpRequest);
+        OrderSubmissionResponse response = this.orderSubmissionService.submitOrder(request, idempotencyKey);
+        return ResponseEntity.accepted()
+                .location(URI.create(response.statusUrl()))
+                .body(response);
+    }
+
+    @Operation(
+            summary = "Get an asynchronous order submission",
+            description = "Status of an order submitted through /api/orders/async, with the order id once created"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Submission found",
+                    content = @Content(schema = @Schema(implementation = OrderSubmissionResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Submission not found",
+                    content = @Content
+            )
+    })
+    @GetMapping("/client/{clientId}/submissions/{idempotencyKey}")
+    @RequireRole({UserRole.ADMIN, UserRole.CLIENT})
+    public ResponseEntity<OrderSubmissionResponse> getSubmission(
+            @Parameter(description = "Client ID") @PathVariable Long clientId,
+            @Parameter(description = "Idempotency-Key of the submission") @PathVariable String idempotencyKey,
+            HttpServletRequest httpRequest
+    ) {
+        validateClientAccess(clientId, httpRequest);
+        return ResponseEntity.ok(this.orderSubmissionService.getSubmission(clientId, idempotencyKey));
+    }
+
+    @Operation(
+            summary = "Export orders",
+            description = "Stream every order created between two dates (inclusive) with its items and payments, as CSV or NDJSON (Admin only)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Export streamed",
+                    content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid date range or format",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied",
+                    content = @Content
+            )
+    })
+    @GetMapping("/export")
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "First day, e.g. 2025-01-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "csv or ndjson") @RequestParam(defaultValue = "csv") String format
+    ) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = this.orderExportService.exportOrders(from, to, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders-" + from + "-" + to + "." + exportFormat.getExtension())
+                        .build().toString())
+                .body(body);
+    }
+
     @Operation(
             summary = "Get order by ID",
             description = "Retrieve order details by ID (Admin or order owner)"
@@ -90,10 +217,10 @@ public class OrderController {
     @RequireRole({UserRole.ADMIN, UserRole.CLIENT})
     public ResponseEntity<OrderResponse> getOrder(
             @Parameter(description = "Order ID") @PathVariable Long id,
-            HttpSession session
+            HttpServletRequest httpRequest
     ) {
         OrderResponse order = this.orderService.getOrderById(id);
-        validateClientAccess(order.clientId(), session);
+        validateClientAccess(order.clientId(), httpRequest);
         return ResponseEntity.ok(order);
     }
 
@@ -119,18 +246,52 @@ public class OrderController {
             @Parameter(description = "Client ID") @PathVariable Long clientId,
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
-            HttpSession session
+            HttpServletRequest httpRequest
     ) {
-        validateClientAccess(clientId, session);
+        validateClientAccess(clientId, httpRequest);
         Pageable pageable = PageRequest.of(page, size);
         Page<OrderResponse> response = this.orderService.getOrderByClient(clientId, pageable);
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "Scroll client order history",
+            description = "Retrieve a client's orders, newest first, using an opaque continuation cursor, without a total count (Admin or own orders)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved orders",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied",
+                    content = @Content
+            )
+    })
+    @GetMapping("/client/{clientId}/cursor")
+    @RequireRole({UserRole.ADMIN, UserRole.CLIENT})
+    public ResponseEntity<CursorPageResponse<OrderResponse>> getClientHistoryByCursor(
+            @Parameter(description = "Client ID") @PathVariable Long clientId,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, up to 100") @RequestParam(defaultValue = "10") int size,
+            HttpServletRequest httpRequest
+    ) {
+        validateClientAccess(clientId, httpRequest);
+        CursorPageResponse<OrderResponse> response = this.orderService.getOrderByClient(clientId, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
 
-    private void validateClientAccess(Long targetClientId, HttpSession session) {
-        UserRole role = (UserRole) session.getAttribute("USER_ROLE");
-        Long currentUserId = (Long) session.getAttribute("USER_ID");
+    private void validateClientAccess(Long targetClientId, HttpServletRequest httpRequest) {
+        UserRole role = (UserRole) httpRequest.getAttribute(AuthenticatedUser.USER_ROLE);
+        Long currentUserId = (Long) httpRequest.getAttribute(AuthenticatedUser.USER_ID);
 
         if(UserRole.ADMIN.equals(role)) {
             return;
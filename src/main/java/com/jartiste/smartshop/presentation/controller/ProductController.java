@@ -1,12 +1,17 @@
 package com.jartiste.smartshop.presentation.controller;
 
+import com.jartiste.smartshop.application.service.IProductImportService;
 import com.jartiste.smartshop.application.service.IProductService;
 import com.jartiste.smartshop.domain.enums.UserRole;
+import com.jartiste.smartshop.infrastructure.importer.ImportFormat;
 import com.jartiste.smartshop.presentation.annotation.RequireRole;
 import com.jartiste.smartshop.presentation.dto.request.ProductRequest;
+import com.jartiste.smartshop.presentation.dto.response.CursorPageResponse;
+import com.jartiste.smartshop.presentation.dto.response.ProductImportResponse;
 import com.jartiste.smartshop.presentation.dto.response.ProductResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,10 +22,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
@@ -28,6 +38,7 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final IProductService productService;
+    private final IProductImportService productImportService;
 
     @Operation(
             summary = "Get all active products",
@@ -56,6 +67,76 @@ public class ProductController {
         return ResponseEntity.ok(responses);
     }
 
+    @Operation(
+            summary = "Scroll active products",
+            description = "Retrieve active (non-deleted) products ordered by ID using an opaque continuation cursor, without a total count"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Successfully retrieved products",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied",
+                    content = @Content
+            )
+    })
+    @GetMapping("/cursor")
+    @RequireRole({UserRole.ADMIN, UserRole.CLIENT})
+    public ResponseEntity<CursorPageResponse<ProductResponse>> getAllProductsByCursor(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, up to 100") @RequestParam(defaultValue = "10") int size
+    ) {
+        CursorPageResponse<ProductResponse> responses = this.productService.getAllActiveProduct(cursor, size);
+        return ResponseEntity.ok(responses);
+    }
+
+    @Operation(
+            summary = "Search products",
+            description = "Search active products by name, ignoring case and accents; the last word matches as a prefix, for autocomplete"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Best matches first",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProductResponse.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Missing search text, invalid limit or price range",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Search index still loading after a restart",
+                    content = @Content
+            )
+    })
+    @GetMapping("/search")
+    @RequireRole({UserRole.ADMIN, UserRole.CLIENT})
+    public ResponseEntity<List<ProductResponse>> searchProducts(
+            @Parameter(description = "Words of the product name, e.g. \"ecran sam\"") @RequestParam String q,
+            @Parameter(description = "Lowest price, inclusive") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest price, inclusive") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Only products with stock left") @RequestParam(defaultValue = "false") boolean inStock,
+            @Parameter(description = "Maximum number of results, up to 100") @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<ProductResponse> responses = this.productService.searchProducts(q, minPrice, maxPrice, inStock, limit);
+        return ResponseEntity.ok(responses);
+    }
+
     @Operation(
             summary = "Get product by ID",
             description = "Retrieve product details by ID"
@@ -114,6 +195,38 @@ public class ProductController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @Operation(
+            summary = "Import products",
+            description = "Create or update products by sku from a streamed CSV (header sku,name,price,stock) or NDJSON body; " +
+                    "invalid rows and deleted products are reported per line without stopping the import (Admin only)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import finished, see the per-row errors",
+                    content = @Content(schema = @Schema(implementation = ProductImportResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Missing CSV header or unsupported content type",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied",
+                    content = @Content
+            )
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @RequireRole(UserRole.ADMIN)
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) {
+        ProductImportResponse response = this.productImportService.importProducts(body, ImportFormat.fromContentType(contentType));
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(
             summary = "Update product",
             description = "Update product information (Admin only)"
@@ -3,6 +3,7 @@ package com.jartiste.smartshop.presentation.dto.request;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
 
@@ -15,6 +16,9 @@ public record ProductRequest(
 
         @NotNull(message = "Stock is Required")
         @Min(value = 1, message = "Stock can't be negative")
-        Integer stock
+        Integer stock,
+
+        @Size(max = 64, message = "sku is at most 64 characters")
+        String sku
 ) {
 }
@@ -11,6 +11,7 @@ public record AuthResponse(
         String username,
         String role,
         CustomerTier tier,
+        String token,
         String message
 ) {
 }
@@ -0,0 +1,21 @@
+package com.jartiste.smartshop.presentation.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.jartiste.smartshop.domain.enums.JobStatus;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ClientStatsRebuildResponse(
+        Long id,
+        JobStatus status,
+        Long processedClients,
+        Long totalClients,
+        Long lastClientId,
+        String error,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt
+) {
+}
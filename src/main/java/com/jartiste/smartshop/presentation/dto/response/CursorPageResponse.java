@@ -0,0 +1,10 @@
+package com.jartiste.smartshop.presentation.dto.response;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor) {
+}
@@ -0,0 +1,17 @@
+package com.jartiste.smartshop.presentation.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.jartiste.smartshop.domain.enums.SubmissionStatus;
+import lombok.Builder;
+
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderSubmissionResponse(
+        String idempotencyKey,
+        Long clientId,
+        SubmissionStatus status,
+        Long orderId,
+        String error,
+        String statusUrl
+) {
+}
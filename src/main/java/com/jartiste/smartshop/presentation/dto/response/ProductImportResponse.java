@@ -0,0 +1,19 @@
+package com.jartiste.smartshop.presentation.dto.response;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record ProductImportResponse(
+        long rows,
+        long created,
+        long updated,
+        long failed,
+        long rowsPerSecond,
+        // only the first smartshop.products.import.max-errors rejected rows are listed
+        List<RowError> errors
+) {
+    public record RowError(long line, String sku, String message) {
+    }
+}
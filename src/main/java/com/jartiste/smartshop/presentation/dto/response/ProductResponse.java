@@ -11,5 +11,6 @@ public record ProductResponse(
         String name,
         BigDecimal price,
         Integer stock,
-        Boolean deleted) {
+        Boolean deleted,
+        String sku) {
 }
@@ -0,0 +1,10 @@
+-- Indexes behind the hot queries checked at startup (smartshop.db.plan-check): order history
+-- and export by (created_at, id), items and payments by order, and the active catalog page.
+-- CONCURRENTLY keeps the tables writable while they build; Flyway runs this script outside a
+-- transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_client_created_at_id ON orders (client_id, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_orders_created_at_id ON orders (created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_item_order_id ON order_item (order_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payment_order_id ON payment (order_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_deleted_id ON product (deleted, id);
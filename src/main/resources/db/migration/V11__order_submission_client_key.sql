@@ -0,0 +1,11 @@
+-- Idempotency keys are unique per client rather than across all clients, and submissions get the
+-- PROCESSING status a worker claims them with. Hibernate-created databases hold the old key as a
+-- constraint, migrated ones as an index.
+
+ALTER TABLE order_submission DROP CONSTRAINT IF EXISTS order_submission_status_check;
+ALTER TABLE order_submission ADD CONSTRAINT order_submission_status_check
+    CHECK (status IN ('QUEUED', 'PROCESSING', 'COMPLETED', 'FAILED'));
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_order_submission_client_key ON order_submission (client_id, idempotency_key);
+ALTER TABLE order_submission DROP CONSTRAINT IF EXISTS uk_order_submission_idempotency_key;
+DROP INDEX IF EXISTS uk_order_submission_idempotency_key;
@@ -0,0 +1,3 @@
+-- Failed attempts of a submission, so retryable failures are retried a bounded number of times.
+
+ALTER TABLE order_submission ADD COLUMN IF NOT EXISTS attempts integer NOT NULL DEFAULT 0;
@@ -0,0 +1,90 @@
+-- Schema as Hibernate created it (ddl-auto: update) before migrations took over: the
+-- application's tables at the time, with IDENTITY ids and Hibernate's constraint names.
+-- Databases that already hold it are baselined at this version (spring.flyway.baseline-on-migrate)
+-- and only run the migrations after it, so everything added since belongs in a later script.
+
+CREATE TABLE users (
+    user_type varchar(31) NOT NULL,
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    created_at timestamp(6),
+    password varchar(255),
+    role varchar(255) CHECK (role IN ('ADMIN', 'CLIENT')),
+    updated_at timestamp(6),
+    username varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE admin (
+    id bigint NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE client (
+    first_order_date date,
+    last_order_date date,
+    nom varchar(255),
+    tier smallint CHECK (tier BETWEEN 0 AND 3),
+    total_orders integer,
+    total_spent numeric(38, 2),
+    id bigint NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE product (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    created_at timestamp(6),
+    deleted boolean,
+    name varchar(255),
+    price numeric(38, 2),
+    stock integer,
+    updated_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE orders (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    created_at timestamp(6),
+    discount_amount numeric(38, 2),
+    order_status varchar(255) CHECK (order_status IN ('PENDING', 'CONFIRMED', 'CANCELED', 'REJECTED')),
+    promo_code varchar(255),
+    remaining_amount numeric(38, 2),
+    sub_total numeric(38, 2),
+    tax_amount numeric(38, 2),
+    total_amount numeric(38, 2),
+    updated_at timestamp(6),
+    client_id bigint NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE order_item (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    created_at timestamp(6),
+    quantity integer,
+    unit_price numeric(38, 2),
+    updated_at timestamp(6),
+    order_id bigint,
+    product_id bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE payment (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    amount numeric(38, 2),
+    bank_name varchar(255),
+    cleared_date timestamp(6),
+    created_at timestamp(6),
+    due_date date,
+    payment_method varchar(255) CHECK (payment_method IN ('ESPECES', 'CHEQUE', 'VIREMENT')),
+    payment_status varchar(255) CHECK (payment_status IN ('EN_ATTENTE', 'ENCAISSE', 'REJETE')),
+    reference varchar(255),
+    updated_at timestamp(6),
+    order_id bigint,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE admin ADD CONSTRAINT FKqer4e53tfnl17s22ior7fcsv8 FOREIGN KEY (id) REFERENCES users;
+ALTER TABLE client ADD CONSTRAINT FK70dfjxvqnmgixqht3vea50voj FOREIGN KEY (id) REFERENCES users;
+ALTER TABLE order_item ADD CONSTRAINT FKt4dc2r9nbvbujrljv3e23iibt FOREIGN KEY (order_id) REFERENCES orders;
+ALTER TABLE order_item ADD CONSTRAINT FK551losx9j75ss5d6bfsqvijna FOREIGN KEY (product_id) REFERENCES product;
+ALTER TABLE orders ADD CONSTRAINT FK17yo6gry2nuwg2erwhbaxqbs9 FOREIGN KEY (client_id) REFERENCES client;
+ALTER TABLE payment ADD CONSTRAINT FKlouu98csyullos9k25tbpk4va FOREIGN KEY (order_id) REFERENCES orders;
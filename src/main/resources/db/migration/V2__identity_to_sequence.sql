@@ -0,0 +1,29 @@
+-- Moves primary keys from the IDENTITY columns of V1 to the pooled sequences used by the
+-- entities (allocationSize = 50); on a database Hibernate already switched it only moves the sequences.
+-- Each sequence is moved past MAX(id) plus one allocation block so the first pooled
+-- range never overlaps existing rows.
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) FROM users) + 50);
+
+ALTER TABLE product ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE product ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS product_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('product_seq', (SELECT COALESCE(MAX(id), 0) FROM product) + 50);
+
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE orders ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) FROM orders) + 50);
+
+ALTER TABLE order_item ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_item ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS order_item_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('order_item_seq', (SELECT COALESCE(MAX(id), 0) FROM order_item) + 50);
+
+ALTER TABLE payment ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE payment ALTER COLUMN id DROP DEFAULT;
+CREATE SEQUENCE IF NOT EXISTS payment_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('payment_seq', (SELECT COALESCE(MAX(id), 0) FROM payment) + 50);
@@ -0,0 +1,3 @@
+-- Every login and every client creation looks a user up by username.
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_username ON users (username);
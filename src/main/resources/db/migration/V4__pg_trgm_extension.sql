@@ -0,0 +1,4 @@
+-- Trigram operators and index classes for client search (V5). Needs a role allowed to create
+-- extensions, or the extension installed beforehand.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,6 @@
+-- Trigram index behind GET /api/clients/search (smartshop.clients.search.engine: trigram).
+-- Serves both the word-similarity operator (<%) and LIKE '%text%' on lower(nom), so a search
+-- reads the matching clients only instead of scanning the whole table. CONCURRENTLY keeps the
+-- table writable while the index builds; Flyway runs this script outside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_client_nom_trgm ON client USING gin (lower(nom) gin_trgm_ops);
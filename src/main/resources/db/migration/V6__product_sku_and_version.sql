@@ -0,0 +1,8 @@
+-- Product sku (catalog import upserts on it) and the version column of optimistic locking.
+-- Databases Hibernate updated after these fields were mapped may have them already.
+
+ALTER TABLE product ADD COLUMN IF NOT EXISTS sku varchar(64);
+ALTER TABLE product ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0;
+UPDATE product SET version = 0 WHERE version IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_product_sku ON product (sku);
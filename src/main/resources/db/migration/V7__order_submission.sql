@@ -0,0 +1,19 @@
+-- Orders accepted by the asynchronous endpoint (POST /api/orders/async), keyed by Idempotency-Key.
+
+CREATE SEQUENCE IF NOT EXISTS order_submission_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS order_submission (
+    id bigint NOT NULL,
+    client_id bigint NOT NULL,
+    created_at timestamp(6),
+    order_id bigint,
+    updated_at timestamp(6),
+    idempotency_key varchar(100) NOT NULL,
+    error_message varchar(500),
+    payload varchar(20000) NOT NULL,
+    status varchar(255) NOT NULL CHECK (status IN ('QUEUED', 'COMPLETED', 'FAILED')),
+    PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_order_submission_idempotency_key ON order_submission (idempotency_key);
+CREATE INDEX IF NOT EXISTS idx_order_submission_status ON order_submission (status);
@@ -0,0 +1,16 @@
+-- Runs of the resumable client statistics rebuild (POST /api/clients/statistics/rebuild).
+
+CREATE SEQUENCE IF NOT EXISTS client_stats_rebuild_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS client_stats_rebuild (
+    id bigint NOT NULL,
+    completed_at timestamp(6),
+    last_client_id bigint NOT NULL,
+    processed_clients bigint NOT NULL,
+    started_at timestamp(6),
+    total_clients bigint,
+    updated_at timestamp(6),
+    error_message varchar(500),
+    status varchar(255) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    PRIMARY KEY (id)
+);
@@ -1,15 +1,21 @@
 package com.jartiste.smartshop.application.service;
 
 
+import com.jartiste.smartshop.application.service.impl.ClientServiceImpl;
 import com.jartiste.smartshop.application.mapper.ClientMapper;
 import com.jartiste.smartshop.domain.entity.Client;
 import com.jartiste.smartshop.domain.enums.CustomerTier;
 import com.jartiste.smartshop.domain.enums.UserRole;
 import com.jartiste.smartshop.domain.repository.ClientRepository;
+import com.jartiste.smartshop.domain.exception.ValidationException;
 import com.jartiste.smartshop.domain.repository.UserRepository;
+import com.jartiste.smartshop.infrastructure.search.ClientNameSearch;
+import com.jartiste.smartshop.infrastructure.search.ClientSearchHit;
+import com.jartiste.smartshop.infrastructure.util.CursorCodec;
 import com.jartiste.smartshop.infrastructure.util.PasswordUtil;
 import com.jartiste.smartshop.presentation.dto.request.ClientRequest;
 import com.jartiste.smartshop.presentation.dto.response.ClientResponse;
+import com.jartiste.smartshop.presentation.dto.response.CursorPageResponse;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
@@ -19,6 +25,7 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.hamcrest.Matchers.any;
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,12 +43,18 @@ public class ClientServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ClientNameSearch clientNameSearch;
+
     @InjectMocks
-    private ClientService clientService;
+    private ClientServiceImpl clientService;
 
     @Spy
     private final PasswordUtil passwordUtil = new PasswordUtil();
 
+    @Spy
+    private final CursorCodec cursorCodec = new CursorCodec();
+
     @Test
     void shouldCreateClient() {
         Client client = Client.builder()
@@ -79,6 +92,43 @@ public class ClientServiceTest {
         assertEquals(expectedResponse.id(), response.id());
     }
 
+    @Test
+    void shouldSearchClientsByPage() {
+        Client first = Client.builder().id(7L).nom("Atlas Negoce").build();
+        Client second = Client.builder().id(3L).nom("Atlass Import").build();
+        when(clientNameSearch.search("atlas", null, 2)).thenReturn(List.of(
+                new ClientSearchHit(7L, 1f), new ClientSearchHit(3L, 0.71428573f)));
+        when(clientNameSearch.search("atlas", new ClientSearchHit(7L, 1f), 2)).thenReturn(List.of(
+                new ClientSearchHit(3L, 0.71428573f)));
+        when(clientRepository.findAllById(List.of(7L))).thenReturn(List.of(first));
+        when(clientRepository.findAllById(List.of(3L))).thenReturn(List.of(second));
+        when(clientMapper.toResponse(ArgumentMatchers.any(Client.class))).thenAnswer(invocation -> {
+            Client client = invocation.getArgument(0);
+            return ClientResponse.builder().id(client.getId()).nom(client.getNom()).build();
+        });
+
+        CursorPageResponse<ClientResponse> page = clientService.searchClients("atlas", null, 1);
+        assertEquals(List.of(7L), page.content().stream().map(ClientResponse::id).toList());
+        assertTrue(page.hasNext());
+
+        CursorPageResponse<ClientResponse> next = clientService.searchClients("atlas", page.nextCursor(), 1);
+        assertEquals(List.of(3L), next.content().stream().map(ClientResponse::id).toList());
+        assertFalse(next.hasNext());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void shouldRejectShortSearchText() {
+        assertThrows(ValidationException.class, () -> clientService.searchClients(" ab ", null, 10));
+        assertThrows(ValidationException.class, () -> clientService.searchClients("atlas", null, 0));
+    }
+
+    @Test
+    void shouldRejectCursorPageSizeOutOfRange() {
+        assertThrows(ValidationException.class, () -> clientService.getAllClients(null, 0));
+        assertThrows(ValidationException.class, () -> clientService.getAllClients(null, 101));
+    }
+
     @Test
     void shouldThrowExceptionIfUsernameAlreadyExists() {}
 
@@ -0,0 +1,206 @@
+package com.jartiste.smartshop.application.service;
+
+
+import com.jartiste.smartshop.application.service.impl.ClientStatisticsServiceImpl;
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.entity.ClientStatsRebuild;
+import com.jartiste.smartshop.domain.entity.Order;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.JobStatus;
+import com.jartiste.smartshop.domain.enums.OrderStatus;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import com.jartiste.smartshop.domain.repository.ClientRepository;
+import com.jartiste.smartshop.domain.repository.ClientStatsRebuildRepository;
+import com.jartiste.smartshop.domain.repository.OrderRepository;
+import com.jartiste.smartshop.infrastructure.async.ClientStatsRebuilder;
+import com.jartiste.smartshop.presentation.dto.response.ClientStatsRebuildResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ClientStatisticsServiceImpl.class, ClientStatsRebuilder.class})
+@ActiveProfiles("dev")
+@TestPropertySource(properties = {
+        "smartshop.clients.stats-rebuild.threads=2",
+        "smartshop.clients.stats-rebuild.chunk-size=3"
+})
+class ClientStatisticsServiceTest {
+
+    private static final int CLIENTS = 10;
+
+    @Autowired
+    private IClientStatisticsService clientStatisticsService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ClientStatsRebuildRepository clientStatsRebuildRepository;
+
+    @AfterEach
+    void cleanup() {
+        clientStatsRebuildRepository.deleteAll();
+        orderRepository.deleteAll();
+        clientRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should apply concurrent confirmations without losing any delta")
+    void shouldApplyConcurrentConfirmations() throws Exception {
+        Client client = clientRepository.save(client("concurrent_client"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(() -> clientStatisticsService.recordConfirmedOrder(client.getId(), BigDecimal.valueOf(10))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Client updated = clientRepository.findById(client.getId()).orElseThrow();
+        assertEquals(20, updated.getTotalOrders());
+        assertEquals(0, BigDecimal.valueOf(200).compareTo(updated.getTotalSpent()));
+        assertEquals(CustomerTier.PLATINUM, updated.getTier());
+    }
+
+    @Test
+    @DisplayName("Should rebuild every client's statistics from the orders table")
+    void shouldRebuildFromOrders() throws InterruptedException {
+        List<Client> clients = seedClientsWithOrders();
+
+        ClientStatsRebuildResponse done = awaitRebuild(clientStatisticsService.startRebuild().id());
+
+        assertEquals(JobStatus.COMPLETED, done.status());
+        assertEquals(CLIENTS, done.processedClients());
+        assertEquals(CLIENTS, done.totalClients());
+        for (int i = 0; i < CLIENTS; i++) {
+            assertRebuilt(clients.get(i), i);
+        }
+    }
+
+    @Test
+    @DisplayName("Should resume an interrupted rebuild after its last completed chunk")
+    void shouldResumeInterruptedRebuild() throws InterruptedException {
+        List<Client> clients = seedClientsWithOrders();
+        Long watermark = clients.get(2).getId();
+        ClientStatsRebuild interrupted = clientStatsRebuildRepository.save(ClientStatsRebuild.builder()
+                .status(JobStatus.FAILED)
+                .lastClientId(watermark)
+                .processedClients(3L)
+                .errorMessage("connection reset")
+                .build());
+
+        ClientStatsRebuildResponse started = clientStatisticsService.startRebuild();
+        assertEquals(interrupted.getId(), started.id());
+
+        ClientStatsRebuildResponse done = awaitRebuild(started.id());
+        assertEquals(JobStatus.COMPLETED, done.status());
+        assertEquals(CLIENTS, done.processedClients());
+        assertNull(done.error());
+
+        for (int i = 0; i < CLIENTS; i++) {
+            Client client = clientRepository.findById(clients.get(i).getId()).orElseThrow();
+            if (client.getId() <= watermark) {
+                assertEquals(99, client.getTotalOrders());
+            } else {
+                assertRebuilt(clients.get(i), i);
+            }
+        }
+    }
+
+    /** Client i has i confirmed orders of 600 and one pending order; stored stats are deliberately wrong. */
+    private List<Client> seedClientsWithOrders() {
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            Client client = client("rebuild_client_" + i);
+            client.setTotalOrders(99);
+            clients.add(client);
+        }
+        clients = clientRepository.saveAll(clients);
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            for (int o = 0; o < i; o++) {
+                orders.add(order(clients.get(i), OrderStatus.CONFIRMED));
+            }
+            orders.add(order(clients.get(i), OrderStatus.PENDING));
+        }
+        orderRepository.saveAll(orders);
+        return clients;
+    }
+
+    private void assertRebuilt(Client seeded, int confirmedOrders) {
+        Client client = clientRepository.findById(seeded.getId()).orElseThrow();
+        BigDecimal spent = BigDecimal.valueOf(600L * confirmedOrders);
+
+        assertEquals(confirmedOrders, client.getTotalOrders());
+        assertEquals(0, spent.compareTo(client.getTotalSpent()));
+        assertEquals(CustomerTier.forStats(confirmedOrders, spent), client.getTier());
+        assertEquals(LocalDate.now(), client.getFirstOrderDate());
+        assertEquals(LocalDate.now(), client.getLastOrderDate());
+    }
+
+    private ClientStatsRebuildResponse awaitRebuild(Long id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ClientStatsRebuildResponse rebuild = clientStatisticsService.getLatestRebuild();
+            if (rebuild.id().equals(id) && rebuild.status() != JobStatus.RUNNING) {
+                return rebuild;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Rebuild " + id + " did not finish");
+    }
+
+    private Client client(String username) {
+        return Client.builder()
+                .nom(username)
+                .username(username)
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .tier(CustomerTier.BASIC)
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .build();
+    }
+
+    private Order order(Client client, OrderStatus status) {
+        BigDecimal total = BigDecimal.valueOf(600);
+        return Order.builder()
+                .client(client)
+                .orderStatus(status)
+                .subTotal(BigDecimal.valueOf(500))
+                .discountAmount(BigDecimal.ZERO)
+                .taxAmount(BigDecimal.valueOf(100))
+                .totalAmount(total)
+                .remainingAmount(status == OrderStatus.CONFIRMED ? BigDecimal.ZERO : total)
+                .build();
+    }
+}
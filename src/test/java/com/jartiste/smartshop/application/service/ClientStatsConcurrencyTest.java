@@ -0,0 +1,137 @@
+package com.jartiste.smartshop.application.service;
+
+
+import com.jartiste.smartshop.application.mapper.OrderMapperImpl;
+import com.jartiste.smartshop.application.service.impl.ClientStatisticsServiceImpl;
+import com.jartiste.smartshop.application.service.impl.OrderServiceImpl;
+import com.jartiste.smartshop.application.service.impl.PessimisticStockReservationServiceImpl;
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.entity.Order;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import com.jartiste.smartshop.domain.repository.ClientRepository;
+import com.jartiste.smartshop.domain.repository.OrderRepository;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.domain.service.OrderDomainService;
+import com.jartiste.smartshop.domain.service.PricingEngine;
+import com.jartiste.smartshop.infrastructure.async.ClientStatsRebuilder;
+import com.jartiste.smartshop.infrastructure.cache.ProductCatalogCache;
+import com.jartiste.smartshop.infrastructure.config.CacheConfig;
+import com.jartiste.smartshop.infrastructure.util.CursorCodec;
+import com.jartiste.smartshop.presentation.dto.request.OrderItemRequest;
+import com.jartiste.smartshop.presentation.dto.request.OrderRequest;
+import com.jartiste.smartshop.presentation.dto.response.OrderResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderServiceImpl.class, OrderDomainService.class, PricingEngine.class, OrderMapperImpl.class, PessimisticStockReservationServiceImpl.class,
+        CacheConfig.class, ProductCatalogCache.class, CursorCodec.class,
+        ClientStatisticsServiceImpl.class, ClientStatsRebuilder.class})
+@ActiveProfiles("dev")
+class ClientStatsConcurrencyTest {
+
+    private static final LocalDate FIRST_ORDER = LocalDate.of(2024, 1, 15);
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @MockitoSpyBean
+    private ProductCatalogCache productCatalogCache;
+
+    @AfterEach
+    void cleanup() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        clientRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should keep the stats of an order confirmed while another order of the client is being created")
+    void shouldKeepStatsConfirmedDuringOrderCreation() throws Exception {
+        Client client = clientRepository.save(Client.builder()
+                .nom("Concurrent SARL")
+                .username("concurrent_client")
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .tier(CustomerTier.BASIC)
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .firstOrderDate(FIRST_ORDER)
+                .build());
+        Product product = productRepository.save(Product.builder()
+                .name("Desk")
+                .price(BigDecimal.valueOf(100))
+                .stock(10)
+                .deleted(false)
+                .build());
+        OrderRequest request = new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId(), 1)));
+
+        Order paid = orderRepository.findById(orderService.createOrder(request).id()).orElseThrow();
+        paid.setRemainingAmount(BigDecimal.ZERO);
+        orderRepository.save(paid);
+        // an earlier last order date, so the next creation has the client to update
+        Client lastOrderedBefore = clientRepository.findById(client.getId()).orElseThrow();
+        lastOrderedBefore.setLastOrderDate(FIRST_ORDER);
+        clientRepository.save(lastOrderedBefore);
+
+        // the second creation stops once it holds the client, until the first order is confirmed
+        CountDownLatch clientLoaded = new CountDownLatch(1);
+        CountDownLatch confirmed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            clientLoaded.countDown();
+            assertTrue(confirmed.await(10, TimeUnit.SECONDS));
+            return invocation.callRealMethod();
+        }).when(productCatalogCache).evictProducts(any());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<OrderResponse> creation = executor.submit(() -> orderService.createOrder(request));
+            assertTrue(clientLoaded.await(10, TimeUnit.SECONDS));
+            orderService.validateOrder(paid.getId());
+            confirmed.countDown();
+            creation.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Client saved = clientRepository.findById(client.getId()).orElseThrow();
+        assertEquals(1, saved.getTotalOrders());
+        assertEquals(0, paid.getTotalAmount().compareTo(saved.getTotalSpent()));
+        assertEquals(FIRST_ORDER, saved.getFirstOrderDate());
+        assertEquals(LocalDate.now(), saved.getLastOrderDate());
+    }
+}
@@ -0,0 +1,95 @@
+package com.jartiste.smartshop.application.service;
+
+
+import com.jartiste.smartshop.application.service.impl.CoalescingStockReservationServiceImpl;
+import com.jartiste.smartshop.domain.entity.OrderItem;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.exception.ServiceUnavailableException;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.infrastructure.async.StockDecrementCoalescer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingStockReservationServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockDecrementCoalescer stockDecrementCoalescer;
+
+    @InjectMocks
+    private CoalescingStockReservationServiceImpl stockReservationService;
+
+    @Test
+    @DisplayName("Should give back a line one lane's failed flush left in flight once it is granted")
+    void shouldReleaseLineGrantedAfterFailedLane() {
+        CompletableFuture<Boolean> failedLane = CompletableFuture.failedFuture(new QueryTimeoutException("flush timed out"));
+        CompletableFuture<Boolean> slowLane = new CompletableFuture<>();
+        when(stockDecrementCoalescer.decrement(1L, 2)).thenReturn(failedLane);
+        when(stockDecrementCoalescer.decrement(2L, 3)).thenReturn(slowLane);
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(() -> slowLane.complete(true));
+
+        assertThrows(QueryTimeoutException.class, () -> stockReservationService.reserve(List.of(item(1L, 2), item(2L, 3))));
+
+        verify(stockDecrementCoalescer).release(2L, 3);
+        verify(stockDecrementCoalescer, never()).release(1L, 2);
+    }
+
+    @Test
+    @DisplayName("Should give back a line granted after the checkout stopped waiting for it")
+    void shouldReleaseLineGrantedAfterInterrupt() {
+        CompletableFuture<Boolean> grantedLane = CompletableFuture.completedFuture(true);
+        CompletableFuture<Boolean> slowLane = new CompletableFuture<>();
+        when(stockDecrementCoalescer.decrement(1L, 2)).thenReturn(grantedLane);
+        when(stockDecrementCoalescer.decrement(2L, 3)).thenReturn(slowLane);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(ServiceUnavailableException.class, () -> stockReservationService.reserve(List.of(item(1L, 2), item(2L, 3))));
+        } finally {
+            Thread.interrupted();
+        }
+        verify(stockDecrementCoalescer).release(1L, 2);
+        verify(stockDecrementCoalescer, never()).release(2L, 3);
+
+        slowLane.complete(true);
+
+        verify(stockDecrementCoalescer).release(2L, 3);
+    }
+
+    @Test
+    @DisplayName("Should give back the granted lines when another line is refused")
+    void shouldReleaseGrantedLinesWhenOneIsRefused() {
+        when(stockDecrementCoalescer.decrement(1L, 2)).thenReturn(CompletableFuture.completedFuture(true));
+        when(stockDecrementCoalescer.decrement(2L, 3)).thenReturn(CompletableFuture.completedFuture(false));
+
+        assertFalse(stockReservationService.reserve(List.of(item(1L, 2), item(2L, 3))));
+
+        verify(stockDecrementCoalescer).release(1L, 2);
+        verify(stockDecrementCoalescer, never()).release(2L, 3);
+    }
+
+    private static OrderItem item(Long productId, int quantity) {
+        return OrderItem.builder()
+                .product(Product.builder().id(productId).build())
+                .quantity(quantity)
+                .build();
+    }
+}
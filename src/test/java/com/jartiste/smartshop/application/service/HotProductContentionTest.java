@@ -0,0 +1,180 @@
+package com.jartiste.smartshop.application.service;
+
+
+import com.jartiste.smartshop.application.mapper.OrderMapper;
+import com.jartiste.smartshop.application.mapper.OrderMapperImpl;
+import com.jartiste.smartshop.application.service.impl.AtomicStockReservationServiceImpl;
+import com.jartiste.smartshop.application.service.impl.ClientStatisticsServiceImpl;
+import com.jartiste.smartshop.application.service.impl.CoalescingStockReservationServiceImpl;
+import com.jartiste.smartshop.application.service.impl.OrderServiceImpl;
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.OrderStatus;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import com.jartiste.smartshop.domain.repository.ClientRepository;
+import com.jartiste.smartshop.domain.repository.OrderRepository;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.domain.service.OrderDomainService;
+import com.jartiste.smartshop.domain.service.PricingEngine;
+import com.jartiste.smartshop.infrastructure.async.ClientStatsRebuilder;
+import com.jartiste.smartshop.infrastructure.async.StockDecrementCoalescer;
+import com.jartiste.smartshop.infrastructure.cache.ProductCatalogCache;
+import com.jartiste.smartshop.infrastructure.config.CacheConfig;
+import com.jartiste.smartshop.infrastructure.util.CursorCodec;
+import com.jartiste.smartshop.presentation.dto.request.OrderItemRequest;
+import com.jartiste.smartshop.presentation.dto.request.OrderRequest;
+import com.jartiste.smartshop.presentation.dto.response.OrderResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderDomainService.class, PricingEngine.class, OrderMapperImpl.class, CacheConfig.class, ProductCatalogCache.class, CursorCodec.class,
+        ClientStatisticsServiceImpl.class, ClientStatsRebuilder.class})
+@ActiveProfiles("dev")
+@Slf4j
+class HotProductContentionTest {
+
+    private static final int ORDERS = 512;
+    private static final int INITIAL_STOCK = 256;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderDomainService orderDomainService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private CursorCodec cursorCodec;
+
+    @Autowired
+    private IClientStatisticsService clientStatisticsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private StockDecrementCoalescer coalescer;
+
+    @AfterEach
+    void cleanup() {
+        if (coalescer != null) {
+            coalescer.destroy();
+            coalescer = null;
+        }
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        clientRepository.deleteAll();
+    }
+
+    @ParameterizedTest(name = "{0} x {1} clients")
+    @CsvSource({
+            "atomic, 1", "atomic, 8", "atomic, 64", "atomic, 256",
+            "coalescing, 1", "coalescing, 8", "coalescing, 64", "coalescing, 256"
+    })
+    @DisplayName("Should keep one hot product consistent while many clients check it out")
+    void shouldCheckOutHotProduct(String mode, int clients) throws Exception {
+        IStockReservationService reservationService = reservationService(mode);
+        IOrderService orderService = new OrderServiceImpl(orderRepository, productRepository, clientRepository,
+                orderDomainService, reservationService, orderMapper, productCatalogCache, cursorCodec, clientStatisticsService);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Product product = productRepository.save(Product.builder()
+                .name("Console Flash Sale")
+                .price(BigDecimal.valueOf(300))
+                .stock(INITIAL_STOCK)
+                .deleted(false)
+                .build());
+        List<Client> buyers = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            buyers.add(Client.builder()
+                    .nom("Buyer " + c)
+                    .username("hot_buyer_" + c)
+                    .password("secret")
+                    .role(UserRole.CLIENT)
+                    .tier(CustomerTier.BASIC)
+                    .totalOrders(0)
+                    .totalSpent(BigDecimal.ZERO)
+                    .build());
+        }
+        buyers = clientRepository.saveAll(buyers);
+
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<?>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (Client buyer : buyers) {
+            OrderRequest request = new OrderRequest(buyer.getId(), null, List.of(new OrderItemRequest(product.getId(), 1)));
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < ORDERS / clients; i++) {
+                    OrderResponse response = transactionTemplate.execute(status -> orderService.createOrder(request));
+                    if (response.status() != OrderStatus.REJECTED) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        log.info("[hot-product {} x {}] {} orders, {} accepted, {} orders/s",
+                mode, clients, ORDERS, accepted.get(), Math.round(ORDERS / (elapsed / 1_000_000_000.0)));
+
+        assertEquals(ORDERS, orderRepository.count());
+        assertEquals(INITIAL_STOCK, accepted.get());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+
+    private IStockReservationService reservationService(String mode) {
+        if ("coalescing".equals(mode)) {
+            coalescer = new StockDecrementCoalescer(dataSource, Duration.ofMillis(2), 64, 4);
+            return new CoalescingStockReservationServiceImpl(productRepository, coalescer);
+        }
+        return new AtomicStockReservationServiceImpl(productRepository);
+    }
+}
@@ -0,0 +1,114 @@
+package com.jartiste.smartshop.application.service;
+
+
+import com.jartiste.smartshop.application.mapper.OrderMapperImpl;
+import com.jartiste.smartshop.application.service.impl.ClientStatisticsServiceImpl;
+import com.jartiste.smartshop.application.service.impl.OrderServiceImpl;
+import com.jartiste.smartshop.application.service.impl.PessimisticStockReservationServiceImpl;
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import com.jartiste.smartshop.domain.repository.ClientRepository;
+import com.jartiste.smartshop.domain.repository.OrderRepository;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.domain.service.OrderDomainService;
+import com.jartiste.smartshop.domain.service.PricingEngine;
+import com.jartiste.smartshop.infrastructure.async.ClientStatsRebuilder;
+import com.jartiste.smartshop.infrastructure.cache.ProductCatalogCache;
+import com.jartiste.smartshop.infrastructure.config.CacheConfig;
+import com.jartiste.smartshop.infrastructure.util.CursorCodec;
+import com.jartiste.smartshop.presentation.dto.request.OrderItemRequest;
+import com.jartiste.smartshop.presentation.dto.request.OrderRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderServiceImpl.class, OrderDomainService.class, PricingEngine.class, OrderMapperImpl.class, PessimisticStockReservationServiceImpl.class,
+        CacheConfig.class, ProductCatalogCache.class, CursorCodec.class,
+        ClientStatisticsServiceImpl.class, ClientStatsRebuilder.class})
+@ActiveProfiles("dev")
+@Slf4j
+class OrderCreationThroughputTest {
+
+    private static final int ORDERS = 100;
+    private static final int LINES = 100;
+
+    @Autowired
+    private IOrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @AfterEach
+    void cleanup() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        clientRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should measure order creation throughput for 100-line orders")
+    void shouldMeasureOrderCreationThroughput() {
+        Client client = clientRepository.save(Client.builder()
+                .nom("Throughput SARL")
+                .username("throughput_client")
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .tier(CustomerTier.BASIC)
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .build());
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            products.add(Product.builder()
+                    .name("Product " + i)
+                    .price(BigDecimal.valueOf(10 + i))
+                    .stock(ORDERS)
+                    .deleted(false)
+                    .build());
+        }
+        List<OrderItemRequest> items = productRepository.saveAll(products).stream()
+                .map(product -> new OrderItemRequest(product.getId(), 1))
+                .toList();
+        OrderRequest request = new OrderRequest(client.getId(), null, items);
+
+        // warm-up
+        for (int i = 0; i < 10; i++) {
+            orderService.createOrder(request);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 10; i < ORDERS; i++) {
+            orderService.createOrder(request);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        log.info("[order-creation] {} orders x {} lines, {} orders/s",
+                ORDERS - 10, LINES, Math.round((ORDERS - 10) / (elapsed / 1_000_000_000.0)));
+
+        assertEquals(ORDERS, orderRepository.count());
+    }
+}
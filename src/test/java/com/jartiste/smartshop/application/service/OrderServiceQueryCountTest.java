@@ -0,0 +1,211 @@
+package com.jartiste.smartshop.application.service;
+
+
+import com.jartiste.smartshop.application.mapper.OrderMapperImpl;
+import com.jartiste.smartshop.application.service.impl.ClientStatisticsServiceImpl;
+import com.jartiste.smartshop.application.service.impl.OrderServiceImpl;
+import com.jartiste.smartshop.application.service.impl.PessimisticStockReservationServiceImpl;
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.entity.Order;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.OrderStatus;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import com.jartiste.smartshop.domain.service.OrderDomainService;
+import com.jartiste.smartshop.domain.service.PricingEngine;
+import com.jartiste.smartshop.infrastructure.async.ClientStatsRebuilder;
+import com.jartiste.smartshop.infrastructure.cache.ProductCatalogCache;
+import com.jartiste.smartshop.infrastructure.config.CacheConfig;
+import com.jartiste.smartshop.infrastructure.util.CursorCodec;
+import com.jartiste.smartshop.presentation.dto.request.OrderItemRequest;
+import com.jartiste.smartshop.presentation.dto.request.OrderRequest;
+import com.jartiste.smartshop.presentation.dto.response.OrderResponse;
+import com.jartiste.smartshop.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.jartiste.smartshop.support.SqlStatementCounter"
+})
+@Import({OrderServiceImpl.class, OrderDomainService.class, PricingEngine.class, OrderMapperImpl.class, PessimisticStockReservationServiceImpl.class,
+        CacheConfig.class, ProductCatalogCache.class, CursorCodec.class,
+        ClientStatisticsServiceImpl.class, ClientStatsRebuilder.class})
+@ActiveProfiles("dev")
+class OrderServiceQueryCountTest {
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Client client;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        client = Client.builder()
+                .nom("Bulk Buyer SARL")
+                .username("bulk_buyer")
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .tier(CustomerTier.BASIC)
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .build();
+        entityManager.persist(client);
+
+        for (int i = 0; i < 200; i++) {
+            Product product = Product.builder()
+                    .name("Product " + i)
+                    .price(BigDecimal.valueOf(10 + i))
+                    .stock(1000)
+                    .deleted(false)
+                    .build();
+            entityManager.persist(product);
+            products.add(product);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should resolve products with the same number of queries for 1 and 200 lines")
+    void shouldKeepQueryCountConstantForLargeOrders() {
+        long singleLine = countReadStatements(orderRequest(1));
+        long twoHundredLines = countReadStatements(orderRequest(200));
+
+        assertEquals(2, singleLine);
+        assertEquals(singleLine, twoHundredLines);
+    }
+
+    @Test
+    @DisplayName("Should insert the items of a 200-line order in JDBC batches")
+    void shouldBatchOrderItemInserts() {
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.clear();
+
+        orderService.createOrder(orderRequest(200));
+        entityManager.flush();
+
+        // one prepared INSERT per table, reused across the item batches (201 without batching)
+        assertEquals(2, SqlStatementCounter.inserts());
+    }
+
+    @Test
+    @DisplayName("Should merge duplicate product lines into one order item")
+    void shouldMergeDuplicateProductLines() {
+        Long productId = products.get(0).getId();
+        OrderRequest request = new OrderRequest(client.getId(), null, List.of(
+                new OrderItemRequest(productId, 2),
+                new OrderItemRequest(productId, 3)
+        ));
+
+        OrderResponse response = orderService.createOrder(request);
+
+        assertEquals(1, response.itemList().size());
+        assertEquals(5, response.itemList().get(0).quantity());
+    }
+
+    @Test
+    @DisplayName("Should load a 50-order history page with a constant number of statements")
+    void shouldLoadHistoryPageWithoutNPlusOne() {
+        for (int i = 0; i < 50; i++) {
+            orderService.createOrder(orderRequest(i, 3));
+        }
+
+        long statements = countStatements(() -> {
+            Page<OrderResponse> page = orderService.getOrderByClient(client.getId(), PageRequest.of(0, 50));
+            assertEquals(50, page.getContent().size());
+            page.forEach(order -> assertEquals(3, order.itemList().size()));
+        });
+
+        // page (client fetch-joined) + count + one batch of items joined with their products
+        assertEquals(3, statements);
+    }
+
+    @Test
+    @DisplayName("Should load an order with its client, items and products in one statement")
+    void shouldLoadOrderDetailInOneStatement() {
+        Long orderId = orderService.createOrder(orderRequest(0, 20)).id();
+
+        long statements = countStatements(() -> assertEquals(20, orderService.getOrderById(orderId).itemList().size()));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    @DisplayName("Should cancel a 20-item order with a single read")
+    void shouldCancelOrderWithOneRead() {
+        Long orderId = orderService.createOrder(orderRequest(0, 20)).id();
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.clear();
+
+        orderService.cancelOrder(orderId);
+        entityManager.flush();
+
+        assertEquals(1, SqlStatementCounter.selects());
+        entityManager.clear();
+        assertEquals(OrderStatus.CANCELED, entityManager.find(Order.class, orderId).getOrderStatus());
+        assertEquals(1000, entityManager.find(Product.class, products.get(19).getId()).getStock());
+    }
+
+    private long countStatements(Runnable read) {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        read.run();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long countReadStatements(OrderRequest request) {
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.clear();
+
+        orderService.createOrder(request);
+        entityManager.flush();
+
+        return SqlStatementCounter.selects();
+    }
+
+    private OrderRequest orderRequest(int lines) {
+        return orderRequest(0, lines);
+    }
+
+    private OrderRequest orderRequest(int from, int lines) {
+        List<OrderItemRequest> items = products.subList(from, from + lines).stream()
+                .map(product -> new OrderItemRequest(product.getId(), 1))
+                .toList();
+
+        return new OrderRequest(client.getId(), null, items);
+    }
+}
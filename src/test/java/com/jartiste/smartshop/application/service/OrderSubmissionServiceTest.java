@@ -0,0 +1,341 @@
+package com.jartiste.smartshop.application.service;
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jartiste.smartshop.application.mapper.OrderMapperImpl;
+import com.jartiste.smartshop.application.service.impl.ClientStatisticsServiceImpl;
+import com.jartiste.smartshop.application.service.impl.OrderServiceImpl;
+import com.jartiste.smartshop.application.service.impl.OrderSubmissionProcessor;
+import com.jartiste.smartshop.application.service.impl.OrderSubmissionServiceImpl;
+import com.jartiste.smartshop.application.service.impl.PessimisticStockReservationServiceImpl;
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.entity.OrderSubmission;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.SubmissionStatus;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import com.jartiste.smartshop.domain.exception.BusinessLogicViolation;
+import com.jartiste.smartshop.domain.exception.ResourceNotFound;
+import com.jartiste.smartshop.domain.exception.ServiceUnavailableException;
+import com.jartiste.smartshop.domain.exception.ValidationException;
+import com.jartiste.smartshop.domain.repository.ClientRepository;
+import com.jartiste.smartshop.domain.repository.OrderRepository;
+import com.jartiste.smartshop.domain.repository.OrderSubmissionRepository;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.domain.service.OrderDomainService;
+import com.jartiste.smartshop.domain.service.PricingEngine;
+import com.jartiste.smartshop.infrastructure.async.ClientStatsRebuilder;
+import com.jartiste.smartshop.infrastructure.async.OrderSubmissionDispatcher;
+import com.jartiste.smartshop.infrastructure.cache.ProductCatalogCache;
+import com.jartiste.smartshop.infrastructure.config.CacheConfig;
+import com.jartiste.smartshop.infrastructure.util.CursorCodec;
+import com.jartiste.smartshop.presentation.dto.request.OrderItemRequest;
+import com.jartiste.smartshop.presentation.dto.request.OrderRequest;
+import com.jartiste.smartshop.presentation.dto.response.OrderSubmissionResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@DataJpaTest(properties = "smartshop.orders.async.max-attempts=3")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderServiceImpl.class, OrderDomainService.class, PricingEngine.class, OrderMapperImpl.class, PessimisticStockReservationServiceImpl.class,
+        CacheConfig.class, ProductCatalogCache.class, CursorCodec.class,
+        ClientStatisticsServiceImpl.class, ClientStatsRebuilder.class, JacksonAutoConfiguration.class,
+        OrderSubmissionServiceImpl.class, OrderSubmissionProcessor.class, OrderSubmissionDispatcher.class})
+@ActiveProfiles("dev")
+class OrderSubmissionServiceTest {
+
+    @Autowired
+    private IOrderSubmissionService orderSubmissionService;
+
+    @MockitoSpyBean
+    private OrderSubmissionRepository orderSubmissionRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderSubmissionProcessor orderSubmissionProcessor;
+
+    @Autowired
+    private OrderSubmissionDispatcher orderSubmissionDispatcher;
+
+    @MockitoSpyBean
+    private ObjectMapper objectMapper;
+
+    @MockitoSpyBean
+    private IOrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private Client client;
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        client = clientRepository.save(Client.builder()
+                .nom("Async SARL")
+                .username("async_client")
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .tier(CustomerTier.BASIC)
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .build());
+
+        product = productRepository.save(Product.builder()
+                .name("Keyboard")
+                .price(BigDecimal.valueOf(250))
+                .stock(10)
+                .deleted(false)
+                .build());
+    }
+
+    @AfterEach
+    void cleanup() {
+        orderSubmissionRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        clientRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should create a single order for retried submissions with the same key")
+    void shouldDeduplicateOnIdempotencyKey() throws InterruptedException {
+        OrderRequest request = new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId(), 2)));
+
+        OrderSubmissionResponse first = orderSubmissionService.submitOrder(request, "key-1");
+        OrderSubmissionResponse retry = orderSubmissionService.submitOrder(request, "key-1");
+
+        assertEquals("/api/orders/client/" + client.getId() + "/submissions/key-1", first.statusUrl());
+        assertEquals(first.idempotencyKey(), retry.idempotencyKey());
+
+        OrderSubmissionResponse done = awaitProcessed("key-1");
+        assertEquals(SubmissionStatus.COMPLETED, done.status());
+        assertNotNull(done.orderId());
+        assertEquals(1, orderRepository.count());
+        assertEquals(1, orderSubmissionRepository.count());
+
+        assertEquals(done.orderId(), orderSubmissionService.submitOrder(request, "key-1").orderId());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should record the failure of an order that can't be created")
+    void shouldRecordFailure() throws InterruptedException {
+        OrderRequest request = new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId() + 1000, 1)));
+
+        orderSubmissionService.submitOrder(request, "key-2");
+
+        OrderSubmissionResponse done = awaitProcessed("key-2");
+        assertEquals(SubmissionStatus.FAILED, done.status());
+        assertNotNull(done.error());
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should refuse a missing key and a key reused for another order")
+    void shouldValidateKey() throws InterruptedException {
+        OrderRequest request = new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId(), 1)));
+        OrderRequest other = new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId(), 3)));
+
+        assertThrows(ValidationException.class, () -> orderSubmissionService.submitOrder(request, null));
+
+        orderSubmissionService.submitOrder(request, "key-3");
+        assertThrows(BusinessLogicViolation.class, () -> orderSubmissionService.submitOrder(other, "key-3"));
+        awaitProcessed("key-3");
+    }
+
+    @Test
+    @DisplayName("Should refuse a key that can't be a segment of the status URL before storing anything")
+    void shouldRefuseKeyUnsafeInStatusUrl() throws InterruptedException {
+        OrderRequest request = new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId(), 1)));
+
+        for (String key : List.of("", "with space", "100%", "a/b", "{key}", "\"quoted\"", "..", "k".repeat(101))) {
+            assertThrows(ValidationException.class, () -> orderSubmissionService.submitOrder(request, key), key);
+        }
+        assertEquals(0, orderSubmissionRepository.count());
+
+        OrderSubmissionResponse accepted = orderSubmissionService.submitOrder(request, "v1.order-42_a~b");
+        assertEquals("/api/orders/client/" + client.getId() + "/submissions/v1.order-42_a~b",
+                URI.create(accepted.statusUrl()).getPath());
+        awaitProcessed("v1.order-42_a~b");
+    }
+
+    @Test
+    @DisplayName("Should read the submission status outside a read-only transaction, so never from a replica")
+    void shouldReadStatusFromPrimary() throws InterruptedException {
+        OrderRequest request = new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId(), 1)));
+        orderSubmissionService.submitOrder(request, "key-8");
+        awaitProcessed("key-8");
+
+        OrderSubmission submission = orderSubmissionRepository.findByClientIdAndIdempotencyKey(client.getId(), "key-8").orElseThrow();
+        List<Boolean> readOnly = new ArrayList<>();
+        doAnswer(invocation -> {
+            readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return Optional.of(submission);
+        }).when(orderSubmissionRepository).findByClientIdAndIdempotencyKey(client.getId(), "key-8");
+
+        orderSubmissionService.getSubmission(client.getId(), "key-8");
+
+        assertEquals(List.of(false), readOnly);
+    }
+
+    @Test
+    @DisplayName("Should keep idempotency keys apart between clients")
+    void shouldScopeKeysPerClient() throws InterruptedException {
+        Client other = clientRepository.save(Client.builder()
+                .nom("Other SARL")
+                .username("other_async_client")
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .tier(CustomerTier.BASIC)
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .build());
+
+        orderSubmissionService.submitOrder(new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId(), 1))), "shared-key");
+        orderSubmissionService.submitOrder(new OrderRequest(other.getId(), null, List.of(new OrderItemRequest(product.getId(), 2))), "shared-key");
+
+        assertEquals(SubmissionStatus.COMPLETED, awaitProcessed("shared-key").status());
+        assertEquals(other.getId(), orderSubmissionService.getSubmission(other.getId(), "shared-key").clientId());
+        assertThrows(ResourceNotFound.class, () -> orderSubmissionService.getSubmission(other.getId() + 1000, "shared-key"));
+        assertEquals(2, orderSubmissionRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should create one order when two workers process the same submission")
+    void shouldClaimSubmissionOnce() throws Exception {
+        OrderRequest request = new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId(), 1)));
+        // stored without being enqueued, as a submission another node recovers at startup would be
+        Long id = orderSubmissionRepository.save(OrderSubmission.builder()
+                .idempotencyKey("key-4")
+                .clientId(client.getId())
+                .payload(objectMapper.writeValueAsString(request))
+                .status(SubmissionStatus.QUEUED)
+                .build()).getId();
+
+        // both workers have read the submission as queued before either claims it
+        CyclicBarrier bothLoaded = new CyclicBarrier(2);
+        doAnswer(invocation -> {
+            bothLoaded.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(objectMapper).readValue(anyString(), eq(OrderRequest.class));
+
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> runs = List.of(
+                    workers.submit(() -> orderSubmissionProcessor.process(List.of(id))),
+                    workers.submit(() -> orderSubmissionProcessor.process(List.of(id))));
+            for (Future<?> run : runs) {
+                run.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        assertEquals(SubmissionStatus.COMPLETED, orderSubmissionRepository.findById(id).orElseThrow().getStatus());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should retry a submission whose order hit a retryable error instead of failing it")
+    void shouldRetryRetryableFailure() throws InterruptedException {
+        doThrow(new CannotAcquireLockException("lock wait timeout")).doCallRealMethod().when(orderService).createOrder(any());
+        OrderRequest request = new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId(), 1)));
+
+        orderSubmissionService.submitOrder(request, "key-5");
+
+        assertEquals(SubmissionStatus.COMPLETED, awaitProcessed("key-5").status());
+        assertEquals(1, orderRepository.count());
+        assertEquals(1, orderSubmissionRepository.findByClientIdAndIdempotencyKey(client.getId(), "key-5").orElseThrow().getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should fail a submission once its retryable errors used up max-attempts")
+    void shouldFailAfterMaxAttempts() throws InterruptedException {
+        doThrow(new ServiceUnavailableException("Stock reservation timed out, please retry")).when(orderService).createOrder(any());
+        OrderRequest request = new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId(), 1)));
+
+        orderSubmissionService.submitOrder(request, "key-6");
+
+        OrderSubmissionResponse done = awaitProcessed("key-6");
+        assertEquals(SubmissionStatus.FAILED, done.status());
+        assertEquals("Stock reservation timed out, please retry", done.error());
+        assertEquals(3, orderSubmissionRepository.findByClientIdAndIdempotencyKey(client.getId(), "key-6").orElseThrow().getAttempts());
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should enqueue again a queued submission left untouched for stale-after")
+    void shouldSweepStaleSubmissions() throws Exception {
+        OrderRequest request = new OrderRequest(client.getId(), null, List.of(new OrderItemRequest(product.getId(), 1)));
+        // stored without being enqueued, as if its batch had failed as a whole
+        Long id = orderSubmissionRepository.save(OrderSubmission.builder()
+                .idempotencyKey("key-7")
+                .clientId(client.getId())
+                .payload(objectMapper.writeValueAsString(request))
+                .status(SubmissionStatus.QUEUED)
+                .build()).getId();
+        assertEquals(List.of(), orderSubmissionProcessor.findQueuedBefore(LocalDateTime.now().minusMinutes(1)));
+
+        jdbcTemplate.update("UPDATE order_submission SET updated_at = ? WHERE id = ?", LocalDateTime.now().minusMinutes(5), id);
+        orderSubmissionDispatcher.sweepStale();
+
+        assertEquals(SubmissionStatus.COMPLETED, awaitProcessed("key-7").status());
+        assertEquals(1, orderRepository.count());
+    }
+
+    private OrderSubmissionResponse awaitProcessed(String key) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            OrderSubmissionResponse response = orderSubmissionService.getSubmission(client.getId(), key);
+            if (response.status() != SubmissionStatus.QUEUED) {
+                return response;
+            }
+            Thread.sleep(100);
+        }
+        assertTrue(false, "Submission " + key + " was not processed");
+        return null;
+    }
+}
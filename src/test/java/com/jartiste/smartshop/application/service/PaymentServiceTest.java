@@ -1,6 +1,7 @@
 package com.jartiste.smartshop.application.service;
 
 
+import com.jartiste.smartshop.application.service.impl.PaymentServiceImpl;
 import com.jartiste.smartshop.domain.entity.Client;
 import com.jartiste.smartshop.domain.entity.Order;
 import com.jartiste.smartshop.domain.entity.Payment;
@@ -8,6 +9,7 @@ import com.jartiste.smartshop.domain.enums.OrderStatus;
 import com.jartiste.smartshop.domain.enums.PaymentMethod;
 import com.jartiste.smartshop.domain.enums.PaymentStatus;
 import com.jartiste.smartshop.domain.exception.BusinessLogicViolation;
+import com.jartiste.smartshop.domain.exception.ValidationException;
 import com.jartiste.smartshop.domain.repository.ClientRepository;
 import com.jartiste.smartshop.domain.repository.OrderRepository;
 import com.jartiste.smartshop.domain.repository.PaymentRepository;
@@ -23,10 +25,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,7 +47,7 @@ class PaymentServiceTest {
     private ClientRepository clientRepository;
 
     @InjectMocks
-    private PaymentService paymentService;
+    private PaymentServiceImpl paymentService;
 
     @Test
     @DisplayName("Should add valid partial payment and reduce remaining amount")
@@ -213,4 +218,32 @@ class PaymentServiceTest {
             paymentService.addPayment(order.getId(), request);
         });
     }
+
+    @Test
+    @DisplayName("Should fetch payments by order id without scanning the payment table")
+    void shouldGetPaymentsByOrder() {
+        Payment payment = Payment.builder()
+                .id(7L)
+                .amount(BigDecimal.valueOf(500))
+                .paymentMethod(PaymentMethod.ESPECES)
+                .paymentStatus(PaymentStatus.ENCAISSE)
+                .build();
+
+        when(paymentRepository.findByOrder_IdOrderByCreatedAtAsc(1L)).thenReturn(List.of(payment));
+
+        List<PaymentResponse> responses = paymentService.getPaymentByOrder(1L);
+
+        assertEquals(1, responses.size());
+        assertEquals(7L, responses.get(0).id());
+        verify(paymentRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should reject a negative page or a page size outside 1..100")
+    void shouldRejectPaymentPageOutOfRange() {
+        assertThrows(ValidationException.class, () -> paymentService.getPaymentByOrder(1L, -1, 10));
+        assertThrows(ValidationException.class, () -> paymentService.getPaymentByOrder(1L, 0, 0));
+        assertThrows(ValidationException.class, () -> paymentService.getPaymentByOrder(1L, 0, 101));
+        verify(paymentRepository, never()).findByOrder_Id(any(), any());
+    }
 }
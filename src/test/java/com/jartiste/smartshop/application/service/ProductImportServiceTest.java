@@ -0,0 +1,169 @@
+package com.jartiste.smartshop.application.service;
+
+
+import com.jartiste.smartshop.application.service.impl.ProductImportServiceImpl;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.infrastructure.cache.ProductCatalogCache;
+import com.jartiste.smartshop.infrastructure.config.CacheConfig;
+import com.jartiste.smartshop.infrastructure.importer.ImportFormat;
+import com.jartiste.smartshop.infrastructure.importer.ProductBatchUpserter;
+import com.jartiste.smartshop.infrastructure.search.ProductSearchIndexer;
+import com.jartiste.smartshop.presentation.dto.response.ProductImportResponse;
+import com.jartiste.smartshop.presentation.dto.response.ProductImportResponse.RowError;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductImportServiceImpl.class, ProductBatchUpserter.class, ProductCatalogCache.class, CacheConfig.class, ProductSearchIndexer.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@ActiveProfiles("dev")
+@TestPropertySource(properties = {
+        "smartshop.products.import.batch-size=3",
+        "smartshop.products.import.validation-threads=2"
+})
+class ProductImportServiceTest {
+
+    @Autowired
+    private IProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void cleanup() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should create products from CSV and report invalid rows by line")
+    void shouldImportCsv() {
+        String csv = """
+                stock,sku,price,name
+                10,KB-01,450.00,"Keyboard, mechanical"
+                5,MS-01,120,Mouse
+
+                3,,99,No Sku
+                1,SC-01,abc,Screen
+                0,CB-01,20,Cable
+                7,HS-01,300,"Headset ""Pro\"""
+                """;
+
+        ProductImportResponse response = productImportService.importProducts(body(csv), ImportFormat.CSV);
+
+        assertEquals(6, response.rows());
+        assertEquals(3, response.created());
+        assertEquals(0, response.updated());
+        assertEquals(3, response.failed());
+        assertEquals(List.of(5L, 6L, 7L), response.errors().stream().map(RowError::line).toList());
+        assertEquals("sku is required", response.errors().get(0).message());
+        assertEquals("SC-01", response.errors().get(1).sku());
+        assertEquals("Stock can't be negative", response.errors().get(2).message());
+
+        Map<String, Product> products = productsBySku();
+        assertEquals(3, products.size());
+        assertEquals("Keyboard, mechanical", products.get("KB-01").getName());
+        assertEquals(0, BigDecimal.valueOf(450).compareTo(products.get("KB-01").getPrice()));
+        assertEquals("Headset \"Pro\"", products.get("HS-01").getName());
+        assertEquals(false, products.get("MS-01").getDeleted());
+    }
+
+    @Test
+    @DisplayName("Should update live products by sku and leave deleted ones untouched")
+    void shouldUpsertNdjson() {
+        Product live = productRepository.save(product("LIVE-1", "Old name", false));
+        Product deleted = productRepository.save(product("GONE-1", "Deleted", true));
+        String ndjson = """
+                {"sku":"LIVE-1","name":"New name","price":15,"stock":4}
+                {"sku":"GONE-1","name":"Revived","price":15,"stock":4}
+                {"sku":"NEW-1","name":"First","price":10,"stock":1}
+                {"sku":"NEW-1","name":"Second","price":11,"stock":2}
+                {"sku":"NEW-2","name":
+                """;
+
+        ProductImportResponse response = productImportService.importProducts(body(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(5, response.rows());
+        assertEquals(1, response.created());
+        assertEquals(2, response.updated());
+        assertEquals(2, response.failed());
+        assertEquals(2L, response.errors().get(0).line());
+        assertEquals("Product with this sku is deleted", response.errors().get(0).message());
+        assertEquals(5L, response.errors().get(1).line());
+        assertTrue(response.errors().get(1).message().startsWith("Malformed JSON"));
+
+        Product updated = productRepository.findById(live.getId()).orElseThrow();
+        assertEquals("New name", updated.getName());
+        assertEquals(4, updated.getStock());
+        assertEquals(live.getVersion() + 1, updated.getVersion());
+
+        Product untouched = productRepository.findById(deleted.getId()).orElseThrow();
+        assertEquals("Deleted", untouched.getName());
+        assertTrue(untouched.getDeleted());
+
+        assertEquals("Second", productsBySku().get("NEW-1").getName());
+    }
+
+    @Test
+    @DisplayName("Should give imported products ids the application never hands out again")
+    void shouldNotCollideWithApplicationIds() {
+        StringBuilder csv = new StringBuilder("sku,name,price,stock\n");
+        for (int i = 0; i < 10; i++) {
+            csv.append("BULK-").append(i).append(",Product ").append(i).append(",10,5\n");
+        }
+
+        ProductImportResponse response = productImportService.importProducts(body(csv.toString()), ImportFormat.CSV);
+        assertEquals(10, response.created());
+
+        long maxImportedId = productsBySku().values().stream().mapToLong(Product::getId).max().orElseThrow();
+        Product saved = productRepository.save(product("APP-1", "Created by the app", false));
+        assertTrue(saved.getId() > maxImportedId);
+
+        ProductImportResponse again = productImportService.importProducts(body(csv.toString()), ImportFormat.CSV);
+        assertEquals(0, again.created());
+        assertEquals(10, again.updated());
+        assertEquals(11, productRepository.count());
+    }
+
+    private Map<String, Product> productsBySku() {
+        return productRepository.findAll().stream()
+                .collect(Collectors.toMap(Product::getSku, Function.identity()));
+    }
+
+    private static ByteArrayInputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Product product(String sku, String name, boolean deleted) {
+        return Product.builder()
+                .sku(sku)
+                .name(name)
+                .price(BigDecimal.TEN)
+                .stock(10)
+                .deleted(deleted)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.jartiste.smartshop.application.service;
+
+import com.jartiste.smartshop.application.mapper.ProductMapper;
+import com.jartiste.smartshop.application.service.impl.ProductServiceImpl;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.infrastructure.cache.ProductCatalogCache;
+import com.jartiste.smartshop.infrastructure.config.CacheConfig;
+import com.jartiste.smartshop.infrastructure.search.ProductSearchIndexer;
+import com.jartiste.smartshop.infrastructure.util.CursorCodec;
+import com.jartiste.smartshop.presentation.dto.request.ProductRequest;
+import com.jartiste.smartshop.presentation.dto.response.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({CacheConfig.class, ProductServiceImpl.class, ProductCatalogCache.class, CursorCodec.class})
+class ProductServiceCacheTest {
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private ProductRepository productRepository;
+
+    @MockitoBean
+    private ProductMapper productMapper;
+
+    @MockitoBean
+    private ProductSearchIndexer productSearchIndexer;
+
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        product = Product.builder()
+                .id(1L)
+                .name("MacBook Pro")
+                .price(BigDecimal.valueOf(30000))
+                .stock(20)
+                .deleted(false)
+                .build();
+
+        when(productRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findAllByDeletedFalse(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(product)));
+        when(productRepository.save(product)).thenReturn(product);
+        when(productMapper.toResponse(product)).thenReturn(
+                new ProductResponse(1L, "MacBook Pro", BigDecimal.valueOf(30000), 20, false, null)
+        );
+    }
+
+    @Test
+    @DisplayName("Should serve repeated product reads from the cache")
+    void shouldCacheProductById() {
+        productService.getProductById(1L);
+        productService.getProductById(1L);
+
+        verify(productRepository, times(1)).findByIdAndDeletedFalse(1L);
+    }
+
+    @Test
+    @DisplayName("Should only cache the first page of the active product listing")
+    void shouldCacheFirstPageOnly() {
+        productService.getAllActiveProduct(PageRequest.of(0, 10));
+        productService.getAllActiveProduct(PageRequest.of(0, 10));
+        productService.getAllActiveProduct(PageRequest.of(1, 10));
+        productService.getAllActiveProduct(PageRequest.of(1, 10));
+
+        verify(productRepository, times(1)).findAllByDeletedFalse(PageRequest.of(0, 10));
+        verify(productRepository, times(2)).findAllByDeletedFalse(PageRequest.of(1, 10));
+    }
+
+    @Test
+    @DisplayName("Should invalidate the product and listings when the product is updated")
+    void shouldEvictOnUpdate() {
+        productService.getProductById(1L);
+        productService.getAllActiveProduct(PageRequest.of(0, 10));
+
+        productService.updateProduct(1L, new ProductRequest("MacBook Air", null, null, null));
+
+        productService.getProductById(1L);
+        productService.getAllActiveProduct(PageRequest.of(0, 10));
+
+        // one read for the first lookup, one inside updateProduct, one after eviction
+        verify(productRepository, times(3)).findByIdAndDeletedFalse(1L);
+        verify(productRepository, times(2)).findAllByDeletedFalse(PageRequest.of(0, 10));
+    }
+
+    @Test
+    @DisplayName("Should invalidate the product when its stock moves through an order")
+    void shouldEvictOnStockChange() {
+        productService.getProductById(1L);
+
+        productCatalogCache.evictProducts(List.of(1L));
+        productService.getProductById(1L);
+
+        verify(productRepository, times(2)).findByIdAndDeletedFalse(1L);
+    }
+}
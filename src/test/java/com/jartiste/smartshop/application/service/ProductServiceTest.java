@@ -1,10 +1,13 @@
 package com.jartiste.smartshop.application.service;
 
 
+import com.jartiste.smartshop.application.service.impl.ProductServiceImpl;
 import com.jartiste.smartshop.application.mapper.ProductMapper;
 import com.jartiste.smartshop.domain.entity.Product;
 import com.jartiste.smartshop.domain.exception.ResourceNotFound;
+import com.jartiste.smartshop.domain.exception.ValidationException;
 import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.infrastructure.search.ProductSearchIndexer;
 import com.jartiste.smartshop.presentation.dto.request.ProductRequest;
 import com.jartiste.smartshop.presentation.dto.response.ProductResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,7 +34,7 @@ import static org.mockito.Mockito.when;
 class ProductServiceTest {
 
     @InjectMocks
-    private ProductService productService;
+    private ProductServiceImpl productService;
 
     @Mock
     private ProductMapper productMapper;
@@ -39,6 +42,9 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchIndexer productSearchIndexer;
+
     private  Product toDelete;
 
     @BeforeEach
@@ -60,7 +66,8 @@ class ProductServiceTest {
         ProductRequest request = new ProductRequest(
                 "Dell Latitude",
                 BigDecimal.valueOf(4500),
-                12
+                12,
+                null
         );
 
         Product product = Product.builder()
@@ -80,7 +87,7 @@ class ProductServiceTest {
         when(productMapper.toEntity(request)).thenReturn(product);
         when(productRepository.save(product)).thenReturn(savedProduct);
         when(productMapper.toResponse(savedProduct)).thenReturn(
-                new ProductResponse(1L, "Dell Latitude", BigDecimal.valueOf(4500), 12, false)
+                new ProductResponse(1L, "Dell Latitude", BigDecimal.valueOf(4500), 12, false, null)
         );
 
         ProductResponse response = productService.createProduct(request);
@@ -109,7 +116,8 @@ class ProductServiceTest {
                 "MacBook Pro",
                 BigDecimal.valueOf(30000),
                 20,
-                false
+                false,
+                null
         );
 
         when(productRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(product));
@@ -137,7 +145,7 @@ class ProductServiceTest {
                 .build();
 
         ProductRequest request = new ProductRequest(
-                "Cable HDMI", null, null
+                "Cable HDMI", null, null, null
         );
 
         ProductResponse expectedResponse = ProductResponse.builder()
@@ -151,7 +159,7 @@ class ProductServiceTest {
         when(productRepository.findByIdAndDeletedFalse(1L)).thenReturn(Optional.of(product));
         when(productRepository.save(product)).thenReturn(product);
         when(productMapper.toResponse(product)).thenReturn(
-                new ProductResponse(1L, "Cable HDMI", BigDecimal.valueOf(50), 20, false)
+                new ProductResponse(1L, "Cable HDMI", BigDecimal.valueOf(50), 20, false, null)
         );
 
         ProductResponse response = productService.updateProduct(1L, request);
@@ -200,11 +208,11 @@ class ProductServiceTest {
         Page<Product> productPage = new PageImpl<>(productList, pageable, productList.size());
 
         ProductResponse response1 = new ProductResponse(
-                1L, "MacBook Pro", BigDecimal.valueOf(30000), 20, false
+                1L, "MacBook Pro", BigDecimal.valueOf(30000), 20, false, null
         );
 
         ProductResponse response2 = new ProductResponse(
-                2L, "Dell Latitude", BigDecimal.valueOf(4500), 12, false
+                2L, "Dell Latitude", BigDecimal.valueOf(4500), 12, false, null
         );
 
         when(productRepository.findAllByDeletedFalse(pageable)).thenReturn(productPage);
@@ -231,4 +239,11 @@ class ProductServiceTest {
             productService.deleteProduct(99L);
         });
     }
+
+    @Test
+    @DisplayName("Should reject cursor page sizes outside 1..100")
+    void shouldRejectCursorPageSizeOutOfRange() {
+        assertThrows(ValidationException.class, () -> productService.getAllActiveProduct(null, 0));
+        assertThrows(ValidationException.class, () -> productService.getAllActiveProduct(null, 101));
+    }
 }
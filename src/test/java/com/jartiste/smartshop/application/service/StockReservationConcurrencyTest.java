@@ -0,0 +1,153 @@
+package com.jartiste.smartshop.application.service;
+
+
+import com.jartiste.smartshop.application.service.impl.AtomicStockReservationServiceImpl;
+import com.jartiste.smartshop.application.service.impl.CoalescingStockReservationServiceImpl;
+import com.jartiste.smartshop.application.service.impl.OptimisticStockReservationServiceImpl;
+import com.jartiste.smartshop.application.service.impl.PessimisticStockReservationServiceImpl;
+import com.jartiste.smartshop.domain.entity.OrderItem;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.domain.service.OrderDomainService;
+import com.jartiste.smartshop.domain.service.PricingEngine;
+import com.jartiste.smartshop.infrastructure.async.StockDecrementCoalescer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("dev")
+@Slf4j
+class StockReservationConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 100;
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 25;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private StockDecrementCoalescer coalescer;
+
+    @AfterEach
+    void cleanup() {
+        if (coalescer != null) {
+            coalescer.destroy();
+            coalescer = null;
+        }
+        productRepository.deleteAll();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"pessimistic", "optimistic", "atomic", "coalescing"})
+    @DisplayName("Should never oversell a hot product under concurrent checkouts")
+    void shouldNotOversellUnderConcurrentCheckouts(String mode) throws Exception {
+        IStockReservationService reservationService = reservationService(mode);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Product first = productRepository.save(product("Ecran Dell"));
+        Product second = productRepository.save(product("Souris Logitech"));
+        List<Long> productIds = List.of(first.getId(), second.getId());
+
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            boolean reversed = t % 2 == 1;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    Boolean reserved = transactionTemplate.execute(status -> {
+                        List<OrderItem> items = new ArrayList<>(reservationService.findProducts(productIds).stream()
+                                .map(product -> OrderItem.builder()
+                                        .product(product)
+                                        .quantity(1)
+                                        .unitPrice(product.getPrice())
+                                        .build())
+                                .toList());
+                        if (reversed) {
+                            Collections.reverse(items);
+                        }
+                        return reservationService.reserve(items);
+                    });
+                    if (Boolean.TRUE.equals(reserved)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        int attempts = THREADS * ORDERS_PER_THREAD;
+        log.info("[{}] {} checkouts, {} accepted, {} orders/s",
+                mode, attempts, accepted.get(), Math.round(attempts / (elapsed / 1_000_000_000.0)));
+
+        if (coalescer != null) {
+            // lines refused at the very end may have briefly held the last units of the other product
+            coalescer.destroy();
+            assertTrue(accepted.get() <= INITIAL_STOCK);
+        } else {
+            assertEquals(INITIAL_STOCK, accepted.get());
+        }
+        assertEquals(INITIAL_STOCK - accepted.get(), productRepository.findById(first.getId()).orElseThrow().getStock());
+        assertEquals(INITIAL_STOCK - accepted.get(), productRepository.findById(second.getId()).orElseThrow().getStock());
+    }
+
+    private IStockReservationService reservationService(String mode) {
+        return switch (mode) {
+            case "pessimistic" -> new PessimisticStockReservationServiceImpl(productRepository, new OrderDomainService(new PricingEngine()));
+            case "optimistic" -> new OptimisticStockReservationServiceImpl(productRepository, 50);
+            case "coalescing" -> {
+                coalescer = new StockDecrementCoalescer(dataSource, Duration.ofMillis(2), 64, 4);
+                yield new CoalescingStockReservationServiceImpl(productRepository, coalescer);
+            }
+            default -> new AtomicStockReservationServiceImpl(productRepository);
+        };
+    }
+
+    private Product product(String name) {
+        return Product.builder()
+                .name(name)
+                .price(BigDecimal.valueOf(150))
+                .stock(INITIAL_STOCK)
+                .deleted(false)
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.jartiste.smartshop.domain.repository;
+
+
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.entity.Order;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.OrderStatus;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import com.jartiste.smartshop.infrastructure.util.CursorCodec;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+@ActiveProfiles("dev")
+class OrderRepositoryTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final CursorCodec cursorCodec = new CursorCodec();
+
+    private Client client;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        client = client("keyset_client");
+        Client other = client("other_client");
+
+        for (int i = 0; i < 25; i++) {
+            orderIds.add(order(client).getId());
+            order(other);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should scroll through a client history with continuation cursors, newest first")
+    void shouldScrollClientHistoryWithCursor() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            ScrollPosition position = cursorCodec.decodeCreatedAtAndId(cursor);
+            Window<Order> window = orderRepository.findByClient_Id(client.getId(), position, NEWEST_FIRST, Limit.of(10));
+            window.forEach(order -> seen.add(order.getId()));
+            cursor = cursorCodec.nextCursor(window);
+            pages++;
+        } while (cursor != null);
+
+        List<Long> expected = new ArrayList<>(orderIds);
+        expected.sort(null);
+        List<Long> actual = new ArrayList<>(seen);
+        actual.sort(null);
+
+        assertEquals(3, pages);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Should report the last page without a cursor")
+    void shouldEndOnLastPage() {
+        Window<Order> window = orderRepository.findByClient_Id(client.getId(), ScrollPosition.keyset(), NEWEST_FIRST, Limit.of(25));
+
+        assertEquals(25, window.size());
+        assertFalse(window.hasNext());
+        assertNull(cursorCodec.nextCursor(window));
+    }
+
+    @Test
+    @DisplayName("Should back the client history seek with a composite index")
+    void shouldCreateCompositeIndex() {
+        List<?> indexes = entityManager.createNativeQuery(
+                        "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_ORDERS_CLIENT_CREATED_AT_ID'")
+                .getResultList();
+
+        assertFalse(indexes.isEmpty());
+    }
+
+    private Client client(String username) {
+        Client newClient = Client.builder()
+                .nom(username)
+                .username(username)
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .tier(CustomerTier.BASIC)
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .build();
+        entityManager.persist(newClient);
+        return newClient;
+    }
+
+    private Order order(Client owner) {
+        Order order = Order.builder()
+                .client(owner)
+                .orderStatus(OrderStatus.PENDING)
+                .subTotal(BigDecimal.valueOf(1000))
+                .totalAmount(BigDecimal.valueOf(1200))
+                .remainingAmount(BigDecimal.valueOf(1200))
+                .build();
+        entityManager.persist(order);
+        return order;
+    }
+}
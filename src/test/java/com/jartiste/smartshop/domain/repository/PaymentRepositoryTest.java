@@ -0,0 +1,122 @@
+package com.jartiste.smartshop.domain.repository;
+
+
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.entity.Order;
+import com.jartiste.smartshop.domain.entity.Payment;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.OrderStatus;
+import com.jartiste.smartshop.domain.enums.PaymentMethod;
+import com.jartiste.smartshop.domain.enums.PaymentStatus;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("dev")
+class PaymentRepositoryTest {
+
+    // the statements Hibernate issues for findByOrder_IdOrderByCreatedAtAsc and the paged findByOrder_Id
+    private static final String PAYMENTS_OF_ORDER = "SELECT p.id FROM payment p WHERE p.order_id = 1 ORDER BY p.created_at";
+    private static final String PAGE_OF_ORDER = "SELECT p.id FROM payment p WHERE p.order_id = 1 ORDER BY p.created_at, p.id "
+            + "OFFSET 0 ROWS FETCH FIRST 2 ROWS ONLY";
+    private static final String COUNT_OF_ORDER = "SELECT COUNT(p.id) FROM payment p WHERE p.order_id = 1";
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Client client;
+    private Order target;
+    private Order other;
+
+    @BeforeEach
+    void setup() {
+        client = Client.builder()
+                .nom("Nokia Maroc")
+                .username("nokia_admin")
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .tier(CustomerTier.BASIC)
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .build();
+        entityManager.persist(client);
+
+        target = order();
+        other = order();
+
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(payment(target));
+        }
+    }
+
+    @Test
+    @DisplayName("Should plan the order payment lookups on idx_payment_order_id")
+    void shouldLookUpPaymentsThroughOrderIndex() {
+        for (String sql : List.of(PAYMENTS_OF_ORDER, PAGE_OF_ORDER, COUNT_OF_ORDER)) {
+            String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+
+            assertTrue(plan.toLowerCase(Locale.ROOT).contains("idx_payment_order_id"), plan);
+        }
+    }
+
+    @Test
+    @DisplayName("Should page through the payments of one order")
+    void shouldPagePaymentsOfOneOrder() {
+        addPayments(other, 10);
+
+        Page<Payment> page = paymentRepository.findByOrder_Id(target.getId(), PageRequest.of(0, 2));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+    }
+
+    private void addPayments(Order order, int count) {
+        for (int i = 0; i < count; i++) {
+            entityManager.persist(payment(order));
+        }
+    }
+
+    private Order order() {
+        Order order = Order.builder()
+                .client(client)
+                .orderStatus(OrderStatus.PENDING)
+                .subTotal(BigDecimal.valueOf(1000))
+                .totalAmount(BigDecimal.valueOf(1200))
+                .remainingAmount(BigDecimal.valueOf(1200))
+                .build();
+        entityManager.persist(order);
+        return order;
+    }
+
+    private Payment payment(Order order) {
+        return Payment.builder()
+                .order(order)
+                .amount(BigDecimal.valueOf(100))
+                .paymentMethod(PaymentMethod.ESPECES)
+                .paymentStatus(PaymentStatus.ENCAISSE)
+                .reference("ESP-TEST")
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.jartiste.smartshop.domain.repository;
+
+
+import com.jartiste.smartshop.domain.entity.Admin;
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("dev")
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Client client;
+    private Admin admin;
+
+    @BeforeEach
+    void setup() {
+        client = Client.builder()
+                .nom("Marjane Holding")
+                .username("marjane")
+                .password("client-hash")
+                .role(UserRole.CLIENT)
+                .tier(CustomerTier.GOLD)
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .build();
+        admin = Admin.builder()
+                .username("back_office")
+                .password("admin-hash")
+                .role(UserRole.ADMIN)
+                .build();
+        entityManager.persist(client);
+        entityManager.persist(admin);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should read login credentials with the client's tier")
+    void shouldFindClientCredentials() {
+        UserRepository.LoginCredentials credentials = userRepository.findCredentialsByUsername("marjane").orElseThrow();
+
+        assertEquals(client.getId(), credentials.getId());
+        assertEquals("marjane", credentials.getUsername());
+        assertEquals("client-hash", credentials.getPassword());
+        assertEquals(UserRole.CLIENT, credentials.getRole());
+        assertEquals(CustomerTier.GOLD, credentials.getTier());
+    }
+
+    @Test
+    @DisplayName("Should read admin credentials without a tier")
+    void shouldFindAdminCredentials() {
+        UserRepository.LoginCredentials credentials = userRepository.findCredentialsByUsername("back_office").orElseThrow();
+
+        assertEquals(admin.getId(), credentials.getId());
+        assertEquals(UserRole.ADMIN, credentials.getRole());
+        assertNull(credentials.getTier());
+        assertTrue(userRepository.findCredentialsByUsername("nobody").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should replace a password hash in place")
+    void shouldUpdatePassword() {
+        assertEquals(1, userRepository.updatePassword(client.getId(), "rehashed"));
+        entityManager.clear();
+
+        assertEquals("rehashed", userRepository.findCredentialsByUsername("marjane").orElseThrow().getPassword());
+        assertEquals(CustomerTier.GOLD, entityManager.find(Client.class, client.getId()).getTier());
+    }
+}
@@ -0,0 +1,75 @@
+package com.jartiste.smartshop.domain.service;
+
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.valueobject.PriceBreakdown;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PricingEngineTest {
+
+    private final PricingEngine pricingEngine = new PricingEngine();
+
+    @Test
+    @DisplayName("Should price every tier, promo and threshold exactly like the previous implementation")
+    void shouldMatchPreviousPricingToTheCent() {
+        List<String> promoCodes = Arrays.asList(null, "PROMO-AB12", "PROMO-ab12", "PROMO-12345", "SALE");
+        List<BigDecimal> subTotals = List.of(
+                new BigDecimal("0.00"), new BigDecimal("0.01"), new BigDecimal("499.99"), new BigDecimal("500.00"),
+                new BigDecimal("799.99"), new BigDecimal("800"), new BigDecimal("1199.99"), new BigDecimal("1200.00"),
+                new BigDecimal("1234.56"), new BigDecimal("35000.00"), new BigDecimal("99999.99"));
+
+        for (CustomerTier tier : CustomerTier.values()) {
+            Client client = Client.builder().tier(tier).build();
+            for (String promoCode : promoCodes) {
+                for (BigDecimal subTotal : subTotals) {
+                    PriceBreakdown expected = previousPricing(tier, subTotal, promoCode);
+                    PriceBreakdown actual = pricingEngine.price(client, subTotal, promoCode);
+
+                    String label = tier + " / " + promoCode + " / " + subTotal;
+                    assertEquals(expected.discountAmount(), actual.discountAmount(), label);
+                    assertEquals(expected.taxAmount(), actual.taxAmount(), label);
+                    assertEquals(expected.totalAmount(), actual.totalAmount(), label);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should only accept PROMO- followed by 4 upper case letters or digits")
+    void shouldValidatePromoCode() {
+        assertTrue(pricingEngine.isValidPromoCode("PROMO-X9Z1"));
+        assertFalse(pricingEngine.isValidPromoCode("PROMO-x9z1"));
+        assertFalse(pricingEngine.isValidPromoCode("PROMO-X9Z12"));
+        assertFalse(pricingEngine.isValidPromoCode(null));
+    }
+
+    private PriceBreakdown previousPricing(CustomerTier tier, BigDecimal subTotal, String promoCode) {
+        double amount = subTotal.doubleValue();
+        BigDecimal discountRate = BigDecimal.ZERO;
+        if (tier == CustomerTier.SLIVER && amount >= 500) discountRate = BigDecimal.valueOf(0.05);
+        if (tier == CustomerTier.GOLD && amount >= 800) discountRate = BigDecimal.valueOf(0.10);
+        if (tier == CustomerTier.PLATINUM && amount >= 1200) discountRate = BigDecimal.valueOf(0.15);
+
+        if (promoCode != null && promoCode.matches("PROMO-[A-Z0-9]{4}")) {
+            discountRate = discountRate.add(BigDecimal.valueOf(0.05));
+        }
+
+        BigDecimal discountAmount = subTotal.multiply(discountRate).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal netHT = subTotal.subtract(discountAmount);
+        if (netHT.compareTo(BigDecimal.ZERO) < 0) netHT = BigDecimal.ZERO;
+        BigDecimal tva = netHT.multiply(BigDecimal.valueOf(0.20));
+
+        return new PriceBreakdown(subTotal, discountAmount,
+                tva.setScale(2, RoundingMode.HALF_UP), netHT.add(tva).setScale(2, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,123 @@
+package com.jartiste.smartshop.infrastructure.config;
+
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import com.jartiste.smartshop.domain.exception.ForbiddenException;
+import com.jartiste.smartshop.domain.exception.UnAuthorizedException;
+import com.jartiste.smartshop.infrastructure.security.AuthMode;
+import com.jartiste.smartshop.infrastructure.security.AuthTokenProperties;
+import com.jartiste.smartshop.infrastructure.security.AuthTokenService;
+import com.jartiste.smartshop.infrastructure.security.AuthenticatedUser;
+import com.jartiste.smartshop.presentation.annotation.RequireRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthInterceptor authInterceptor;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final AuthTokenService authTokenService = new AuthTokenService(new AuthTokenProperties(AuthMode.TOKEN, null));
+
+    @RequireRole(UserRole.ADMIN)
+    static class SampleController {
+
+        public void adminOnly() {
+        }
+
+        @RequireRole({UserRole.ADMIN, UserRole.CLIENT})
+        public void anyUser() {
+        }
+    }
+
+    static class OpenController {
+
+        public void open() {
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        authInterceptor = new AuthInterceptor(meterRegistry, authTokenService, new AuthTokenProperties(AuthMode.SESSION, null));
+    }
+
+    @Test
+    @DisplayName("Should apply the class level role when the method has none")
+    void shouldUseClassLevelRole() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new SampleController(), "adminOnly");
+
+        assertTrue(authInterceptor.preHandle(request(UserRole.ADMIN), response, handler));
+        assertThrows(ForbiddenException.class, () -> authInterceptor.preHandle(request(UserRole.CLIENT), response, handler));
+        assertThrows(UnAuthorizedException.class, () -> authInterceptor.preHandle(new MockHttpServletRequest(), response, handler));
+    }
+
+    @Test
+    @DisplayName("Should let the method level role override the class level one")
+    void shouldPreferMethodLevelRole() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new SampleController(), "anyUser");
+
+        assertTrue(authInterceptor.preHandle(request(UserRole.CLIENT), response, handler));
+        assertTrue(authInterceptor.preHandle(request(UserRole.ADMIN), response, handler));
+    }
+
+    @Test
+    @DisplayName("Should let unprotected endpoints through without timing them")
+    void shouldSkipUnprotectedEndpoints() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new OpenController(), "open");
+
+        assertTrue(authInterceptor.preHandle(new MockHttpServletRequest(), response, handler));
+        assertNull(meterRegistry.find(AuthInterceptor.AUTHORIZATION_TIMER).timer());
+    }
+
+    @Test
+    @DisplayName("Should count authorization checks per endpoint, denied ones included")
+    void shouldTimeChecksPerEndpoint() throws Exception {
+        HandlerMethod adminOnly = new HandlerMethod(new SampleController(), "adminOnly");
+        HandlerMethod anyUser = new HandlerMethod(new SampleController(), "anyUser");
+
+        authInterceptor.preHandle(request(UserRole.ADMIN), response, adminOnly);
+        authInterceptor.preHandle(request(UserRole.ADMIN), response, adminOnly);
+        assertThrows(ForbiddenException.class, () -> authInterceptor.preHandle(request(UserRole.CLIENT), response, adminOnly));
+        authInterceptor.preHandle(request(UserRole.CLIENT), response, anyUser);
+
+        assertEquals(3, meterRegistry.get(AuthInterceptor.AUTHORIZATION_TIMER)
+                .tag("endpoint", "SampleController.adminOnly").timer().count());
+        assertEquals(1, meterRegistry.get(AuthInterceptor.AUTHORIZATION_TIMER)
+                .tag("endpoint", "SampleController.anyUser").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should authenticate bearer tokens without touching the session in token mode")
+    void shouldAuthenticateWithToken() throws Exception {
+        AuthInterceptor tokenInterceptor = new AuthInterceptor(meterRegistry, authTokenService, new AuthTokenProperties(AuthMode.TOKEN, null));
+        HandlerMethod handler = new HandlerMethod(new SampleController(), "anyUser");
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + authTokenService.issue(7L, UserRole.CLIENT, CustomerTier.GOLD));
+
+        assertTrue(tokenInterceptor.preHandle(request, response, handler));
+        assertEquals(7L, request.getAttribute(AuthenticatedUser.USER_ID));
+        assertEquals(UserRole.CLIENT, request.getAttribute(AuthenticatedUser.USER_ROLE));
+        assertNull(request.getSession(false));
+
+        // a session alone is not enough in token mode
+        assertThrows(UnAuthorizedException.class, () -> tokenInterceptor.preHandle(request(UserRole.ADMIN), response, handler));
+    }
+
+    private MockHttpServletRequest request(UserRole role) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession().setAttribute("USER_ROLE", role);
+        return request;
+    }
+}
@@ -0,0 +1,146 @@
+package com.jartiste.smartshop.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String WHERE_AM_I = "SELECT name FROM marker";
+
+    private SimpleMeterRegistry meterRegistry;
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        primary = pool(ReplicaRoutingDataSource.PRIMARY, "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1");
+        replica = pool("replica-1", "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1");
+
+        JdbcTemplate primaryDb = new JdbcTemplate(primary);
+        primaryDb.execute("CREATE TABLE marker (name VARCHAR(16))");
+        primaryDb.update("INSERT INTO marker VALUES ('primary')");
+        JdbcTemplate replicaDb = new JdbcTemplate(replica);
+        replicaDb.execute("CREATE TABLE marker (name VARCHAR(16))");
+        replicaDb.update("INSERT INTO marker VALUES ('replica')");
+        // stands in for the replication lag a PostgreSQL standby would report
+        replicaDb.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        replicaDb.update("INSERT INTO replica_lag VALUES (0)");
+
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofSeconds(5),
+                "SELECT seconds FROM replica_lag", meterRegistry);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+        routing.close();
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to a checked replica and everything else to the primary")
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        routing.checkReplicas();
+
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+        assertEquals("primary", readWrite.execute(status -> whereAmI()));
+        assertEquals("primary", whereAmI());
+        assertEquals(1.0, meterRegistry.get("smartshop.datasource.replica.available").tag("pool", "replica-1").gauge().value());
+        assertEquals(1.0, meterRegistry.get("smartshop.datasource.connections").tag("pool", "replica-1").counter().count());
+        assertEquals(0.0, meterRegistry.get("smartshop.datasource.replica.fallbacks").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should read from the primary until the replica passed a lag check")
+    void shouldFallBackBeforeFirstCheck() {
+        assertEquals("primary", readOnly.execute(status -> whereAmI()));
+        assertEquals(1.0, meterRegistry.get("smartshop.datasource.replica.fallbacks").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should stop reading from a replica lagging more than max-lag until it catches up")
+    void shouldSkipLaggingReplica() {
+        routing.checkReplicas();
+        setReplicaLag(30);
+        routing.checkReplicas();
+
+        assertEquals("primary", readOnly.execute(status -> whereAmI()));
+        assertEquals(30.0, meterRegistry.get("smartshop.datasource.replica.lag").tag("pool", "replica-1").gauge().value());
+        assertEquals(0.0, meterRegistry.get("smartshop.datasource.replica.available").tag("pool", "replica-1").gauge().value());
+
+        setReplicaLag(1);
+        routing.checkReplicas();
+
+        assertEquals("replica", readOnly.execute(status -> whereAmI()));
+    }
+
+    @Test
+    @DisplayName("Should read from the primary when the replica can't be reached")
+    void shouldSkipUnreachableReplica() {
+        HikariDataSource missing = pool("replica-2", "jdbc:h2:mem:routing_missing;IFEXISTS=TRUE");
+        ReplicaRoutingDataSource unreachable = new ReplicaRoutingDataSource(primary, List.of(missing), Duration.ofSeconds(5),
+                null, new SimpleMeterRegistry());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(unreachable);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(true);
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+
+        unreachable.checkReplicas();
+
+        assertEquals("primary", transactionTemplate.execute(status -> template.queryForObject(WHERE_AM_I, String.class)));
+        missing.close();
+    }
+
+    @Test
+    @DisplayName("Should unwrap to the primary pool")
+    void shouldUnwrapToPrimary() throws Exception {
+        routing.checkReplicas();
+
+        assertTrue(routing.isWrapperFor(HikariDataSource.class));
+        assertSame(primary, routing.unwrap(HikariDataSource.class));
+    }
+
+    private String whereAmI() {
+        return jdbcTemplate.queryForObject(WHERE_AM_I, String.class);
+    }
+
+    private void setReplicaLag(double seconds) {
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = ?", seconds);
+    }
+
+    private static HikariDataSource pool(String name, String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(2);
+        pool.setConnectionTimeout(250);
+        return pool;
+    }
+}
@@ -0,0 +1,313 @@
+package com.jartiste.smartshop.infrastructure.export;
+
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.entity.Order;
+import com.jartiste.smartshop.domain.entity.OrderItem;
+import com.jartiste.smartshop.domain.entity.Payment;
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.OrderStatus;
+import com.jartiste.smartshop.domain.enums.PaymentMethod;
+import com.jartiste.smartshop.domain.enums.PaymentStatus;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import com.jartiste.smartshop.domain.repository.ClientRepository;
+import com.jartiste.smartshop.domain.repository.OrderRepository;
+import com.jartiste.smartshop.domain.repository.PaymentRepository;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("dev")
+class OrderExporterTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderExporter orderExporter;
+    private Client client;
+    private Product mouse;
+    private Order first;
+    private Order second;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        // a fetch size smaller than the result makes every cursor fetch more than once
+        orderExporter = new OrderExporter(jdbcTemplate, transactionManager, new ObjectMapper(), meterRegistry, 2);
+
+        client = clientRepository.save(Client.builder()
+                .nom("Export SARL")
+                .username("export_client")
+                .password("secret")
+                .role(UserRole.CLIENT)
+                .tier(CustomerTier.BASIC)
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .build());
+        Product keyboard = productRepository.save(product("Keyboard", 100));
+        mouse = productRepository.save(product("Mouse", 50));
+
+        first = orderRepository.save(order(client, keyboard, mouse));
+        second = orderRepository.save(order(client, mouse));
+        Order outside = orderRepository.save(order(client, keyboard));
+        paymentRepository.save(Payment.builder()
+                .order(first)
+                .amount(BigDecimal.valueOf(120))
+                .paymentMethod(PaymentMethod.CHEQUE)
+                .paymentStatus(PaymentStatus.EN_ATTENTE)
+                .reference("CHQ,001")
+                .bankName("Banque Populaire")
+                .build());
+        entityManager.flush();
+
+        setCreatedAt(first, LocalDateTime.of(2025, 1, 5, 10, 0));
+        setCreatedAt(second, LocalDateTime.of(2025, 1, 20, 9, 30));
+        setCreatedAt(outside, LocalDateTime.of(2025, 2, 1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should stream orders in range as CSV with their items and payments")
+    void shouldExportCsv() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = orderExporter.export(FROM, TO, ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(6, rows);
+        assertEquals(7, lines.size());
+        assertTrue(lines.get(0).startsWith("record_type,order_id"));
+        assertTrue(lines.get(1).startsWith("ORDER," + first.getId() + ","));
+        assertTrue(lines.get(2).startsWith("ITEM," + first.getId() + ","));
+        assertTrue(lines.get(3).startsWith("ITEM," + first.getId() + ","));
+        assertTrue(lines.get(4).startsWith("PAYMENT," + first.getId() + ","));
+        assertTrue(lines.get(4).contains(",\"CHQ,001\",Banque Populaire,"));
+        assertTrue(lines.get(5).startsWith("ORDER," + second.getId() + ","));
+        assertTrue(lines.get(6).startsWith("ITEM," + second.getId() + ","));
+        for (String line : List.of(lines.get(0), lines.get(1), lines.get(2), lines.get(5))) {
+            assertEquals(22, line.split(",", -1).length);
+        }
+
+        assertEquals(6.0, meterRegistry.get("smartshop.export.rows").tag("format", "csv").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should stream one JSON document per order as NDJSON")
+    void shouldExportNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        orderExporter.export(FROM, TO, ExportFormat.NDJSON, out);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<JsonNode> documents = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).lines().toList()) {
+            documents.add(objectMapper.readTree(line));
+        }
+
+        assertEquals(2, documents.size());
+        assertEquals(first.getId(), documents.get(0).get("id").asLong());
+        assertEquals("2025-01-05T10:00", documents.get(0).get("createdAt").asText());
+        assertEquals(2, documents.get(0).get("items").size());
+        assertEquals(1, documents.get(0).get("payments").size());
+        assertEquals("CHQ,001", documents.get(0).get("payments").get(0).get("reference").asText());
+        assertEquals(second.getId(), documents.get(1).get("id").asLong());
+        assertEquals(1, documents.get(1).get("items").size());
+        assertEquals(0, documents.get(1).get("payments").size());
+    }
+
+    @Test
+    @DisplayName("Should skip items and payments of an order the order cursor did not return")
+    void shouldSkipRowsOfOrderMissingFromOrderCursor() {
+        // the order cursor loses the first order while the item and payment cursors still return its rows
+        CursorSpyingTemplate template = new CursorSpyingTemplate(jdbcTemplate,
+                sql -> sql.replace("WHERE o.created_at", "WHERE o.id <> " + first.getId() + " AND o.created_at"));
+        OrderExporter exporter = new OrderExporter(template, transactionManager, new ObjectMapper(), meterRegistry, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter.export(FROM, TO, ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, rows);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).startsWith("ORDER," + second.getId() + ","));
+        assertTrue(lines.get(2).startsWith("ITEM," + second.getId() + ","));
+    }
+
+    @Test
+    @DisplayName("Should write rows while the order cursor is still being read")
+    void shouldWriteRowsAsTheyStream() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            orders.add(order(client, mouse));
+        }
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE created_at > ?",
+                Timestamp.valueOf(LocalDateTime.of(2025, 1, 25, 12, 0)), Timestamp.valueOf(TO));
+
+        CursorSpyingTemplate template = new CursorSpyingTemplate(jdbcTemplate, sql -> sql);
+        OrderExporter exporter = new OrderExporter(template, transactionManager, new ObjectMapper(), meterRegistry, 100);
+        List<Integer> ordersReadAtWrite = new ArrayList<>();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                ordersReadAtWrite.add(template.ordersRead.get());
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                ordersReadAtWrite.add(template.ordersRead.get());
+            }
+        };
+
+        long rows = exporter.export(FROM, TO, ExportFormat.CSV, out);
+
+        assertEquals(3002, template.ordersRead.get());
+        assertEquals(6006, rows);
+        assertTrue(ordersReadAtWrite.size() > 1, "export was written in a single write");
+        assertTrue(ordersReadAtWrite.get(0) < 3002 / 2,
+                "first bytes written only after " + ordersReadAtWrite.get(0) + " orders were read");
+    }
+
+    private void setCreatedAt(Order order, LocalDateTime createdAt) {
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), order.getId());
+    }
+
+    private Product product(String name, int price) {
+        return Product.builder()
+                .name(name)
+                .price(BigDecimal.valueOf(price))
+                .stock(10)
+                .deleted(false)
+                .build();
+    }
+
+    private Order order(Client client, Product... products) {
+        Order order = Order.builder()
+                .client(client)
+                .orderStatus(OrderStatus.PENDING)
+                .subTotal(BigDecimal.valueOf(100))
+                .discountAmount(BigDecimal.ZERO)
+                .taxAmount(BigDecimal.valueOf(20))
+                .totalAmount(BigDecimal.valueOf(120))
+                .remainingAmount(BigDecimal.valueOf(120))
+                .itemList(new ArrayList<>())
+                .build();
+        for (Product product : products) {
+            order.getItemList().add(OrderItem.builder()
+                    .order(order)
+                    .product(product)
+                    .quantity(1)
+                    .unitPrice(product.getPrice())
+                    .build());
+        }
+        return order;
+    }
+
+    /**
+     * Hands the exporter a connection whose order query goes through {@code orderSql} and whose
+     * order cursor counts the rows it has returned.
+     */
+    private static class CursorSpyingTemplate extends JdbcTemplate {
+
+        private final UnaryOperator<String> orderSql;
+        private final AtomicInteger ordersRead = new AtomicInteger();
+
+        CursorSpyingTemplate(JdbcTemplate jdbcTemplate, UnaryOperator<String> orderSql) {
+            super(jdbcTemplate.getDataSource());
+            this.orderSql = orderSql;
+        }
+
+        @Override
+        public <T> T execute(ConnectionCallback<T> action) {
+            return super.execute((ConnectionCallback<T>) connection -> action.doInConnection(spy(Connection.class, connection, this::rewriteOrders)));
+        }
+
+        private Object rewriteOrders(Connection connection, Method method, Object[] args) throws Exception {
+            if (!method.getName().equals("prepareStatement") || !((String) args[0]).startsWith("SELECT o.id")) {
+                return method.invoke(connection, args);
+            }
+            args[0] = orderSql.apply((String) args[0]);
+            return spy(PreparedStatement.class, (PreparedStatement) method.invoke(connection, args), (statement, statementMethod, statementArgs) -> {
+                Object result = statementMethod.invoke(statement, statementArgs);
+                return statementMethod.getName().equals("executeQuery") ? spy(ResultSet.class, (ResultSet) result, this::countRows) : result;
+            });
+        }
+
+        private Object countRows(ResultSet rows, Method method, Object[] args) throws Exception {
+            Object result = method.invoke(rows, args);
+            if (method.getName().equals("next") && (Boolean) result) {
+                ordersRead.incrementAndGet();
+            }
+            return result;
+        }
+
+        private static <T> T spy(Class<T> type, T target, Interceptor<T> interceptor) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                try {
+                    return interceptor.invoke(target, method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }));
+        }
+
+        private interface Interceptor<T> {
+            Object invoke(T target, Method method, Object[] args) throws Exception;
+        }
+    }
+}
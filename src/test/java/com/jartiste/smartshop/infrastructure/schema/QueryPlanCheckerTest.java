@@ -0,0 +1,50 @@
+package com.jartiste.smartshop.infrastructure.schema;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("dev")
+class QueryPlanCheckerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private QueryPlanChecker queryPlanChecker;
+
+    @BeforeEach
+    void setup() {
+        queryPlanChecker = new QueryPlanChecker(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should find an index for every hot query in the entity schema")
+    void shouldServeHotQueriesFromIndexes() {
+        assertEquals(List.of(), queryPlanChecker.sequentialScans(QueryPlanChecker.HOT_QUERIES));
+    }
+
+    @Test
+    @DisplayName("Should report a query that can only scan its table")
+    void shouldReportSequentialScan() {
+        List<String> scans = queryPlanChecker.sequentialScans(List.of(
+                new QueryPlanChecker.HotQuery("unindexed", "SELECT c.id FROM client c WHERE c.nom = 'plan_check'")));
+
+        assertEquals(1, scans.size());
+        assertTrue(scans.get(0).startsWith("unindexed: "));
+    }
+}
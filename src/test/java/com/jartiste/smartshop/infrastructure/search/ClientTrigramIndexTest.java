@@ -0,0 +1,86 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientTrigramIndexTest {
+
+    private ClientTrigramIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new ClientTrigramIndex(0.5f);
+        index.put(1, "Atlas Négoce SARL");
+        index.put(2, "Maroc Telecom");
+        index.put(3, "Atlass Import Export");
+        index.put(4, "Société Générale Atlas");
+        index.put(5, "Bureau Atlantique");
+    }
+
+    @Test
+    @DisplayName("Should rank exact words before near misses, ignoring case and accents")
+    void shouldRankMatches() {
+        List<ClientSearchHit> hits = index.search("ATLAS", null, 10);
+
+        assertEquals(List.of(1L, 4L, 3L, 5L), ids(hits));
+        assertEquals(1f, hits.get(0).score());
+        assertTrue(hits.get(2).score() < 1f);
+        assertEquals(List.of(4L), ids(index.search("societe generale", null, 10)));
+        assertEquals(List.of(1L), ids(index.search("negoce", null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should tolerate typos and match substrings inside words")
+    void shouldMatchFuzzily() {
+        assertEquals(List.of(2L), ids(index.search("telecon", null, 10)));
+        assertEquals(List.of(2L), ids(index.search("elec", null, 10)));
+        assertEquals(List.of(), ids(index.search("xyz", null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should page through hits after the last score and id returned")
+    void shouldPageByKeyset() {
+        for(long id = 10; id < 25; id++) {
+            index.put(id, "Atlas Distribution " + id);
+        }
+        List<ClientSearchHit> all = index.search("atlas", null, 100);
+
+        List<ClientSearchHit> paged = new ArrayList<>();
+        ClientSearchHit after = null;
+        List<ClientSearchHit> page;
+        do {
+            page = index.search("atlas", after, 4);
+            paged.addAll(page);
+            after = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while(page.size() == 4);
+
+        assertEquals(all, paged);
+        assertEquals(19, all.size());
+    }
+
+    @Test
+    @DisplayName("Should follow renames and deletes, and not let a bulk load undo them")
+    void shouldApplyWrites() {
+        index.put(3, "Rif Import Export");
+        index.remove(1);
+        index.putIfAbsent(1, "Atlas Négoce SARL");
+        index.putIfAbsent(3, "Atlass Import Export");
+        index.putIfAbsent(6, "Atlas Services");
+
+        assertEquals(List.of(4L, 6L, 5L), ids(index.search("atlas", null, 10)));
+        assertEquals(List.of(3L), ids(index.search("rif imp", null, 10)));
+        assertEquals(5, index.size());
+    }
+
+    private static List<Long> ids(List<ClientSearchHit> hits) {
+        return hits.stream().map(ClientSearchHit::id).toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new ProductSearchIndex();
+        index.put(document(1, 0, "Écran Samsung 27 pouces", 2500, 4));
+        index.put(document(2, 0, "Souris sans fil Logitech", 150, 0));
+        index.put(document(3, 0, "Écran", 900, 10));
+        index.put(document(4, 0, "Cœur de processeur écrans", 3000, 2));
+        index.put(document(5, 0, "Clavier mécanique", 700, 8));
+    }
+
+    @Test
+    @DisplayName("Should match names regardless of case and accents")
+    void shouldFoldAccents() {
+        assertEquals(List.of(1L, 3L, 4L), ids("ECRAN"));
+        assertEquals(List.of(1L), ids("écran SAMSUNG"));
+        assertEquals(List.of(5L), ids("mecanique"));
+        assertEquals(List.of(4L), ids("coeur"));
+    }
+
+    @Test
+    @DisplayName("Should treat the last word as a prefix, ranking whole-word matches first")
+    void shouldCompletePrefix() {
+        assertEquals(List.of(1L, 3L, 4L), ids("écr"));
+        assertEquals(List.of(4L), ids("ecrans ecran"));
+        assertEquals(List.of(5L), ids("MECANIQUE clav"));
+        assertEquals(List.of(1L), ids("ecran sam"));
+        assertEquals(List.of(), ids("ecr sam"));
+        assertEquals(List.of(2L), ids("sans f"));
+    }
+
+    @Test
+    @DisplayName("Should apply price and stock filters and the limit")
+    void shouldFilter() {
+        assertEquals(List.of(1L, 3L), ids(search("ecr", BigDecimal.valueOf(900), BigDecimal.valueOf(2500), false)));
+        assertEquals(List.of(), ids(search("souris", null, null, true)));
+        assertEquals(1, index.search(new ProductSearchIndex.Query("ecr", null, null, false, 1)).size());
+    }
+
+    @Test
+    @DisplayName("Should follow renames and deletes, and ignore older versions")
+    void shouldApplyUpdates() {
+        index.put(document(3, 1, "Moniteur", 900, 10));
+        assertEquals(List.of(1L, 4L), ids("ecr"));
+        assertEquals(List.of(3L), ids("moni"));
+
+        index.put(document(3, 0, "Écran", 900, 10));
+        assertEquals(List.of(3L), ids("moni"));
+        assertEquals(List.of(3L), ids("moniteur"));
+
+        index.put(document(6, 0, "Carte multiprocesseurs", 4000, 1));
+        assertEquals(List.of(6L), ids("multiprocesseurs"));
+        assertEquals(List.of(6L), ids("carte multiprocesseu"));
+        assertEquals(List.of(), ids("multiprocessex"));
+
+        index.put(new SearchDocument(1, 1, null, "Écran Samsung 27 pouces", BigDecimal.valueOf(2500), 4, true));
+        index.put(document(1, 0, "Écran Samsung 27 pouces", 2500, 4));
+        assertEquals(List.of(4L), ids("ecr"));
+
+        index.updateStock(2, 3);
+        assertEquals(List.of(2L), ids(search("souris", null, null, true)));
+        assertTrue(index.search(new ProductSearchIndex.Query("  -- ", null, null, false, 10)).isEmpty());
+    }
+
+    private List<SearchDocument> search(String text, BigDecimal minPrice, BigDecimal maxPrice, boolean inStock) {
+        return index.search(new ProductSearchIndex.Query(text, minPrice, maxPrice, inStock, 10));
+    }
+
+    private List<Long> ids(String text) {
+        return ids(search(text, null, null, false));
+    }
+
+    private static List<Long> ids(List<SearchDocument> documents) {
+        return documents.stream().map(SearchDocument::id).toList();
+    }
+
+    private static SearchDocument document(long id, long version, String name, int price, int stock) {
+        return new SearchDocument(id, version, "SKU-" + id, name, BigDecimal.valueOf(price), stock, false);
+    }
+}
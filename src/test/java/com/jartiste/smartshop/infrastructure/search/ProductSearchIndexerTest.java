@@ -0,0 +1,93 @@
+package com.jartiste.smartshop.infrastructure.search;
+
+
+import com.jartiste.smartshop.domain.entity.Product;
+import com.jartiste.smartshop.domain.exception.ServiceUnavailableException;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("dev")
+class ProductSearchIndexerTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanup() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should load every active product across parallel id ranges")
+    void shouldRebuildInParallel() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            products.add(product("Souris optique " + i, i % 2 == 0));
+        }
+        productRepository.saveAll(products);
+        ProductSearchIndexer indexer = new ProductSearchIndexer(jdbcTemplate, 4, 7);
+
+        assertThrows(ServiceUnavailableException.class, () -> indexer.search(query("souris", false)));
+        indexer.rebuild();
+
+        assertEquals(60, indexer.search(query("souris opt", false)).size());
+    }
+
+    @Test
+    @DisplayName("Should pick up stock moved by orders once their transaction commits")
+    void shouldRefreshStockAfterCommit() {
+        Product product = productRepository.save(product("Clavier AZERTY", false));
+        ProductSearchIndexer indexer = new ProductSearchIndexer(jdbcTemplate, 2, 100);
+        indexer.rebuild();
+        assertEquals(1, indexer.search(query("clavier", true)).size());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE product SET stock = 0 WHERE id = ?", product.getId());
+            indexer.stockChanged(List.of(product.getId()));
+            indexer.refreshStock();
+            assertEquals(1, indexer.search(query("clavier", true)).size());
+        });
+        indexer.refreshStock();
+
+        assertEquals(0, indexer.search(query("clavier", true)).size());
+        assertEquals(1, indexer.search(query("clavier", false)).size());
+    }
+
+    private static ProductSearchIndex.Query query(String text, boolean inStock) {
+        return new ProductSearchIndex.Query(text, null, null, inStock, 100);
+    }
+
+    private static Product product(String name, boolean deleted) {
+        return Product.builder()
+                .name(name)
+                .price(BigDecimal.valueOf(100))
+                .stock(5)
+                .deleted(deleted)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.jartiste.smartshop.infrastructure.security;
+
+import com.jartiste.smartshop.domain.enums.CustomerTier;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AuthTokenServiceTest {
+
+    private static final String KEY_1 = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+    private static final String KEY_2 = Base64.getEncoder().encodeToString("fedcba9876543210fedcba9876543210".getBytes());
+    private static final Instant NOW = Instant.parse("2025-01-15T08:00:00Z");
+
+    private final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @Test
+    @DisplayName("Should round-trip id, role and tier through a signed token")
+    void shouldVerifyIssuedToken() {
+        AuthTokenService service = service("k1", Map.of("k1", KEY_1), clock);
+
+        assertEquals(new AuthenticatedUser(5L, UserRole.CLIENT, CustomerTier.GOLD),
+                service.verify(service.issue(5L, UserRole.CLIENT, CustomerTier.GOLD)));
+        assertEquals(new AuthenticatedUser(1L, UserRole.ADMIN, null),
+                service.verify(service.issue(1L, UserRole.ADMIN, null)));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered, truncated and expired tokens")
+    void shouldRejectInvalidTokens() {
+        AuthTokenService service = service("k1", Map.of("k1", KEY_1), clock);
+        String token = service.issue(5L, UserRole.CLIENT, CustomerTier.BASIC);
+        String[] parts = token.split("\\.");
+
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("5|ADMIN|BASIC|9999999999".getBytes());
+
+        assertNull(service.verify(parts[0] + "." + forgedPayload + "." + parts[2]));
+        assertNull(service.verify(parts[0] + "." + parts[1]));
+        assertNull(service.verify("garbage"));
+        assertNull(service.verify(token + "x"));
+
+        AuthTokenService later = service("k1", Map.of("k1", KEY_1), Clock.fixed(NOW.plus(Duration.ofHours(9)), ZoneOffset.UTC));
+        assertNull(later.verify(token));
+    }
+
+    @Test
+    @DisplayName("Should keep accepting tokens signed with a retired key during rotation")
+    void shouldSupportKeyRotation() {
+        AuthTokenService before = service("k1", Map.of("k1", KEY_1), clock);
+        AuthTokenService during = service("k2", Map.of("k1", KEY_1, "k2", KEY_2), clock);
+        AuthTokenService after = service("k2", Map.of("k2", KEY_2), clock);
+
+        String oldToken = before.issue(5L, UserRole.CLIENT, null);
+        String newToken = during.issue(5L, UserRole.CLIENT, null);
+
+        assertEquals(5L, during.verify(oldToken).id());
+        assertEquals(5L, after.verify(newToken).id());
+        assertNull(after.verify(oldToken));
+    }
+
+    @Test
+    @DisplayName("Should refuse short keys and an unknown active key")
+    void shouldValidateKeyConfiguration() {
+        String shortKey = Base64.getEncoder().encodeToString("short".getBytes());
+
+        assertThrows(IllegalStateException.class, () -> service("k1", Map.of("k1", shortKey), clock));
+        assertThrows(IllegalStateException.class, () -> service("k9", Map.of("k1", KEY_1), clock));
+    }
+
+    private AuthTokenService service(String activeKey, Map<String, String> keys, Clock clock) {
+        return new AuthTokenService(new AuthTokenProperties.Token(activeKey, keys, Duration.ofHours(8)), clock);
+    }
+}
@@ -0,0 +1,94 @@
+package com.jartiste.smartshop.infrastructure.seeder;
+
+
+import com.jartiste.smartshop.domain.entity.Client;
+import com.jartiste.smartshop.domain.entity.Order;
+import com.jartiste.smartshop.domain.enums.OrderStatus;
+import com.jartiste.smartshop.domain.repository.ClientRepository;
+import com.jartiste.smartshop.domain.repository.OrderRepository;
+import com.jartiste.smartshop.domain.repository.ProductRepository;
+import com.jartiste.smartshop.domain.service.PricingEngine;
+import com.jartiste.smartshop.infrastructure.util.PasswordUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({BulkDataGenerator.class, PricingEngine.class, PasswordUtil.class})
+@ActiveProfiles("dev")
+@TestPropertySource(properties = {
+        "smartshop.seed.bulk.clients=120",
+        "smartshop.seed.bulk.products=40",
+        "smartshop.seed.bulk.batch-size=50"
+})
+class BulkDataGeneratorTest {
+
+    @Autowired
+    private BulkDataGenerator bulkDataGenerator;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should generate a consistent dataset readable through the entities")
+    void shouldGenerateConsistentDataset() {
+        bulkDataGenerator.generate();
+
+        assertEquals(120, clientRepository.count());
+        assertEquals(40, productRepository.count());
+
+        List<Order> orders = orderRepository.findAll();
+        assertTrue(orders.size() > 120);
+        for (Order order : orders) {
+            assertEquals(0, order.getTotalAmount().compareTo(
+                    order.getSubTotal().subtract(order.getDiscountAmount()).add(order.getTaxAmount())));
+            if (order.getOrderStatus() == OrderStatus.CONFIRMED) {
+                assertEquals(0, order.getRemainingAmount().signum());
+            }
+        }
+
+        for (Client client : clientRepository.findAll()) {
+            BigDecimal confirmedTotal = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(total_amount), 0) FROM orders WHERE client_id = ? AND order_status = 'CONFIRMED'",
+                    BigDecimal.class, client.getId());
+            assertEquals(0, client.getTotalSpent().compareTo(confirmedTotal));
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave sequence ranges free for ids allocated by the application")
+    void shouldNotCollideWithApplicationIds() {
+        bulkDataGenerator.generate();
+
+        Long maxClientId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        Client saved = clientRepository.save(Client.builder()
+                .nom("After Seed")
+                .username("after_seed")
+                .password("secret")
+                .totalOrders(0)
+                .totalSpent(BigDecimal.ZERO)
+                .build());
+
+        assertTrue(saved.getId() > maxClientId);
+    }
+}
@@ -0,0 +1,122 @@
+package com.jartiste.smartshop.infrastructure.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jartiste.smartshop.domain.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@JdbcTest
+@ActiveProfiles("dev")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(scripts = {"classpath:org/springframework/session/jdbc/schema-drop-h2.sql", "classpath:org/springframework/session/jdbc/schema-h2.sql"})
+class JdbcSessionStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcIndexedSessionRepository jdbcNodeA;
+    private JdbcIndexedSessionRepository jdbcNodeB;
+    private SessionRepository<Session> nodeA;
+    private SessionRepository<Session> nodeB;
+
+    @BeforeEach
+    void setup() {
+        jdbcNodeA = jdbcNode();
+        jdbcNodeB = jdbcNode();
+        nodeA = asSessionRepository(jdbcNodeA);
+        nodeB = asSessionRepository(jdbcNodeB);
+    }
+
+    @Test
+    @DisplayName("Should let any node read the session written by another one")
+    void shouldShareSessionsAcrossNodes() {
+        Session session = nodeA.createSession();
+        session.setAttribute("USER_ID", 42L);
+        session.setAttribute("USER_ROLE", UserRole.CLIENT);
+        nodeA.save(session);
+
+        Session found = nodeB.findById(session.getId());
+
+        assertNotNull(found);
+        assertEquals(42L, (Long) found.getAttribute("USER_ID"));
+        assertEquals(UserRole.CLIENT, found.getAttribute("USER_ROLE"));
+    }
+
+    @Test
+    @DisplayName("Should sweep expired sessions in batches and keep live ones")
+    void shouldSweepExpiredSessionsInBatches() {
+        for (int i = 0; i < 7; i++) {
+            Session expired = nodeA.createSession();
+            expired.setAttribute("USER_ID", (long) i);
+            expired.setLastAccessedTime(Instant.now().minus(Duration.ofHours(2)));
+            nodeA.save(expired);
+        }
+        Session live = nodeA.createSession();
+        live.setAttribute("USER_ID", 100L);
+        nodeA.save(live);
+
+        ExpiredSessionSweeper sweeper = new ExpiredSessionSweeper(jdbcTemplate, "SPRING_SESSION", 3);
+
+        assertEquals(7, sweeper.sweep(System.currentTimeMillis()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION_ATTRIBUTES", Integer.class));
+        assertNotNull(nodeB.findById(live.getId()));
+    }
+
+    @Test
+    @DisplayName("Should store attributes as JSON when configured")
+    void shouldStoreAttributesAsJson() {
+        GenericConversionService json = new GenericConversionService();
+        json.addConverter(new JsonSessionAttributeConverter(new ObjectMapper()));
+        jdbcNodeA.setConversionService(json);
+        jdbcNodeB.setConversionService(json);
+
+        Session session = nodeA.createSession();
+        session.setAttribute("USER_ROLE", UserRole.ADMIN);
+        nodeA.save(session);
+
+        String stored = new String(jdbcTemplate.queryForObject(
+                "SELECT ATTRIBUTE_BYTES FROM SPRING_SESSION_ATTRIBUTES", byte[].class));
+
+        assertEquals("{\"@class\":\"com.jartiste.smartshop.domain.enums.UserRole\",\"value\":\"ADMIN\"}", stored);
+        assertEquals(UserRole.ADMIN, nodeB.findById(session.getId()).getAttribute("USER_ROLE"));
+        assertNull(nodeB.findById("unknown"));
+    }
+
+    // JdbcSession is package-private, the tests go through the Session interface
+    @SuppressWarnings("unchecked")
+    private static SessionRepository<Session> asSessionRepository(SessionRepository<?> repository) {
+        return (SessionRepository<Session>) repository;
+    }
+
+    private JdbcIndexedSessionRepository jdbcNode() {
+        JdbcIndexedSessionRepository repository =
+                new JdbcIndexedSessionRepository(jdbcTemplate, new TransactionTemplate(transactionManager));
+        repository.setDefaultMaxInactiveInterval(Duration.ofMinutes(30));
+        return repository;
+    }
+}
@@ -0,0 +1,77 @@
+package com.jartiste.smartshop.infrastructure.transaction;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TransactionMetricsListenerTest {
+
+    private static final String CREATE_ORDER = "com.jartiste.smartshop.application.service.impl.OrderServiceImpl.createOrder";
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionManager = new DataSourceTransactionManager(
+                new DriverManagerDataSource("jdbc:h2:mem:transaction_metrics;DB_CLOSE_DELAY=-1", "sa", ""));
+        transactionManager.addListener(new TransactionMetricsListener(meterRegistry));
+    }
+
+    @Test
+    @DisplayName("Should time each transaction under the method that started it")
+    void shouldTimeTransactionsPerMethod() {
+        TransactionTemplate createOrder = template(CREATE_ORDER, false);
+        createOrder.executeWithoutResult(status -> { });
+        createOrder.executeWithoutResult(status -> status.setRollbackOnly());
+        template("com.jartiste.smartshop.application.service.impl.OrderServiceImpl.getOrderById", true)
+                .executeWithoutResult(status -> { });
+
+        assertEquals(1, timer("OrderServiceImpl.createOrder", "false", "commit").count());
+        assertEquals(1, timer("OrderServiceImpl.createOrder", "false", "rollback").count());
+        assertEquals(1, timer("OrderServiceImpl.getOrderById", "true", "commit").count());
+    }
+
+    @Test
+    @DisplayName("Should count a joined call as part of the transaction it joins")
+    void shouldNotTimeParticipatingCalls() {
+        template(CREATE_ORDER, false).executeWithoutResult(outer ->
+                template("com.jartiste.smartshop.application.service.impl.ClientStatisticsServiceImpl.recordConfirmedOrder", false)
+                        .executeWithoutResult(inner -> { }));
+
+        assertEquals(1, timer("OrderServiceImpl.createOrder", "false", "commit").count());
+        assertNull(meterRegistry.find("smartshop.transaction.duration")
+                .tag("method", "ClientStatisticsServiceImpl.recordConfirmedOrder").timer());
+    }
+
+    @Test
+    @DisplayName("Should shorten transaction names to class and method")
+    void shouldShortenNames() {
+        assertEquals("OrderServiceImpl.createOrder", TransactionMetricsListener.method(CREATE_ORDER));
+        assertEquals("unnamed", TransactionMetricsListener.method(null));
+    }
+
+    private TransactionTemplate template(String name, boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setName(name);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private Timer timer(String method, String readOnly, String outcome) {
+        return meterRegistry.get("smartshop.transaction.duration")
+                .tag("method", method)
+                .tag("readonly", readOnly)
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,89 @@
+package com.jartiste.smartshop.infrastructure.util;
+
+import com.jartiste.smartshop.domain.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PasswordVerifierTest {
+
+    private final PasswordUtil passwordUtil = spy(new PasswordUtil(4));
+    private final PasswordVerifier passwordVerifier =
+            new PasswordVerifier(passwordUtil, 1, 1, 5000, "maximumSize=100,expireAfterWrite=5m");
+
+    @AfterEach
+    void tearDown() {
+        passwordVerifier.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should only run BCrypt once for repeated successful logins")
+    void shouldCacheSuccessfulVerification() {
+        String hash = passwordUtil.hashPassword("secret");
+
+        assertTrue(passwordVerifier.verify("alice", "secret", hash));
+        assertTrue(passwordVerifier.verify("alice", "secret", hash));
+
+        verify(passwordUtil, times(1)).checkPassword("secret", hash);
+    }
+
+    @Test
+    @DisplayName("Should not cache failed verifications nor reuse a success for another password")
+    void shouldNotCacheFailures() {
+        String hash = passwordUtil.hashPassword("secret");
+
+        assertTrue(passwordVerifier.verify("alice", "secret", hash));
+        assertFalse(passwordVerifier.verify("alice", "wrong", hash));
+        assertFalse(passwordVerifier.verify("alice", "wrong", hash));
+
+        verify(passwordUtil, times(2)).checkPassword("wrong", hash);
+    }
+
+    @Test
+    @DisplayName("Should refuse work with a 503 once the pool and its queue are full")
+    void shouldRejectWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // one task busy on the single worker, one waiting in the queue of capacity 1
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordVerifier.execute(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordVerifier.execute(() -> true));
+        while (!queued.isDone() && passwordVerifierQueueIsEmpty()) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(ServiceUnavailableException.class, () -> passwordVerifier.verify("bob", "secret", "$2a$04$x"));
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should flag hashes made with another cost for rehash")
+    void shouldDetectCostChange() {
+        assertFalse(passwordUtil.needsRehash(passwordUtil.hashPassword("secret")));
+        assertTrue(passwordUtil.needsRehash(new PasswordUtil(5).hashPassword("secret")));
+        assertEquals(4, Integer.parseInt(passwordVerifier.hash("secret").substring(4, 6)));
+    }
+
+    private boolean passwordVerifierQueueIsEmpty() {
+        return passwordVerifier.queuedTasks() == 0;
+    }
+}
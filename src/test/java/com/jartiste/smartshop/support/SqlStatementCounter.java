@@ -0,0 +1,54 @@
+package com.jartiste.smartshop.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the SQL statements Hibernate prepares, by kind. Register it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ * Sequence calls are counted apart from selects, and a JDBC batch is prepared once.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final AtomicLong SELECTS = new AtomicLong();
+    private static final AtomicLong SEQUENCE_CALLS = new AtomicLong();
+    private static final AtomicLong INSERTS = new AtomicLong();
+    private static final AtomicLong UPDATES = new AtomicLong();
+
+    @Override
+    public String inspect(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+
+        if(statement.contains("next value for") || statement.contains("nextval")) SEQUENCE_CALLS.incrementAndGet();
+        else if(statement.startsWith("select")) SELECTS.incrementAndGet();
+        else if(statement.startsWith("insert")) INSERTS.incrementAndGet();
+        else if(statement.startsWith("update")) UPDATES.incrementAndGet();
+
+        return sql;
+    }
+
+    public static void clear() {
+        SELECTS.set(0);
+        SEQUENCE_CALLS.set(0);
+        INSERTS.set(0);
+        UPDATES.set(0);
+    }
+
+    public static long selects() {
+        return SELECTS.get();
+    }
+
+    public static long sequenceCalls() {
+        return SEQUENCE_CALLS.get();
+    }
+
+    public static long inserts() {
+        return INSERTS.get();
+    }
+
+    public static long updates() {
+        return UPDATES.get();
+    }
+}